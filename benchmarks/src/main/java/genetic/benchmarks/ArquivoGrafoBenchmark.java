@@ -0,0 +1,89 @@
+package genetic.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gude.Graph;
+
+/**
+ * Benchmarks da gravação e da leitura do formato binário de saveFile e
+ * loadFile (ArquivoGrafo) para um grafo completo de n vértices, com uma
+ * aresta por par de vértices. A leitura inclui a montagem da matriz de
+ * distâncias a partir das arestas
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class ArquivoGrafoBenchmark {
+
+	@Param({ "500", "2000" })
+	public int n;
+
+	Graph g;
+	File arquivo;
+	File copia;
+
+	@Setup
+	public void prepara() throws IOException {
+		SplittableRandom gerador = new SplittableRandom(25);
+		this.g = new Graph();
+		for (int i = 0; i < this.n; i++) {
+			this.g.createVertex();
+		}
+		for (int i = 1; i <= this.n; i++) {
+			for (int j = i + 1; j <= this.n; j++) {
+				this.g.createEdge(i, j, 1.0 + gerador.nextInt(10000));
+			}
+		}
+
+		this.arquivo = File.createTempFile("grafo-" + this.n + "-", ".grafo");
+		this.copia = File.createTempFile("grafo-" + this.n + "-", ".grafo");
+		// Grava o arquivo lido por carrega antes das medições
+		if (!Graph.saveFile(this.g, this.arquivo.getPath())) {
+			throw new IllegalStateException("Falha ao gravar " + this.arquivo);
+		}
+	}
+
+	@TearDown
+	public void limpa() {
+		this.arquivo.delete();
+		this.copia.delete();
+	}
+
+	@Benchmark
+	public boolean salva() {
+		return Graph.saveFile(this.g, this.copia.getPath());
+	}
+
+	@Benchmark
+	public Graph carrega() {
+		return Graph.loadFile(this.arquivo.getPath());
+	}
+
+	@Benchmark
+	public Graph idaEVolta() {
+		Graph.saveFile(this.g, this.copia.getPath());
+		return Graph.loadFile(this.copia.getPath());
+	}
+
+}
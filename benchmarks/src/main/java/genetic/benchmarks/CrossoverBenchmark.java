@@ -0,0 +1,72 @@
+package genetic.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genetic.Aleatorio;
+import genetic.Cromossomo;
+import genetic.Crossover;
+import genetic.Populacao;
+import genetic.ReservaRotas;
+
+/**
+ * Benchmarks dos operadores de crossover. As rotas dos filhos voltam para a
+ * reserva a cada chamada, como na população, então com -prof gc só aparecem
+ * os dois cromossomos alocados por cruzamento.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrossoverBenchmark {
+
+	@Param({ "grafo-50.xml", "grafo-100.xml", "grafo-200.xml" })
+	public String grafo;
+
+	@Param({ "UM_PONTO", "OX1", "PMX", "ERX", "EAX" })
+	public Crossover.Tipo tipo;
+
+	Cromossomo pai;
+	Cromossomo mae;
+	Crossover operador;
+	Cromossomo[] filhos = new Cromossomo[2];
+	SplittableRandom rand;
+
+	@Setup(Level.Trial)
+	public void prepara() {
+		Aleatorio.semeia(OperadoresBenchmark.semente);
+		Populacao populacao = new Populacao(Grafos.carrega(this.grafo));
+		populacao.geraPopulacao(OperadoresBenchmark.tamPopulacao);
+
+		this.pai = populacao.getPopulacao().get(0);
+		this.mae = populacao.getPopulacao().get(1);
+		this.operador = this.tipo.cria();
+		this.rand = new SplittableRandom(OperadoresBenchmark.semente);
+	}
+
+	@Benchmark
+	public Cromossomo[] cruza() {
+		this.operador.cruza(this.pai, this.mae, this.rand, this.filhos, 0);
+		ReservaRotas.devolve(this.filhos[0]);
+		ReservaRotas.devolve(this.filhos[1]);
+		return this.filhos;
+	}
+
+}
@@ -0,0 +1,69 @@
+package genetic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gude.Graph;
+import gude.Vizinhos;
+
+/**
+ * Benchmarks da leitura do grafo a partir do xml, incluindo a montagem da
+ * matriz de distâncias: com o documento em memória (loadXML), em streaming
+ * (loadXMLStream) e pelo cache binário já gravado (loadXMLCached), e da
+ * montagem das listas de vizinhos
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrafoBenchmark {
+
+	@Param({ "grafo-50.xml", "grafo-100.xml", "grafo-200.xml" })
+	public String grafo;
+
+	String caminho;
+	Graph g;
+
+	@Setup
+	public void prepara() {
+		this.caminho = Grafos.arquivo(this.grafo).getPath();
+		// Grava o cache antes das medições
+		this.g = Graph.loadXMLCached(this.caminho);
+	}
+
+	@Benchmark
+	public Graph loadXML() {
+		return Graph.loadXML(this.caminho);
+	}
+
+	@Benchmark
+	public Graph loadXMLStream() {
+		return Graph.loadXMLStream(this.caminho);
+	}
+
+	@Benchmark
+	public Graph loadXMLCached() {
+		return Graph.loadXMLCached(this.caminho);
+	}
+
+	@Benchmark
+	public Vizinhos constroiVizinhos() {
+		return Vizinhos.constroi(this.g.getDistancias(), 10, 1);
+	}
+
+}
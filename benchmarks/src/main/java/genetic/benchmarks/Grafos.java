@@ -0,0 +1,57 @@
+package genetic.benchmarks;
+
+import java.io.File;
+
+import gude.Graph;
+
+/**
+ * Localiza e carrega os grafos usados nos benchmarks.
+ *
+ * <p>
+ * Os arquivos são procurados no diretório da propriedade grafos.dir, que por
+ * padrão é o diretório pai, onde ficam os xml do projeto quando os benchmarks
+ * são executados a partir da pasta benchmarks.
+ * </p>
+ *
+ */
+
+final class Grafos {
+
+	static final String DIRETORIO = System.getProperty("grafos.dir", "..");
+
+	private Grafos() {
+
+	}
+
+	/**
+	 * Retorna o arquivo do grafo
+	 *
+	 * @param nome
+	 * @return File
+	 */
+
+	static File arquivo(String nome) {
+		File arquivo = new File(DIRETORIO, nome);
+		if (!arquivo.isFile()) {
+			throw new IllegalStateException("Grafo não encontrado: " + arquivo.getAbsolutePath()
+					+ " (ajuste -Dgrafos.dir)");
+		}
+		return arquivo;
+	}
+
+	/**
+	 * Carrega o grafo a partir do xml
+	 *
+	 * @param nome
+	 * @return Graph
+	 */
+
+	static Graph carrega(String nome) {
+		Graph g = Graph.loadXML(arquivo(nome).getPath());
+		if (g == null) {
+			throw new IllegalStateException("Falha ao carregar o grafo " + nome);
+		}
+		return g;
+	}
+
+}
@@ -0,0 +1,140 @@
+package genetic.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genetic.Aleatorio;
+import genetic.BuscaLocal;
+import genetic.Cromossomo;
+import genetic.Genetic;
+import genetic.Populacao;
+import genetic.PopulacaoVirus;
+import genetic.Virus;
+import gude.Graph;
+
+/**
+ * Benchmarks dos operadores de uma geração: cálculo do fitness, infecção,
+ * crossover, busca local e remoção de clones.
+ *
+ * <p>
+ * Para medir também a taxa de alocação, execute com -prof gc.
+ * </p>
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperadoresBenchmark {
+
+	static final int tamPopulacao = 500;
+	static final int tamVirus = 8;
+	static final int semente = 42;
+
+	@Param({ "grafo-50.xml", "grafo-100.xml", "grafo-200.xml" })
+	public String grafo;
+
+	Graph g;
+	Populacao populacao;
+	Virus virus;
+	Cromossomo pai;
+	Cromossomo mae;
+	Cromossomo cromossomo;
+	int[] rota;
+
+	@Setup(Level.Trial)
+	public void prepara() {
+		Aleatorio.semeia(semente);
+		this.g = Grafos.carrega(this.grafo);
+
+		this.populacao = new Populacao(this.g);
+		this.populacao.geraPopulacao(tamPopulacao);
+
+		PopulacaoVirus populacaoVirus = new PopulacaoVirus(this.g, tamVirus);
+		populacaoVirus.geraPopulacaoVirus(tamPopulacao / 8);
+		this.virus = populacaoVirus.selecionaVirus();
+
+		this.pai = this.populacao.getPopulacao().get(0);
+		this.mae = this.populacao.getPopulacao().get(1);
+		this.cromossomo = new Cromossomo(this.g);
+		this.rota = this.pai.getRota().clone();
+	}
+
+	@Benchmark
+	public double setFitness() {
+		this.cromossomo.setFitness(this.rota);
+		return this.cromossomo.getFitness();
+	}
+
+	@Benchmark
+	public Cromossomo infecta() {
+		return this.virus.infecta(this.pai);
+	}
+
+	@Benchmark
+	public List<Cromossomo> crossOX1() {
+		return Genetic.crossOX1(this.pai, this.mae);
+	}
+
+	@Benchmark
+	public Cromossomo buscaLocal() {
+		return BuscaLocal.melhora(this.pai, 0);
+	}
+
+	@Benchmark
+	public Populacao mataClones(Clones clones) {
+		return Genetic.mataClones(clones.populacao);
+	}
+
+	/**
+	 * População com um clone a cada quatro cromossomos, refeita antes de cada
+	 * chamada porque mataClones remove os clones da lista e devolve suas rotas
+	 * para a reserva
+	 */
+
+	@State(Scope.Thread)
+	public static class Clones {
+
+		List<Cromossomo> modelo;
+		Populacao populacao;
+
+		@Setup(Level.Trial)
+		public void prepara(OperadoresBenchmark benchmark) {
+			this.modelo = new ArrayList<Cromossomo>();
+			for (Cromossomo cromossomo : benchmark.populacao.getPopulacao()) {
+				this.modelo.add(cromossomo);
+				if (this.modelo.size() % 4 == 0) {
+					this.modelo.add(cromossomo.copia());
+				}
+			}
+			this.populacao = new Populacao(benchmark.g);
+		}
+
+		@Setup(Level.Invocation)
+		public void refaz() {
+			List<Cromossomo> copias = new ArrayList<Cromossomo>(this.modelo.size());
+			for (Cromossomo cromossomo : this.modelo) {
+				copias.add(cromossomo.copia());
+			}
+			this.populacao.setPopulacao(copias);
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package genetic.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genetic.Aleatorio;
+import genetic.Cromossomo;
+import genetic.Genetic;
+import genetic.Populacao;
+import genetic.Selecao;
+
+/**
+ * Benchmarks da seleção de pais, com a tabela de seleção montada uma vez (como
+ * no crossover) e montada a cada chamada (selecionaPai sem seleção)
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelecaoBenchmark {
+
+	@Param({ "grafo-50.xml", "grafo-100.xml", "grafo-200.xml" })
+	public String grafo;
+
+	@Param({ "ROLETA", "TORNEIO", "RANK" })
+	public Selecao.Tipo tipo;
+
+	Populacao pais;
+	Selecao selecao;
+	SplittableRandom rand;
+
+	@Setup(Level.Trial)
+	public void prepara() {
+		Aleatorio.semeia(OperadoresBenchmark.semente);
+		this.pais = new Populacao(Grafos.carrega(this.grafo));
+		this.pais.geraPopulacao(OperadoresBenchmark.tamPopulacao);
+
+		// Mesmo rank de rankeiaPais: a população já está ordenada pelo fitness
+		double somaRank = 0.0;
+		for (Cromossomo cromossomo : this.pais.getPopulacao()) {
+			somaRank += cromossomo.getFitness();
+		}
+		this.pais.calculaRank(somaRank);
+
+		double[] pesos = new double[this.pais.getPopulacao().size()];
+		for (int i = 0; i < pesos.length; i++) {
+			pesos[i] = this.pais.getPopulacao().get(i).getRank();
+		}
+		this.selecao = this.tipo.cria();
+		this.selecao.prepara(pesos);
+		this.rand = new SplittableRandom(OperadoresBenchmark.semente);
+	}
+
+	@Benchmark
+	public Cromossomo selecionaPai() {
+		return Genetic.selecionaPai(this.pais, this.selecao, this.rand);
+	}
+
+	@Benchmark
+	public Cromossomo selecionaPaiSemTabela() {
+		return Genetic.selecionaPai(this.pais);
+	}
+
+}
@@ -0,0 +1,94 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe que centraliza a geração de números aleatórios do algoritmo.
+ *
+ * <p>
+ * Cada thread recebe seu próprio SplittableRandom, derivado de um gerador raiz
+ * na primeira vez em que pede um gerador, de forma que as threads nunca
+ * disputam o mesmo gerador. Com uma semente fixa (semeia), a thread principal
+ * e as threads que recebem geradores explicitamente (usa) produzem sempre a
+ * mesma sequência, o que torna as execuções reproduzíveis.
+ * </p>
+ *
+ */
+
+public class Aleatorio {
+
+	/**
+	 * Gerador de uma thread e a versão da raiz de onde ele foi derivado
+	 */
+	private static class GeradorLocal {
+		final long versao;
+		final SplittableRandom gerador;
+
+		GeradorLocal(long versao, SplittableRandom gerador) {
+			this.versao = versao;
+			this.gerador = gerador;
+		}
+	}
+
+	private static SplittableRandom raiz = new SplittableRandom();
+	private static volatile long versao = 0;
+
+	private static final ThreadLocal<GeradorLocal> local = new ThreadLocal<GeradorLocal>();
+
+	private Aleatorio() {
+
+	}
+
+	/**
+	 * Reinicia a raiz com a semente informada. Os geradores derivados antes
+	 * disso são descartados na próxima chamada de cada thread
+	 *
+	 * @param semente
+	 */
+
+	public static synchronized void semeia(long semente) {
+		raiz = new SplittableRandom(semente);
+		versao++;
+	}
+
+	/**
+	 * Retorna o gerador da thread atual
+	 *
+	 * @return SplittableRandom
+	 */
+
+	public static SplittableRandom atual() {
+		GeradorLocal gerador = local.get();
+		if (gerador == null || gerador.versao != versao) {
+			gerador = derivaDaRaiz();
+			local.set(gerador);
+		}
+		return gerador.gerador;
+	}
+
+	/**
+	 * Deriva um novo gerador independente do gerador da thread atual, para ser
+	 * entregue a outra thread ou tarefa
+	 *
+	 * @return SplittableRandom
+	 */
+
+	public static SplittableRandom divide() {
+		return atual().split();
+	}
+
+	/**
+	 * Define o gerador da thread atual
+	 *
+	 * @param gerador
+	 */
+
+	public static void usa(SplittableRandom gerador) {
+		local.set(new GeradorLocal(versao, gerador));
+	}
+
+	private static synchronized GeradorLocal derivaDaRaiz() {
+		return new GeradorLocal(versao, raiz.split());
+	}
+
+}
@@ -0,0 +1,332 @@
+package genetic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import gude.Graph;
+
+/**
+ * Classe que implementa o modelo de ilhas: várias populações de cromossomos,
+ * cada uma com sua população de vírus, evoluem de forma independente em
+ * threads separadas.
+ *
+ * <p>
+ * A cada intervaloMigracao gerações as ilhas se encontram em uma barreira e os
+ * melhores cromossomos de cada ilha (e, opcionalmente, os vírus mais
+ * infectantes) migram para outra ilha, escolhida pela topologia. Fora da
+ * migração não há trava nem ordenação global entre as ilhas; só o hall da fama
+ * é compartilhado.
+ * </p>
+ *
+ */
+
+public class Arquipelago {
+
+	/**
+	 * Define para qual ilha os migrantes de cada ilha vão
+	 */
+	public enum Topologia {
+		/** A ilha i envia para a ilha i + 1 */
+		ANEL,
+		/** A ilha i envia para uma outra ilha sorteada a cada migração */
+		ALEATORIA
+	}
+
+	private Graph g;
+	private Populacao[] populacoes;
+	private PopulacaoVirus[] populacoesVirus;
+	private MotorParalelo[] motores;
+	private SplittableRandom gerador;
+	private SplittableRandom[] geradoresIlhas;
+
+	private int intervaloMigracao = 10;
+	private int migrantes = 5;
+	private boolean migraVirus = false;
+	private Topologia topologia = Topologia.ANEL;
+
+	/**
+	 * Cria o arquipélago, com uma thread por ilha
+	 *
+	 * @param g
+	 * @param numIlhas
+	 */
+
+	public Arquipelago(Graph g, int numIlhas) {
+		this(g, numIlhas, numIlhas);
+	}
+
+	/**
+	 * Cria o arquipélago, dividindo as threads entre as ilhas: o motor de cada
+	 * ilha usa paralelismo / numIlhas threads, e pelo menos a thread da
+	 * própria ilha. O resultado não depende do paralelismo
+	 *
+	 * @param g
+	 * @param numIlhas
+	 * @param paralelismo
+	 *            Número total de threads
+	 */
+
+	public Arquipelago(Graph g, int numIlhas, int paralelismo) {
+		if (numIlhas < 1) {
+			throw new IllegalArgumentException("Número de ilhas inválido: " + numIlhas);
+		}
+		if (paralelismo < 1) {
+			throw new IllegalArgumentException("Paralelismo inválido: " + paralelismo);
+		}
+		int paralelismoIlha = Math.max(1, paralelismo / numIlhas);
+		this.g = g;
+		this.populacoes = new Populacao[numIlhas];
+		this.populacoesVirus = new PopulacaoVirus[numIlhas];
+		this.motores = new MotorParalelo[numIlhas];
+		this.geradoresIlhas = new SplittableRandom[numIlhas];
+
+		// Os geradores das ilhas e da topologia são derivados em ordem
+		this.gerador = Aleatorio.divide();
+		for (int i = 0; i < numIlhas; i++) {
+			this.motores[i] = new MotorParalelo(paralelismoIlha, this.gerador.nextLong());
+			this.geradoresIlhas[i] = this.gerador.split();
+		}
+	}
+
+	public int getNumIlhas() {
+		return populacoes.length;
+	}
+
+	public Populacao getPopulacao(int ilha) {
+		return populacoes[ilha];
+	}
+
+	public PopulacaoVirus getPopulacaoVirus(int ilha) {
+		return populacoesVirus[ilha];
+	}
+
+	public int getIntervaloMigracao() {
+		return intervaloMigracao;
+	}
+
+	public void setIntervaloMigracao(int intervaloMigracao) {
+		this.intervaloMigracao = intervaloMigracao;
+	}
+
+	public int getMigrantes() {
+		return migrantes;
+	}
+
+	public void setMigrantes(int migrantes) {
+		this.migrantes = migrantes;
+	}
+
+	public boolean isMigraVirus() {
+		return migraVirus;
+	}
+
+	public void setMigraVirus(boolean migraVirus) {
+		this.migraVirus = migraVirus;
+	}
+
+	public Topologia getTopologia() {
+		return topologia;
+	}
+
+	public void setTopologia(Topologia topologia) {
+		this.topologia = topologia;
+	}
+
+	/**
+	 * Gera as populações iniciais de cada ilha e adiciona o melhor cromossomo
+	 * de cada uma ao hall da fama
+	 *
+	 * @param tamPopulacao
+	 * @param tamPopulacaoVirus
+	 * @param tamVirus
+	 */
+
+	public void geraPopulacoes(int tamPopulacao, int tamPopulacaoVirus, int tamVirus) {
+		for (int i = 0; i < this.populacoes.length; i++) {
+			this.populacoes[i] = new Populacao(this.g);
+			this.populacoes[i].geraPopulacao(tamPopulacao);
+			Genetic.adicionaHall(this.populacoes[i].getPopulacao().get(0));
+
+			this.populacoesVirus[i] = new PopulacaoVirus(this.g, tamVirus);
+			this.populacoesVirus[i].geraPopulacaoVirus(tamPopulacaoVirus);
+		}
+	}
+
+	/**
+	 * Evolui as ilhas, cada uma em sua thread, por maxGeracoes gerações
+	 *
+	 * @param maxGeracoes
+	 */
+
+	public void executa(final int maxGeracoes) {
+		final CyclicBarrier barreira = new CyclicBarrier(this.populacoes.length, new Runnable() {
+			@Override
+			public void run() {
+				migra();
+			}
+		});
+		final List<Throwable> erros = Collections.synchronizedList(new ArrayList<Throwable>());
+		Thread[] threads = new Thread[this.populacoes.length];
+
+		for (int i = 0; i < threads.length; i++) {
+			final int ilha = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Aleatorio.usa(geradoresIlhas[ilha]);
+						evolui(ilha, maxGeracoes, barreira);
+					} catch (Throwable e) {
+						erros.add(e);
+						barreira.reset();
+					}
+				}
+			}, "Ilha-" + i);
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Execução das ilhas interrompida", e);
+			}
+		}
+
+		for (MotorParalelo motor : this.motores) {
+			motor.encerra();
+		}
+
+		if (!erros.isEmpty()) {
+			throw new IllegalStateException("Falha na execução de uma ilha", erros.get(0));
+		}
+	}
+
+	/**
+	 * Laço de gerações de uma ilha
+	 *
+	 * @param ilha
+	 * @param maxGeracoes
+	 * @param barreira
+	 *            Barreira em que as ilhas esperam umas pelas outras para migrar
+	 */
+
+	private void evolui(int ilha, int maxGeracoes, CyclicBarrier barreira)
+			throws InterruptedException, BrokenBarrierException {
+		for (int geracao = 1; geracao <= maxGeracoes; geracao++) {
+			this.populacoes[ilha] = Genetic.executaGeracao(this.populacoes[ilha], this.populacoesVirus[ilha],
+					this.motores[ilha]);
+
+			if (ilha == 0) {
+				System.out.println("Geração nº " + geracao);
+			}
+
+			if (this.intervaloMigracao > 0 && geracao % this.intervaloMigracao == 0 && geracao < maxGeracoes) {
+				barreira.await();
+			}
+		}
+	}
+
+	/**
+	 * Migra os melhores cromossomos (e vírus) de cada ilha para a ilha de
+	 * destino. Executado por uma única thread, com todas as ilhas paradas na
+	 * barreira
+	 */
+
+	private void migra() {
+		int numIlhas = this.populacoes.length;
+		List<List<Cromossomo>> emigrantes = new ArrayList<List<Cromossomo>>();
+		List<List<Virus>> virusEmigrantes = new ArrayList<List<Virus>>();
+
+		// Copia todos os emigrantes antes de inserir, para que a migração seja
+		// simultânea
+		for (int i = 0; i < numIlhas; i++) {
+			List<Cromossomo> populacao = this.populacoes[i].getPopulacao();
+			List<Cromossomo> copias = new ArrayList<Cromossomo>();
+			for (int j = 0; j < Math.min(this.migrantes, populacao.size()); j++) {
+				copias.add(populacao.get(j).copia());
+			}
+			emigrantes.add(copias);
+
+			if (this.migraVirus) {
+				virusEmigrantes.add(this.maisInfectantes(this.populacoesVirus[i]));
+			}
+		}
+
+		for (int i = 0; i < numIlhas; i++) {
+			int destino = this.destino(i);
+
+			this.populacoes[destino].getPopulacao().addAll(emigrantes.get(i));
+			this.populacoes[destino].ordenaPopulacao();
+
+			if (this.migraVirus) {
+				this.recebeVirus(this.populacoesVirus[destino], virusEmigrantes.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Retorna a ilha que recebe os migrantes da ilha origem
+	 *
+	 * @param origem
+	 * @return destino
+	 */
+
+	private int destino(int origem) {
+		int numIlhas = this.populacoes.length;
+		if (this.topologia == Topologia.ANEL) {
+			return (origem + 1) % numIlhas;
+		}
+
+		// Sorteia entre as outras ilhas
+		int destino = this.gerador.nextInt(numIlhas - 1);
+		return (destino >= origem) ? destino + 1 : destino;
+	}
+
+	/**
+	 * Copia os vírus mais infectantes da população
+	 *
+	 * @param populacaoVirus
+	 * @return List<Virus> copias
+	 */
+
+	private List<Virus> maisInfectantes(PopulacaoVirus populacaoVirus) {
+		List<Virus> ordenados = new ArrayList<Virus>(populacaoVirus.getPopulacaoVirus());
+		Collections.sort(ordenados, new Comparator<Virus>() {
+			@Override
+			public int compare(Virus v1, Virus v2) {
+				return Integer.compare(v2.getInfectabilidade(), v1.getInfectabilidade());
+			}
+		});
+
+		List<Virus> copias = new ArrayList<Virus>();
+		for (int i = 0; i < Math.min(this.migrantes, ordenados.size()); i++) {
+			copias.add(ordenados.get(i).copia());
+		}
+		return copias;
+	}
+
+	/**
+	 * Insere os vírus imigrantes no lugar dos menos infectantes, mantendo o
+	 * tamanho da população de vírus
+	 *
+	 * @param populacaoVirus
+	 * @param imigrantes
+	 */
+
+	private void recebeVirus(PopulacaoVirus populacaoVirus, List<Virus> imigrantes) {
+		populacaoVirus.ordenaPopulacao();
+		List<Virus> virus = populacaoVirus.getPopulacaoVirus();
+		for (int i = 0; i < imigrantes.size() && i < virus.size(); i++) {
+			virus.set(i, imigrantes.get(i));
+		}
+		populacaoVirus.rankeiaVirus();
+		populacaoVirus.ordenaPopulacao();
+	}
+
+}
@@ -0,0 +1,406 @@
+package genetic;
+
+import gude.Graph;
+import gude.Vizinhos;
+
+/**
+ * Classe que implementa a busca local da etapa memética: 2-opt e Or-opt
+ * restritos às listas de vizinhos mais próximos, com bits de "não olhe".
+ *
+ * <p>
+ * A rota é um caminho aberto cujas pontas (posições 0 e n - 1) não saem do
+ * lugar; os movimentos só alteram posições internas. Cada cidade fica numa
+ * fila enquanto seu bit estiver desligado. Uma cidade sai da fila quando
+ * nenhum movimento que a envolve melhora a rota, e volta para ela quando uma
+ * aresta que a toca muda. A busca termina quando a fila esvazia (ótimo local)
+ * ou quando o prazo acaba.
+ * </p>
+ *
+ */
+
+public class BuscaLocal {
+
+	/**
+	 * Cromossomos que passam pela busca local a cada geração
+	 */
+	public enum Alvo {
+		/** Sem busca local */
+		NENHUM,
+		/** Os melhores cromossomos da população */
+		MELHORES,
+		/** Todos os filhos gerados pelo crossover */
+		FILHOS
+	}
+
+	/** Vizinhos considerados para cada cidade */
+	static final int vizinhosDefault = 10;
+	/** Maior segmento movido pelo Or-opt */
+	static final int maxSegmento = 3;
+
+	private static final double EPSILON = 1e-9;
+	/** Quantas cidades são examinadas entre duas consultas ao relógio */
+	private static final int intervaloRelogio = 64;
+
+	/**
+	 * Vetores auxiliares de uma thread, reaproveitados entre chamadas
+	 */
+	private static class Espaco {
+		int[] posicao = new int[0];
+		int[] fila = new int[0];
+		boolean[] naFila = new boolean[0];
+		int[] segmento = new int[maxSegmento];
+		int inicio;
+		int tamanho;
+
+		void prepara(int n) {
+			if (this.posicao.length < n) {
+				this.posicao = new int[n];
+				this.fila = new int[n];
+				this.naFila = new boolean[n];
+			}
+			this.inicio = 0;
+			this.tamanho = 0;
+		}
+
+		void entra(int cidade) {
+			if (!this.naFila[cidade]) {
+				this.naFila[cidade] = true;
+				this.fila[(this.inicio + this.tamanho) % this.fila.length] = cidade;
+				this.tamanho++;
+			}
+		}
+
+		int sai() {
+			int cidade = this.fila[this.inicio];
+			this.inicio = (this.inicio + 1) % this.fila.length;
+			this.tamanho--;
+			this.naFila[cidade] = false;
+			return cidade;
+		}
+
+		void esvazia() {
+			while (this.tamanho > 0) {
+				this.sai();
+			}
+		}
+	}
+
+	private static final ThreadLocal<Espaco> espaco = new ThreadLocal<Espaco>() {
+		@Override
+		protected Espaco initialValue() {
+			return new Espaco();
+		}
+	};
+
+	private final Graph g;
+	private final int[] vizinhos;
+	private final int k;
+	private final Espaco espacoAtual;
+	private int[] rota;
+	private int n;
+
+	private BuscaLocal(Graph g, Vizinhos vizinhos, Espaco espaco) {
+		this.g = g;
+		this.vizinhos = vizinhos.getLista();
+		this.k = vizinhos.getK();
+		this.espacoAtual = espaco;
+	}
+
+	/**
+	 * Aplica a busca local a uma cópia do cromossomo
+	 *
+	 * @param cromossomo
+	 * @param prazo
+	 *            Instante (System.nanoTime) em que a busca para; 0 para não
+	 *            ter prazo
+	 * @return Cromossomo melhorado, ou o próprio cromossomo se a busca não
+	 *         encontrou melhora
+	 */
+
+	public static Cromossomo melhora(Cromossomo cromossomo, long prazo) {
+		return melhora(cromossomo, cromossomo.getG().getVizinhos(vizinhosDefault), prazo);
+	}
+
+	/**
+	 * Aplica a busca local a uma cópia do cromossomo, com as listas de
+	 * vizinhos já obtidas do grafo (getVizinhos é sincronizado, então quem
+	 * melhora muitos cromossomos em paralelo deve obtê-las uma única vez)
+	 *
+	 * @param cromossomo
+	 * @param vizinhos
+	 * @param prazo
+	 *            Instante (System.nanoTime) em que a busca para; 0 para não
+	 *            ter prazo
+	 * @return Cromossomo melhorado, ou o próprio cromossomo se a busca não
+	 *         encontrou melhora
+	 */
+
+	public static Cromossomo melhora(Cromossomo cromossomo, Vizinhos vizinhos, long prazo) {
+		Graph g = cromossomo.getG();
+		int[] rota = ReservaRotas.copia(cromossomo.getRota());
+		if (!melhora(rota, g, vizinhos, prazo)) {
+			ReservaRotas.devolve(rota);
+			return cromossomo;
+		}
+
+		Cromossomo melhorado = new Cromossomo(g);
+		melhorado.setRota(rota);
+		return melhorado;
+	}
+
+	/**
+	 * Aplica 2-opt e Or-opt à rota, no próprio vetor, até chegar a um ótimo
+	 * local ou o prazo acabar
+	 *
+	 * @param rota
+	 * @param g
+	 * @param vizinhos
+	 * @param prazo
+	 *            Instante (System.nanoTime) em que a busca para; 0 para não
+	 *            ter prazo
+	 * @return true se a rota foi alterada
+	 */
+
+	public static boolean melhora(int[] rota, Graph g, Vizinhos vizinhos, long prazo) {
+		if (rota.length < 4 || vizinhos.getK() == 0) {
+			return false;
+		}
+
+		Espaco espaco = BuscaLocal.espaco.get();
+		espaco.prepara(g.getNumVertex());
+		BuscaLocal busca = new BuscaLocal(g, vizinhos, espaco);
+		try {
+			return busca.executa(rota, prazo);
+		} finally {
+			espaco.esvazia();
+		}
+	}
+
+	private boolean executa(int[] rota, long prazo) {
+		this.rota = rota;
+		this.n = rota.length;
+		Espaco e = this.espacoAtual;
+
+		for (int i = 0; i < this.n; i++) {
+			e.posicao[rota[i]] = i;
+			e.entra(rota[i]);
+		}
+
+		boolean alterou = false;
+		int examinadas = 0;
+		while (e.tamanho > 0) {
+			if (prazo != 0 && ++examinadas % intervaloRelogio == 0 && System.nanoTime() - prazo > 0) {
+				break;
+			}
+
+			int cidade = e.sai();
+			if (this.doisOpt(cidade) || this.orOpt(cidade)) {
+				alterou = true;
+			}
+		}
+		return alterou;
+	}
+
+	/**
+	 * Procura um 2-opt que crie a aresta entre a cidade e um de seus vizinhos,
+	 * trocando a aresta para o sucessor ou para o antecessor da cidade
+	 *
+	 * @param a
+	 * @return true se aplicou um movimento
+	 */
+
+	private boolean doisOpt(int a) {
+		int[] posicao = this.espacoAtual.posicao;
+		int i = posicao[a];
+
+		// Aresta para o sucessor
+		if (i < this.n - 1) {
+			int an = this.rota[i + 1];
+			double dA = this.g.distance(a, an);
+			for (int r = 0; r < this.k; r++) {
+				int c = this.vizinhos[a * this.k + r];
+				double dAC = this.g.distance(a, c);
+				if (!(dAC < dA)) {
+					break;
+				}
+				int j = posicao[c];
+				if (j >= this.n - 1) {
+					continue;
+				}
+				int cn = this.rota[j + 1];
+				if (c == an || cn == a) {
+					continue;
+				}
+				double ganho = dA + this.g.distance(c, cn) - dAC - this.g.distance(an, cn);
+				if (ganho > EPSILON) {
+					if (i < j) {
+						this.inverte(i + 1, j);
+					} else {
+						this.inverte(j + 1, i);
+					}
+					this.reativa(a, an, c, cn);
+					return true;
+				}
+			}
+		}
+
+		// Aresta para o antecessor
+		if (i > 0) {
+			int ap = this.rota[i - 1];
+			double dA = this.g.distance(ap, a);
+			for (int r = 0; r < this.k; r++) {
+				int c = this.vizinhos[a * this.k + r];
+				double dAC = this.g.distance(a, c);
+				if (!(dAC < dA)) {
+					break;
+				}
+				int j = posicao[c];
+				if (j <= 0) {
+					continue;
+				}
+				int cp = this.rota[j - 1];
+				if (c == ap || cp == a) {
+					continue;
+				}
+				double ganho = dA + this.g.distance(cp, c) - dAC - this.g.distance(ap, cp);
+				if (ganho > EPSILON) {
+					if (j < i) {
+						this.inverte(j, i - 1);
+					} else {
+						this.inverte(i, j - 1);
+					}
+					this.reativa(a, ap, c, cp);
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Procura um Or-opt que mova o segmento que começa na cidade (de 1 a
+	 * maxSegmento cidades) para junto de um vizinho de uma de suas pontas,
+	 * direto ou invertido
+	 *
+	 * @param a
+	 * @return true se aplicou um movimento
+	 */
+
+	private boolean orOpt(int a) {
+		int[] posicao = this.espacoAtual.posicao;
+		int i = posicao[a];
+		if (i < 1) {
+			return false;
+		}
+
+		for (int tamanho = 1; tamanho <= maxSegmento && i + tamanho <= this.n - 1; tamanho++) {
+			int fimSegmento = i + tamanho - 1;
+			int s0 = this.rota[i];
+			int sL = this.rota[fimSegmento];
+			int p = this.rota[i - 1];
+			int q = this.rota[fimSegmento + 1];
+			double ganhoRemocao = this.g.distance(p, s0) + this.g.distance(sL, q) - this.g.distance(p, q);
+			if (!(ganhoRemocao > EPSILON)) {
+				continue;
+			}
+
+			for (int ponta = 0; ponta < 2; ponta++) {
+				int e = (ponta == 0) ? s0 : sL;
+				if (ponta == 1 && sL == s0) {
+					break;
+				}
+				for (int r = 0; r < this.k; r++) {
+					int c = this.vizinhos[e * this.k + r];
+					if (!(this.g.distance(e, c) < ganhoRemocao)) {
+						break;
+					}
+					int j = posicao[c];
+
+					// Arestas (c, sucessor) e (antecessor, c), fora do segmento
+					for (int m = j - 1; m <= j; m++) {
+						if (m < 0 || m + 1 > this.n - 1 || (m >= i - 1 && m <= fimSegmento)) {
+							continue;
+						}
+						int x = this.rota[m];
+						int y = this.rota[m + 1];
+						double dXY = this.g.distance(x, y);
+						double direto = this.g.distance(x, s0) + this.g.distance(sL, y) - dXY;
+						double invertido = this.g.distance(x, sL) + this.g.distance(s0, y) - dXY;
+						boolean inverte = invertido < direto;
+						double ganho = ganhoRemocao - (inverte ? invertido : direto);
+						if (ganho > EPSILON) {
+							this.move(i, tamanho, m, inverte);
+							this.reativa(p, q, s0, sL);
+							this.reativa(x, y, s0, sL);
+							return true;
+						}
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Inverte as posições [inicio, fim] da rota
+	 */
+	private void inverte(int inicio, int fim) {
+		int[] posicao = this.espacoAtual.posicao;
+		while (inicio < fim) {
+			int aux = this.rota[inicio];
+			this.rota[inicio] = this.rota[fim];
+			this.rota[fim] = aux;
+			posicao[this.rota[inicio]] = inicio;
+			posicao[this.rota[fim]] = fim;
+			inicio++;
+			fim--;
+		}
+	}
+
+	/**
+	 * Move o segmento [inicio, inicio + tamanho) para entre as posições m e m +
+	 * 1, que ficam fora dele
+	 */
+	private void move(int inicio, int tamanho, int m, boolean inverte) {
+		int[] posicao = this.espacoAtual.posicao;
+		int[] segmento = this.espacoAtual.segmento;
+		for (int t = 0; t < tamanho; t++) {
+			segmento[t] = this.rota[inicio + (inverte ? tamanho - 1 - t : t)];
+		}
+
+		int destino;
+		if (m >= inicio + tamanho) {
+			// Desloca para a esquerda as cidades entre o segmento e m
+			for (int t = inicio + tamanho; t <= m; t++) {
+				this.rota[t - tamanho] = this.rota[t];
+				posicao[this.rota[t - tamanho]] = t - tamanho;
+			}
+			destino = m - tamanho + 1;
+		} else {
+			// Desloca para a direita as cidades entre m e o segmento
+			for (int t = inicio - 1; t > m; t--) {
+				this.rota[t + tamanho] = this.rota[t];
+				posicao[this.rota[t + tamanho]] = t + tamanho;
+			}
+			destino = m + 1;
+		}
+
+		for (int t = 0; t < tamanho; t++) {
+			this.rota[destino + t] = segmento[t];
+			posicao[segmento[t]] = destino + t;
+		}
+	}
+
+	/**
+	 * Desliga o bit de "não olhe" das cidades, colocando-as de volta na fila
+	 */
+	private void reativa(int c1, int c2, int c3, int c4) {
+		this.espacoAtual.entra(c1);
+		this.espacoAtual.entra(c2);
+		this.espacoAtual.entra(c3);
+		this.espacoAtual.entra(c4);
+	}
+
+}
@@ -6,10 +6,11 @@ import gude.Vertex;
 public class Cromossomo {
 
 	private Graph g;
-	private Double fitness;
-	private Vertex[] rota;
-	private Double rank;
-	private Integer tempoDeVida = 3;
+	private double fitness;
+	private long assinatura;
+	private int[] rota;
+	private double rank;
+	private int tempoDeVida = 3;
 
 	public Cromossomo(Graph g) {
 		this.g = g;
@@ -23,57 +24,154 @@ public class Cromossomo {
 		this.g = g;
 	}
 
-	public Double getFitness() {
+	public double getFitness() {
 		return fitness;
 	}
 
-	public Vertex[] getRota() {
+	/**
+	 * Retorna a assinatura da rota: o XOR das chaves de suas arestas, sem
+	 * direção. Rotas iguais têm a mesma assinatura, mas a recíproca não vale:
+	 * uma rota e a sua inversa têm as mesmas arestas, e só no modo de pontas
+	 * fixas (ver {@link Pontas}) o conjunto de arestas determina a rota. Além
+	 * disso o hash pode colidir, então assinaturas iguais devem ser
+	 * confirmadas comparando as rotas
+	 * 
+	 * @return assinatura
+	 */
+
+	public long getAssinatura() {
+		return assinatura;
+	}
+
+	/**
+	 * Retorna a rota como índices de cidades na matriz de distâncias do grafo
+	 * 
+	 * @return rota
+	 */
+
+	public int[] getRota() {
 		return rota;
 	}
 
-	public void setRota(Vertex[] rota) {
+	public void setRota(int[] rota) {
 		this.rota = rota;
 		this.setFitness(rota);
 	}
 
-	public Integer getTempoDeVida() {
+	/**
+	 * Seta uma rota derivada da rota do pai, que só difere dela nas posições
+	 * [inicio, fim). O fitness é calculado a partir do fitness do pai,
+	 * recalculando apenas as arestas que tocam o trecho alterado
+	 * 
+	 * @param rota
+	 *            Rota derivada
+	 * @param pai
+	 *            Cromossomo de onde a rota foi derivada
+	 * @param inicio
+	 *            Primeira posição alterada
+	 * @param fim
+	 *            Posição seguinte à última alterada
+	 */
+
+	public void setRota(int[] rota, Cromossomo pai, int inicio, int fim) {
+		int[] rotaPai = pai.getRota();
+		int primeira = Math.max(1, inicio);
+		int ultima = Math.min(rota.length - 1, fim);
+		double soma = pai.getFitness();
+		long assinatura = pai.getAssinatura();
+
+		for (int i = primeira; i <= ultima; i++) {
+			soma -= this.g.distance(rotaPai[i - 1], rotaPai[i]);
+			soma += this.g.distance(rota[i - 1], rota[i]);
+			assinatura ^= chaveAresta(rotaPai[i - 1], rotaPai[i]) ^ chaveAresta(rota[i - 1], rota[i]);
+		}
+
+		this.rota = rota;
+		this.fitness = soma;
+		this.assinatura = assinatura;
+	}
+
+	/**
+	 * Cria uma cópia do cromossomo, com sua própria rota e o mesmo fitness
+	 * 
+	 * @return Cromossomo
+	 */
+
+	public Cromossomo copia() {
+		Cromossomo copia = new Cromossomo(this.g);
+		copia.rota = ReservaRotas.copia(this.rota);
+		copia.fitness = this.fitness;
+		copia.assinatura = this.assinatura;
+		return copia;
+	}
+
+	/**
+	 * Materializa a rota como vértices do grafo, para exibição
+	 * 
+	 * @return Vertex[] rota
+	 */
+
+	public Vertex[] getRotaVertices() {
+		Vertex[] vertices = new Vertex[this.rota.length];
+
+		for (int i = 0; i < this.rota.length; i++) {
+			vertices[i] = this.g.getVertexByIndex(this.rota[i]);
+		}
+
+		return vertices;
+	}
+
+	public int getTempoDeVida() {
 		return tempoDeVida;
 	}
 
-	public void setTempoDeVida(Integer tempoDeVida) {
+	public void setTempoDeVida(int tempoDeVida) {
 		this.tempoDeVida = tempoDeVida;
 	}
 
 	/**
-	 * Seta o fitness de uma rota, que é a soma das distâncias entre elas
+	 * Seta o fitness de uma rota, que é a soma das distâncias entre elas, e a
+	 * assinatura da rota
 	 * 
 	 * @param rota
 	 */
 
-	public void setFitness(Vertex[] rota) {
-		Integer i;
-		Double soma = 0.0;
-
-		for (i = 1; i < rota.length; i++) {
-			try {
-				soma += this.g.getEdge(rota[i - 1].getId(), rota[i].getId()).getDistancia();
-			} catch (Exception e) {
-				if (rota[i] == rota[i - 1]) {
-					soma += 0;
-				} else {
-					soma += this.g.getEdge(rota[i].getId(), rota[i - 1].getId()).getDistancia();
-				}
-			}
+	public void setFitness(int[] rota) {
+		double soma = 0.0;
+		long assinatura = 0L;
+
+		for (int i = 1; i < rota.length; i++) {
+			soma += this.g.distance(rota[i - 1], rota[i]);
+			assinatura ^= chaveAresta(rota[i - 1], rota[i]);
 		}
 
 		this.fitness = soma;
+		this.assinatura = assinatura;
+	}
+
+	/**
+	 * Chave pseudoaleatória de 64 bits da aresta {a, b}, igual nos dois
+	 * sentidos. Faz o papel da tabela de Zobrist sem guardar n² valores: o par
+	 * é embaralhado pelo finalizador do SplitMix64
+	 * 
+	 * @param a
+	 * @param b
+	 * @return chave
+	 */
+
+	static long chaveAresta(int a, int b) {
+		long z = (a < b) ? ((long) a << 32) | b : ((long) b << 32) | a;
+		z += 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
 	}
 
-	public Double getRank() {
+	public double getRank() {
 		return rank;
 	}
 
-	public void setRank(Double rank) {
+	public void setRank(double rank) {
 		this.rank = rank;
 	}
 
@@ -0,0 +1,130 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+import gude.Graph;
+
+/**
+ * Classe base dos operadores de crossover. Cada operador escreve os dois filhos
+ * em vetores da {@link ReservaRotas}, sem alterar as rotas dos pais, e os
+ * filhos são sempre permutações das cidades.
+ *
+ * <p>
+ * Os operadores só recombinam a janela [inicio, fim) da rota: a rota inteira
+ * ou, com as pontas fixas ({@link Pontas}), as posições internas. Fora da
+ * janela os filhos repetem os pais. Os vetores auxiliares (máscara de cidades,
+ * índice de posições, tabela de arestas) são de cada thread e reaproveitados
+ * entre chamadas, então um cruzamento só aloca os dois cromossomos.
+ * </p>
+ *
+ */
+
+public abstract class Crossover {
+
+	/**
+	 * Operadores de crossover disponíveis
+	 */
+	public enum Tipo {
+		/** Um ponto de corte: o início de um pai e o resto na ordem do outro */
+		UM_PONTO,
+		/** Order crossover (OX1): um trecho de um pai e o resto na ordem do outro */
+		OX1,
+		/** Partially mapped crossover: um trecho de um pai, o resto mapeado */
+		PMX,
+		/** Edge recombination: o filho usa as arestas dos dois pais */
+		ERX,
+		/** Edge assembly: um AB-ciclo aplicado ao pai, subciclos unidos */
+		EAX;
+
+		/**
+		 * Cria uma nova instância do operador
+		 *
+		 * @return Crossover
+		 */
+		public Crossover cria() {
+			switch (this) {
+			case OX1:
+				return new CrossoverOX1();
+			case PMX:
+				return new CrossoverPMX();
+			case ERX:
+				return new CrossoverERX();
+			case EAX:
+				return new CrossoverEAX();
+			default:
+				return new CrossoverUmPonto();
+			}
+		}
+	}
+
+	/**
+	 * Cruza os pais e escreve os filhos em filhos[posicao] e filhos[posicao +
+	 * 1]
+	 *
+	 * @param pai
+	 * @param mae
+	 * @param rand
+	 * @param filhos
+	 * @param posicao
+	 */
+	public abstract void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos,
+			int posicao);
+
+	/**
+	 * Prepara o operador para cruzar rotas do grafo. É chamado uma vez por
+	 * geração, na thread que distribui os cruzamentos, antes deles; os
+	 * operadores que consultam o grafo guardam aqui o que leriam a cada
+	 * cruzamento
+	 *
+	 * @param g
+	 */
+	public void prepara(Graph g) {
+
+	}
+
+	/**
+	 * Primeira posição da janela recombinada
+	 */
+	static int inicioJanela() {
+		return Pontas.isFixas() ? 1 : 0;
+	}
+
+	/**
+	 * Posição seguinte à última da janela recombinada
+	 */
+	static int fimJanela(int n) {
+		return Pontas.isFixas() ? n - 1 : n;
+	}
+
+	/**
+	 * Cria o cromossomo do filho, com o fitness calculado a partir da rota de
+	 * base, da qual o filho só difere em [inicio, fim)
+	 *
+	 * @param rota
+	 * @param base
+	 * @param inicio
+	 * @param fim
+	 * @return Cromossomo
+	 */
+	static Cromossomo filho(int[] rota, Cromossomo base, int inicio, int fim) {
+		Cromossomo filho = new Cromossomo(base.getG());
+		filho.setRota(rota, base, inicio, fim);
+		return filho;
+	}
+
+	/**
+	 * Sorteia um trecho não vazio [a, b) da janela e o retorna como a * 2^32 +
+	 * b, para não alocar
+	 */
+	static long sorteiaTrecho(int inicio, int fim, SplittableRandom rand) {
+		int a = inicio + rand.nextInt(fim - inicio);
+		int b = inicio + rand.nextInt(fim - inicio);
+		if (a > b) {
+			int aux = a;
+			a = b;
+			b = aux;
+		}
+		return ((long) a << 32) | (b + 1);
+	}
+
+}
@@ -0,0 +1,482 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+import gude.Graph;
+import gude.Vizinhos;
+
+/**
+ * Edge assembly crossover (EAX). As arestas que só um dos pais tem formam
+ * ciclos alternados (AB-ciclos): uma aresta do pai A, uma do pai B, e assim
+ * por diante. Cada filho é o seu pai base com um AB-ciclo sorteado aplicado
+ * (sai a aresta do pai base, entra a do outro pai), o que dá um conjunto de
+ * subciclos; os subciclos são unidos, do menor para o maior, pela troca de
+ * duas arestas mais barata entre uma cidade e seus vizinhos mais próximos.
+ *
+ * <p>
+ * A rota é um caminho, então os pais são fechados em ciclos por uma cidade
+ * fictícia (índice n) ligada às duas pontas, com distância zero; o filho é
+ * lido a partir dela. Com as pontas fixas ({@link Pontas}) a cidade fictícia
+ * só pode se ligar às duas pontas, e o filho mantém as pontas dos pais.
+ * Todos os vetores, com duas posições de vizinhança por cidade, são de cada
+ * thread e reaproveitados entre chamadas.
+ * </p>
+ *
+ */
+
+public class CrossoverEAX extends Crossover {
+
+	private static final ThreadLocal<Montagem> montagem = new ThreadLocal<Montagem>() {
+		@Override
+		protected Montagem initialValue() {
+			return new Montagem();
+		}
+	};
+
+	/** Grafo e listas de vizinhos obtidas em prepara */
+	private Graph grafo;
+	private Vizinhos vizinhos;
+
+	/**
+	 * Guarda as listas de vizinhos do grafo: getVizinhos é sincronizado, e os
+	 * cruzamentos de uma geração correm em paralelo
+	 */
+	@Override
+	public void prepara(Graph g) {
+		this.vizinhos = g.getVizinhos(BuscaLocal.vizinhosDefault);
+		this.grafo = g;
+	}
+
+	@Override
+	public void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos, int posicao) {
+		Graph g = pai.getG();
+		Vizinhos lista = (g == this.grafo) ? this.vizinhos : g.getVizinhos(BuscaLocal.vizinhosDefault);
+
+		Montagem m = montagem.get();
+		m.prepara(pai, lista);
+		m.fecha(pai.getRota(), m.adjA);
+		m.fecha(mae.getRota(), m.adjB);
+		int quantidade = m.abCiclos(rand);
+
+		if (quantidade == 0) {
+			filhos[posicao] = pai.copia();
+			filhos[posicao + 1] = mae.copia();
+			return;
+		}
+		Cromossomo filhoA = m.monta(pai, m.adjA, rand.nextInt(quantidade), true);
+		Cromossomo filhoB = m.monta(mae, m.adjB, rand.nextInt(quantidade), false);
+		filhos[posicao] = (filhoA != null) ? filhoA : pai.copia();
+		filhos[posicao + 1] = (filhoB != null) ? filhoB : mae.copia();
+	}
+
+	/**
+	 * Vetores e estado de uma thread, reaproveitados entre chamadas
+	 */
+	private static class Montagem {
+		/** Vizinhos de cada cidade nos ciclos dos pais e do filho */
+		int[] adjA = new int[0];
+		int[] adjB = new int[0];
+		int[] filho = new int[0];
+		/** Arestas que só um dos pais tem, ainda fora dos AB-ciclos */
+		int[] restoA = new int[0];
+		int[] restoB = new int[0];
+		int[] grauA = new int[0];
+		int[] grauB = new int[0];
+		/** Caminho alternado em construção e posição par de cada cidade nele */
+		int[] caminho = new int[0];
+		int[] posicaoPar = new int[0];
+		/** AB-ciclos, um após o outro, e onde cada um começa */
+		int[] ciclos = new int[0];
+		int[] inicioCiclo = new int[0];
+		/** Subciclo de cada cidade, tamanho e representante de cada subciclo */
+		int[] subciclo = new int[0];
+		int[] tamanho = new int[0];
+		int[] representante = new int[0];
+		int[] membros = new int[0];
+
+		Graph g;
+		int n;
+		/** Índice da cidade fictícia que fecha o caminho */
+		int ficticia;
+		/** Pontas fixas do caminho, ou -1 */
+		int inicio;
+		int fim;
+		int[] vizinhos;
+		int k;
+
+		// Melhor troca encontrada: saem (u, u2) e (v, v2), entram (u, v) e
+		// (u2, v2)
+		int trocaU;
+		int trocaU2;
+		int trocaV;
+		int trocaV2;
+		double trocaCusto;
+
+		void prepara(Cromossomo pai, Vizinhos lista) {
+			this.g = pai.getG();
+			this.n = pai.getRota().length;
+			this.ficticia = this.n;
+			int cidades = this.n + 1;
+			if (this.grauA.length < cidades) {
+				this.adjA = new int[2 * cidades];
+				this.adjB = new int[2 * cidades];
+				this.filho = new int[2 * cidades];
+				this.restoA = new int[2 * cidades];
+				this.restoB = new int[2 * cidades];
+				this.grauA = new int[cidades];
+				this.grauB = new int[cidades];
+				this.caminho = new int[2 * cidades + 1];
+				this.posicaoPar = new int[cidades];
+				this.ciclos = new int[2 * cidades];
+				this.inicioCiclo = new int[cidades + 1];
+				this.subciclo = new int[cidades];
+				this.tamanho = new int[cidades];
+				this.representante = new int[cidades];
+				this.membros = new int[cidades];
+			}
+			if (Pontas.isFixas()) {
+				this.inicio = pai.getRota()[0];
+				this.fim = pai.getRota()[this.n - 1];
+			} else {
+				this.inicio = -1;
+				this.fim = -1;
+			}
+			this.vizinhos = lista.getLista();
+			this.k = lista.getK();
+		}
+
+		/**
+		 * Monta o ciclo da rota, com a cidade fictícia entre a última e a primeira
+		 */
+		private void fecha(int[] rota, int[] adj) {
+			for (int i = 0; i < this.n; i++) {
+				adj[2 * rota[i]] = (i == 0) ? this.ficticia : rota[i - 1];
+				adj[2 * rota[i] + 1] = (i == this.n - 1) ? this.ficticia : rota[i + 1];
+			}
+			adj[2 * this.ficticia] = rota[this.n - 1];
+			adj[2 * this.ficticia + 1] = rota[0];
+		}
+
+		/**
+		 * Decompõe as arestas que só um dos pais tem em AB-ciclos, guardados em
+		 * ciclos a partir de inicioCiclo; cada ciclo começa por uma aresta de A
+		 *
+		 * @return quantidade de AB-ciclos
+		 */
+		private int abCiclos(SplittableRandom rand) {
+			int cidades = this.n + 1;
+			for (int v = 0; v < cidades; v++) {
+				this.grauA[v] = 0;
+				this.grauB[v] = 0;
+				this.posicaoPar[v] = -1;
+			}
+			for (int v = 0; v < cidades; v++) {
+				for (int s = 0; s < 2; s++) {
+					int a = this.adjA[2 * v + s];
+					if (a != this.adjB[2 * v] && a != this.adjB[2 * v + 1]) {
+						this.restoA[2 * v + this.grauA[v]++] = a;
+					}
+					int b = this.adjB[2 * v + s];
+					if (b != this.adjA[2 * v] && b != this.adjA[2 * v + 1]) {
+						this.restoB[2 * v + this.grauB[v]++] = b;
+					}
+				}
+			}
+
+			int quantidade = 0;
+			int escritos = 0;
+			int deslocamento = rand.nextInt(cidades);
+			for (int c = 0; c < cidades; c++) {
+				int origem = (c + deslocamento) % cidades;
+				if (this.grauA[origem] == 0) {
+					continue;
+				}
+
+				this.caminho[0] = origem;
+				this.posicaoPar[origem] = 0;
+				int comprimento = 1;
+				while (comprimento > 1 || this.grauA[origem] > 0) {
+					int atual = this.caminho[comprimento - 1];
+					// Posições pares saem por uma aresta de A, ímpares por uma de B
+					boolean deA = (comprimento - 1) % 2 == 0;
+					int[] resto = deA ? this.restoA : this.restoB;
+					int[] grau = deA ? this.grauA : this.grauB;
+					int proxima = resto[2 * atual + rand.nextInt(grau[atual])];
+					retira(resto, grau, atual, proxima);
+					retira(resto, grau, proxima, atual);
+					this.caminho[comprimento++] = proxima;
+
+					if (deA) {
+						continue;
+					}
+					int fechamento = this.posicaoPar[proxima];
+					if (fechamento < 0) {
+						this.posicaoPar[proxima] = comprimento - 1;
+						continue;
+					}
+
+					// O caminho voltou a uma cidade par: o trecho desde ela é um
+					// AB-ciclo
+					this.inicioCiclo[quantidade++] = escritos;
+					for (int i = fechamento; i < comprimento - 1; i++) {
+						this.ciclos[escritos++] = this.caminho[i];
+						if (i > fechamento && (i - fechamento) % 2 == 0) {
+							this.posicaoPar[this.caminho[i]] = -1;
+						}
+					}
+					comprimento = fechamento + 1;
+				}
+				this.posicaoPar[origem] = -1;
+			}
+			this.inicioCiclo[quantidade] = escritos;
+			return quantidade;
+		}
+
+		private static void retira(int[] resto, int[] grau, int de, int cidade) {
+			if (resto[2 * de] == cidade) {
+				resto[2 * de] = resto[2 * de + 1];
+			}
+			grau[de]--;
+		}
+
+		/**
+		 * Aplica o AB-ciclo ao pai base, une os subciclos e cria o filho
+		 *
+		 * @param base
+		 *            Pai base
+		 * @param adj
+		 *            Ciclo do pai base
+		 * @param ciclo
+		 *            AB-ciclo aplicado
+		 * @param baseA
+		 *            Se o pai base é A; senão as arestas trocadas são as de B
+		 * @return o filho, ou null se os subciclos não puderam ser unidos
+		 */
+		private Cromossomo monta(Cromossomo base, int[] adj, int ciclo, boolean baseA) {
+			int[] filho = this.filho;
+			System.arraycopy(adj, 0, filho, 0, 2 * (this.n + 1));
+
+			// As arestas de A ligam as posições 2i e 2i + 1 do ciclo; as de B, 2i
+			// + 1 e 2i + 2
+			int primeiro = this.inicioCiclo[ciclo];
+			int tamanhoCiclo = this.inicioCiclo[ciclo + 1] - primeiro;
+			int sai = baseA ? 0 : 1;
+			for (int i = sai; i < tamanhoCiclo; i += 2) {
+				int a = this.ciclos[primeiro + i];
+				int b = this.ciclos[primeiro + (i + 1) % tamanhoCiclo];
+				troca(filho, a, b, -1);
+				troca(filho, b, a, -1);
+			}
+			for (int i = 1 - sai; i < tamanhoCiclo; i += 2) {
+				int a = this.ciclos[primeiro + i];
+				int b = this.ciclos[primeiro + (i + 1) % tamanhoCiclo];
+				troca(filho, a, -1, b);
+				troca(filho, b, -1, a);
+			}
+
+			if (!this.une()) {
+				return null;
+			}
+			return this.caminho(base);
+		}
+
+		/**
+		 * Troca um vizinho da cidade no ciclo do filho
+		 */
+		private static void troca(int[] adj, int cidade, int velho, int novo) {
+			if (adj[2 * cidade] == velho) {
+				adj[2 * cidade] = novo;
+			} else {
+				adj[2 * cidade + 1] = novo;
+			}
+		}
+
+		private static int outro(int[] adj, int cidade, int vizinho) {
+			return (adj[2 * cidade] == vizinho) ? adj[2 * cidade + 1] : adj[2 * cidade];
+		}
+
+		/**
+		 * Une os subciclos do filho, sempre o menor com o vizinho que der a troca
+		 * de arestas mais barata
+		 *
+		 * @return false se algum subciclo não tem troca permitida com os outros
+		 *         (com as pontas fixas, a cidade fictícia restringe as trocas)
+		 */
+		private boolean une() {
+			int[] filho = this.filho;
+			int cidades = this.n + 1;
+
+			int subciclos = 0;
+			for (int v = 0; v < cidades; v++) {
+				this.subciclo[v] = -1;
+			}
+			for (int v = 0; v < cidades; v++) {
+				if (this.subciclo[v] >= 0) {
+					continue;
+				}
+				int tamanho = 0;
+				int anterior = filho[2 * v];
+				int atual = v;
+				do {
+					this.subciclo[atual] = subciclos;
+					tamanho++;
+					int proxima = outro(filho, atual, anterior);
+					anterior = atual;
+					atual = proxima;
+				} while (atual != v);
+				this.tamanho[subciclos] = tamanho;
+				this.representante[subciclos] = v;
+				subciclos++;
+			}
+
+			for (int restantes = subciclos; restantes > 1; restantes--) {
+				int menor = -1;
+				for (int s = 0; s < subciclos; s++) {
+					if (this.tamanho[s] > 0 && (menor < 0 || this.tamanho[s] < this.tamanho[menor])) {
+						menor = s;
+					}
+				}
+
+				int quantidade = 0;
+				int anterior = filho[2 * this.representante[menor]];
+				int atual = this.representante[menor];
+				do {
+					this.membros[quantidade++] = atual;
+					int proxima = outro(filho, atual, anterior);
+					anterior = atual;
+					atual = proxima;
+				} while (atual != this.representante[menor]);
+
+				if (!this.melhorTroca(quantidade, menor, false) && !this.melhorTroca(quantidade, menor, true)) {
+					return false;
+				}
+				int destino = this.subciclo[this.trocaV];
+				this.aplicaTroca();
+				for (int i = 0; i < quantidade; i++) {
+					this.subciclo[this.membros[i]] = destino;
+				}
+				this.tamanho[destino] += this.tamanho[menor];
+				this.tamanho[menor] = 0;
+			}
+			return true;
+		}
+
+		/**
+		 * Procura a troca de duas arestas mais barata que liga o subciclo a outro,
+		 * entre os vizinhos mais próximos das suas cidades ou, se todas, entre
+		 * todas as cidades
+		 *
+		 * @return true se encontrou alguma troca
+		 */
+		private boolean melhorTroca(int quantidade, int subciclo, boolean todas) {
+			this.trocaV = -1;
+			for (int i = 0; i < quantidade; i++) {
+				int u = this.membros[i];
+				if (todas) {
+					for (int v = 0; v <= this.n; v++) {
+						if (this.subciclo[v] != subciclo) {
+							this.avalia(u, v);
+						}
+					}
+				} else if (u != this.ficticia) {
+					for (int r = 0; r < this.k; r++) {
+						int v = this.vizinhos[u * this.k + r];
+						if (this.subciclo[v] != subciclo) {
+							this.avalia(u, v);
+						}
+					}
+				}
+			}
+			return this.trocaV >= 0;
+		}
+
+		private void avalia(int u, int v) {
+			int[] filho = this.filho;
+			for (int s = 0; s < 2; s++) {
+				int u2 = filho[2 * u + s];
+				double removidaU = this.distancia(u, u2);
+				for (int t = 0; t < 2; t++) {
+					int v2 = filho[2 * v + t];
+					double removidas = removidaU + this.distancia(v, v2);
+					// Duas formas de religar: (u, v) e (u2, v2), ou (u, v2) e (u2, v)
+					if (this.permitida(u, v) && this.permitida(u2, v2)) {
+						this.considera(u, u2, v, v2, this.distancia(u, v) + this.distancia(u2, v2) - removidas);
+					}
+					if (this.permitida(u, v2) && this.permitida(u2, v)) {
+						this.considera(u, u2, v2, v, this.distancia(u, v2) + this.distancia(u2, v) - removidas);
+					}
+				}
+			}
+		}
+
+		private void considera(int u, int u2, int v, int v2, double custo) {
+			if (this.trocaV < 0 || custo < this.trocaCusto) {
+				this.trocaU = u;
+				this.trocaU2 = u2;
+				this.trocaV = v;
+				this.trocaV2 = v2;
+				this.trocaCusto = custo;
+			}
+		}
+
+		private void aplicaTroca() {
+			int[] filho = this.filho;
+			troca(filho, this.trocaU, this.trocaU2, this.trocaV);
+			troca(filho, this.trocaU2, this.trocaU, this.trocaV2);
+			troca(filho, this.trocaV, this.trocaV2, this.trocaU);
+			troca(filho, this.trocaV2, this.trocaV, this.trocaU2);
+		}
+
+		private double distancia(int a, int b) {
+			if (a == this.ficticia || b == this.ficticia) {
+				return 0;
+			}
+			return this.g.distance(a, b);
+		}
+
+		/**
+		 * Com as pontas fixas, a cidade fictícia só se liga às pontas
+		 */
+		private boolean permitida(int a, int b) {
+			if (this.inicio < 0 || (a != this.ficticia && b != this.ficticia)) {
+				return true;
+			}
+			int outra = (a == this.ficticia) ? b : a;
+			return outra == this.inicio || outra == this.fim;
+		}
+
+		/**
+		 * Lê o caminho do filho a partir da cidade fictícia e cria o cromossomo,
+		 * com o fitness calculado a partir do pai base
+		 */
+		private Cromossomo caminho(Cromossomo base) {
+			int[] filho = this.filho;
+			int[] rotaBase = base.getRota();
+			int[] rota = ReservaRotas.obtem(this.n);
+
+			// Sentido que mantém a primeira cidade do pai base, se possível
+			int anterior = this.ficticia;
+			int atual = (filho[2 * this.ficticia + 1] == rotaBase[0]) ? rotaBase[0] : filho[2 * this.ficticia];
+			int primeira = -1;
+			int ultima = -1;
+			for (int i = 0; i < this.n; i++) {
+				rota[i] = atual;
+				if (atual != rotaBase[i]) {
+					if (primeira < 0) {
+						primeira = i;
+					}
+					ultima = i;
+				}
+				int proxima = outro(filho, atual, anterior);
+				anterior = atual;
+				atual = proxima;
+			}
+
+			if (primeira < 0) {
+				return filho(rota, base, 0, 0);
+			}
+			return filho(rota, base, primeira, ultima + 1);
+		}
+	}
+
+}
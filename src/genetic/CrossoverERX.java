@@ -0,0 +1,157 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Edge recombination crossover (ERX): o filho é montado cidade a cidade usando
+ * as arestas dos dois pais. A partir da cidade atual, segue para o vizinho (em
+ * algum dos pais) que tem menos vizinhos ainda livres, com empates sorteados;
+ * se a cidade atual não tem vizinho livre, segue para uma cidade livre
+ * sorteada.
+ *
+ * <p>
+ * A rota é um caminho, então só as arestas entre posições consecutivas da
+ * janela contam, sem a aresta de volta. Cada cidade tem no máximo quatro
+ * vizinhos, guardados em uma tabela de 4 posições por cidade; as cidades
+ * livres ficam em uma lista com remoção por troca, e tudo é reaproveitado
+ * entre chamadas da mesma thread.
+ * </p>
+ *
+ */
+
+public class CrossoverERX extends Crossover {
+
+	/** Máximo de vizinhos de uma cidade: dois em cada pai */
+	private static final int maxVizinhos = 4;
+
+	/**
+	 * Vetores auxiliares de uma thread
+	 */
+	private static class Espaco {
+		int[] vizinhos = new int[0];
+		int[] grau = new int[0];
+		int[] livres = new int[0];
+		int[] indiceLivre = new int[0];
+
+		void prepara(int n) {
+			if (this.grau.length < n) {
+				this.vizinhos = new int[maxVizinhos * n];
+				this.grau = new int[n];
+				this.livres = new int[n];
+				this.indiceLivre = new int[n];
+			}
+		}
+	}
+
+	private static final ThreadLocal<Espaco> espaco = new ThreadLocal<Espaco>() {
+		@Override
+		protected Espaco initialValue() {
+			return new Espaco();
+		}
+	};
+
+	@Override
+	public void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos, int posicao) {
+		int n = pai.getRota().length;
+		int inicio = inicioJanela();
+		int fim = fimJanela(n);
+		Espaco e = espaco.get();
+		e.prepara(n);
+
+		int[] filho1 = ReservaRotas.obtem(n);
+		recombina(pai.getRota(), mae.getRota(), filho1, inicio, fim, rand, e);
+		filhos[posicao] = filho(filho1, pai, inicio, fim);
+
+		int[] filho2 = ReservaRotas.obtem(n);
+		recombina(mae.getRota(), pai.getRota(), filho2, inicio, fim, rand, e);
+		filhos[posicao + 1] = filho(filho2, mae, inicio, fim);
+	}
+
+	/**
+	 * Monta o filho na janela a partir da primeira cidade da janela do
+	 * primeiro pai; fora da janela o filho repete o primeiro pai
+	 */
+	private static void recombina(int[] primeiro, int[] segundo, int[] filho, int inicio, int fim,
+			SplittableRandom rand, Espaco e) {
+		System.arraycopy(primeiro, 0, filho, 0, primeiro.length);
+		int livres = fim - inicio;
+
+		for (int k = inicio; k < fim; k++) {
+			int cidade = primeiro[k];
+			e.grau[cidade] = 0;
+			e.livres[k - inicio] = cidade;
+			e.indiceLivre[cidade] = k - inicio;
+		}
+		for (int k = inicio; k + 1 < fim; k++) {
+			liga(e, primeiro[k], primeiro[k + 1]);
+			liga(e, segundo[k], segundo[k + 1]);
+		}
+
+		int atual = primeiro[inicio];
+		for (int k = inicio; k < fim; k++) {
+			filho[k] = atual;
+
+			// Tira a cidade da lista de livres e das listas dos vizinhos
+			int ultimaLivre = e.livres[--livres];
+			e.livres[e.indiceLivre[atual]] = ultimaLivre;
+			e.indiceLivre[ultimaLivre] = e.indiceLivre[atual];
+			for (int v = 0; v < e.grau[atual]; v++) {
+				desliga(e, e.vizinhos[maxVizinhos * atual + v], atual);
+			}
+
+			if (livres == 0) {
+				break;
+			}
+			atual = proxima(e, atual, livres, rand);
+		}
+	}
+
+	/**
+	 * Escolhe a próxima cidade: o vizinho livre com menos vizinhos livres ou,
+	 * se não houver, uma cidade livre qualquer
+	 */
+	private static int proxima(Espaco e, int atual, int livres, SplittableRandom rand) {
+		int escolhida = -1;
+		int menorGrau = Integer.MAX_VALUE;
+		int empates = 0;
+		for (int v = 0; v < e.grau[atual]; v++) {
+			int vizinho = e.vizinhos[maxVizinhos * atual + v];
+			int grau = e.grau[vizinho];
+			if (grau < menorGrau) {
+				menorGrau = grau;
+				escolhida = vizinho;
+				empates = 1;
+			} else if (grau == menorGrau && rand.nextInt(++empates) == 0) {
+				escolhida = vizinho;
+			}
+		}
+		return (escolhida >= 0) ? escolhida : e.livres[rand.nextInt(livres)];
+	}
+
+	/**
+	 * Acrescenta a aresta {a, b} à tabela, se ainda não estiver nela
+	 */
+	private static void liga(Espaco e, int a, int b) {
+		for (int v = 0; v < e.grau[a]; v++) {
+			if (e.vizinhos[maxVizinhos * a + v] == b) {
+				return;
+			}
+		}
+		e.vizinhos[maxVizinhos * a + e.grau[a]++] = b;
+		e.vizinhos[maxVizinhos * b + e.grau[b]++] = a;
+	}
+
+	/**
+	 * Tira a cidade da lista de vizinhos de outra
+	 */
+	private static void desliga(Espaco e, int de, int cidade) {
+		int base = maxVizinhos * de;
+		for (int v = 0; v < e.grau[de]; v++) {
+			if (e.vizinhos[base + v] == cidade) {
+				e.vizinhos[base + v] = e.vizinhos[base + --e.grau[de]];
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Order crossover (OX1): o filho recebe o trecho [a, b) de um pai, nas mesmas
+ * posições, e as demais posições da janela são preenchidas a partir de b, dando
+ * a volta, com as cidades do outro pai na ordem em que aparecem a partir de b.
+ *
+ */
+
+public class CrossoverOX1 extends Crossover {
+
+	@Override
+	public void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos, int posicao) {
+		int n = pai.getRota().length;
+		int inicio = inicioJanela();
+		int fim = fimJanela(n);
+		long trecho = sorteiaTrecho(inicio, fim, rand);
+		int a = (int) (trecho >>> 32);
+		int b = (int) trecho;
+
+		int[] filho1 = ReservaRotas.obtem(n);
+		ordena(pai.getRota(), mae.getRota(), filho1, inicio, fim, a, b);
+		filhos[posicao] = filho(filho1, pai, inicio, fim);
+
+		int[] filho2 = ReservaRotas.obtem(n);
+		ordena(mae.getRota(), pai.getRota(), filho2, inicio, fim, a, b);
+		filhos[posicao + 1] = filho(filho2, mae, inicio, fim);
+	}
+
+	/**
+	 * Escreve em filho o trecho [a, b) de doador e o resto da janela na ordem
+	 * de outro, a partir de b
+	 */
+	private static void ordena(int[] doador, int[] outro, int[] filho, int inicio, int fim, int a, int b) {
+		boolean[] usada = Infeccao.mascara(doador.length);
+		int tamanho = fim - inicio;
+
+		System.arraycopy(doador, 0, filho, 0, doador.length);
+		for (int i = a; i < b; i++) {
+			usada[doador[i]] = true;
+		}
+
+		int escrita = b;
+		for (int k = 0; k < tamanho; k++) {
+			int cidade = outro[inicio + (b - inicio + k) % tamanho];
+			if (!usada[cidade]) {
+				if (escrita == fim) {
+					escrita = inicio;
+				}
+				filho[escrita++] = cidade;
+			}
+		}
+
+		// Limpa a máscara para a próxima chamada da mesma thread
+		for (int i = a; i < b; i++) {
+			usada[doador[i]] = false;
+		}
+	}
+
+}
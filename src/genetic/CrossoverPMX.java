@@ -0,0 +1,82 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Partially mapped crossover (PMX): o filho recebe o trecho [a, b) de um pai, e
+ * as demais posições vêm do outro pai, com as cidades repetidas trocadas pelo
+ * mapeamento do trecho.
+ *
+ * <p>
+ * O filho parte de uma cópia do outro pai e cada cidade do trecho é trazida
+ * para sua posição por uma troca, guiada por um índice de posições, o que dá o
+ * mesmo resultado do mapeamento em O(n).
+ * </p>
+ *
+ */
+
+public class CrossoverPMX extends Crossover {
+
+	private static final ThreadLocal<int[]> posicoes = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[0];
+		}
+	};
+
+	@Override
+	public void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos, int posicao) {
+		int n = pai.getRota().length;
+		long trecho = sorteiaTrecho(inicioJanela(), fimJanela(n), rand);
+		int a = (int) (trecho >>> 32);
+		int b = (int) trecho;
+
+		filhos[posicao] = mapeia(pai, mae, a, b);
+		filhos[posicao + 1] = mapeia(mae, pai, a, b);
+	}
+
+	/**
+	 * Gera o filho com o trecho [a, b) do doador sobre a rota do outro pai
+	 */
+	private static Cromossomo mapeia(Cromossomo doador, Cromossomo outro, int a, int b) {
+		int[] rotaDoador = doador.getRota();
+		int[] rotaOutro = outro.getRota();
+		int n = rotaOutro.length;
+		int[] posicao = posicoes(n);
+
+		int[] filho = ReservaRotas.obtem(n);
+		System.arraycopy(rotaOutro, 0, filho, 0, n);
+		for (int i = 0; i < n; i++) {
+			posicao[filho[i]] = i;
+		}
+
+		// Trecho em que o filho difere do outro pai
+		int primeira = a;
+		int ultima = b - 1;
+		for (int i = a; i < b; i++) {
+			int cidade = rotaDoador[i];
+			int j = posicao[cidade];
+			if (j != i) {
+				int deslocada = filho[i];
+				filho[i] = cidade;
+				filho[j] = deslocada;
+				posicao[cidade] = i;
+				posicao[deslocada] = j;
+				primeira = Math.min(primeira, j);
+				ultima = Math.max(ultima, j);
+			}
+		}
+
+		return filho(filho, outro, primeira, ultima + 1);
+	}
+
+	private static int[] posicoes(int n) {
+		int[] posicao = posicoes.get();
+		if (posicao.length < n) {
+			posicao = new int[n];
+			posicoes.set(posicao);
+		}
+		return posicao;
+	}
+
+}
@@ -0,0 +1,67 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Crossover de um ponto de corte, o operador original do algoritmo: o filho
+ * recebe o início [0, faca) de um pai e as demais cidades na ordem em que
+ * aparecem no outro pai. Quando os dois pais têm as pontas no lugar, o filho
+ * também tem.
+ *
+ */
+
+public class CrossoverUmPonto extends Crossover {
+
+	@Override
+	public void cruza(Cromossomo pai, Cromossomo mae, SplittableRandom rand, Cromossomo[] filhos, int posicao) {
+		int[] rotaPai = pai.getRota();
+		int[] rotaMae = mae.getRota();
+		int faca = rand.nextInt(rotaPai.length);
+
+		// cria filho1
+		int[] crossAuxPai = ReservaRotas.obtem(rotaPai.length);
+		System.arraycopy(rotaPai, 0, crossAuxPai, 0, faca);
+		completaCauda(crossAuxPai, faca, rotaMae);
+		filhos[posicao] = filho(crossAuxPai, pai, faca, crossAuxPai.length);
+
+		// cria filho2
+		int[] crossAuxMae = ReservaRotas.obtem(rotaMae.length);
+		System.arraycopy(rotaMae, 0, crossAuxMae, 0, faca);
+		completaCauda(crossAuxMae, faca, rotaPai);
+		filhos[posicao + 1] = filho(crossAuxMae, mae, faca, crossAuxMae.length);
+	}
+
+	/**
+	 * Preenche a rota a partir da faca com as cidades que ainda não estão no
+	 * seu início, na ordem em que aparecem no outro pai, de forma que o filho
+	 * continue sendo uma permutação das cidades
+	 *
+	 * @param filho
+	 *            Rota com o início [0, faca) já definido; o resto pode ter
+	 *            qualquer conteúdo
+	 * @param faca
+	 *            Ponto de corte
+	 * @param outroPai
+	 *            Rota que define a ordem das cidades restantes
+	 */
+	private static void completaCauda(int[] filho, int faca, int[] outroPai) {
+		boolean[] usada = Infeccao.mascara(filho.length);
+		for (int i = 0; i < faca; i++) {
+			usada[filho[i]] = true;
+		}
+
+		int posicao = faca;
+		for (int cidade : outroPai) {
+			if (!usada[cidade]) {
+				filho[posicao] = cidade;
+				posicao++;
+			}
+		}
+
+		// Limpa a máscara para a próxima chamada da mesma thread
+		for (int i = 0; i < faca; i++) {
+			usada[filho[i]] = false;
+		}
+	}
+
+}
@@ -1,11 +1,10 @@
 package genetic;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Random;
+import java.util.SplittableRandom;
 import gude.Graph;
 import gude.Vertex;
 
@@ -28,8 +27,16 @@ import gude.Vertex;
 public class Genetic {
 
 	private static Graph g;
-	private static Integer maxPopulacao;
-	private static List<Cromossomo> hallDaFama = new ArrayList<Cromossomo>();
+	private static int maxPopulacao;
+	private static int maxCruzamentos;
+	private static int porcentagemInfectados;
+	private static Selecao.Tipo tipoSelecao = Selecao.Tipo.ROLETA;
+	private static Crossover.Tipo tipoCrossover = Crossover.Tipo.UM_PONTO;
+	private static BuscaLocal.Alvo alvoBuscaLocal = BuscaLocal.Alvo.NENHUM;
+	private static int buscaLocalMelhores = 10;
+	private static long buscaLocalTempo = 0;
+	private static HallDaFama hallDaFama = new HallDaFama(10);
+	private static MotorParalelo motor = new MotorParalelo(1);
 
 	/**
 	 * Seleciona os possíveis pais para realização do crossover
@@ -40,17 +47,18 @@ public class Genetic {
 	 */
 	public static Populacao rankeiaPais(Populacao populacao) {
 
-		Double somaRank = 0.0;
+		double somaRank = 0.0;
 		Populacao possiveisPais = new Populacao(g);
 		List<Cromossomo> listCromossomoAux = new ArrayList<Cromossomo>();
 
+		// A população já vem quase ordenada: só os infectados ficam fora de ordem
+		populacao.ordenaPopulacao();
 		for (Cromossomo cromossomo : populacao.getPopulacao()) {
 			somaRank += cromossomo.getFitness();
 			listCromossomoAux.add(cromossomo);
 		}
 
 		possiveisPais.setPopulacao(listCromossomoAux);
-		possiveisPais.ordenaPopulacao();
 		possiveisPais.calculaRank(somaRank);
 
 		return possiveisPais;
@@ -64,37 +72,37 @@ public class Genetic {
 	 * @return Cromossomo
 	 */
 	public static Cromossomo selecionaPai(Populacao possiveisPais) {
-		Integer roleta = 0;
-		Fatia[] pizza = new Fatia[possiveisPais.getPopulacao().size()];
-		Double acumulado = 0.0;
-		Cromossomo pai = new Cromossomo(g);
-
-		Random rand = new Random();
-		roleta = rand.nextInt(100);
-
-		for (Integer i = 0; i < possiveisPais.getPopulacao().size(); i++) {
-			Fatia fatia = new Fatia();
-			if (i == 0) {
-				fatia.setInicio(0.0);
-				fatia.setFim(possiveisPais.getPopulacao().get(i).getFitness());
-				acumulado = fatia.getFim();
-				pizza[i] = fatia;
-			} else {
-				fatia.setInicio(acumulado + 0.1);
-				fatia.setFim(possiveisPais.getPopulacao().get(i).getFitness() + fatia.getInicio());
-				pizza[i] = fatia;
-				acumulado = fatia.getFim();
-			}
-		}
+		Selecao roleta = new SelecaoRoleta();
+		roleta.prepara(pesos(possiveisPais));
+		return selecionaPai(possiveisPais, roleta, Aleatorio.atual());
+	}
 
-		for (Integer i = 0; i < pizza.length; i++) {
-			if ((roleta > pizza[i].getInicio()) && roleta < pizza[i].getFim()) {
-				pai = possiveisPais.getPopulacao().get(i);
-				break;
-			}
-		}
+	/**
+	 * Seleciona um pai com uma seleção já preparada com os pesos dos possíveis
+	 * pais
+	 * 
+	 * @param possiveisPais
+	 *            População de possíveis pais
+	 * @param selecao
+	 * @param rand
+	 * @return Cromossomo
+	 */
+	public static Cromossomo selecionaPai(Populacao possiveisPais, Selecao selecao, SplittableRandom rand) {
+		return possiveisPais.getPopulacao().get(selecao.seleciona(rand));
+	}
 
-		return pai;
+	/**
+	 * Retorna o peso de seleção de cada possível pai, que é o seu rank
+	 * 
+	 * @param possiveisPais
+	 * @return double[] pesos
+	 */
+	private static double[] pesos(Populacao possiveisPais) {
+		double[] pesos = new double[possiveisPais.getPopulacao().size()];
+		for (int i = 0; i < pesos.length; i++) {
+			pesos[i] = possiveisPais.getPopulacao().get(i).getRank();
+		}
+		return pesos;
 	}
 
 	/**
@@ -108,35 +116,26 @@ public class Genetic {
 	 * @return List<Cromossomo> filhos
 	 */
 	public static List<Cromossomo> crossOX1(Cromossomo pai, Cromossomo mae) {
-		Integer faca = 0;
-		Random rand = new Random();
-		faca = rand.nextInt(pai.getRota().length);
-		Vertex[] crossAuxPai = pai.getRota();
-		List<Cromossomo> filhos = new ArrayList<Cromossomo>();
-
-		for (Integer i = faca; i < pai.getRota().length; i++) {
-			crossAuxPai[i] = mae.getRota()[i];
-		}
-
-		// cria filho1
-		Cromossomo filho1 = new Cromossomo(g);
-		filho1.setRota(crossAuxPai);
-
-		Vertex[] crossAuxMae = mae.getRota();
-
-		for (Integer i = faca; i < pai.getRota().length; i++) {
-			crossAuxMae[i] = pai.getRota()[i];
-		}
-
-		// cria filho2
-		Cromossomo filho2 = new Cromossomo(g);
-		filho2.setRota(crossAuxMae);
-
-		filhos.add(filho1);
-		filhos.add(filho2);
-
-		return filhos;
+		return crossOX1(pai, mae, Aleatorio.atual());
+	}
 
+	/**
+	 * Realiza o crossover entre os pais, no formato OX1, usando o gerador
+	 * informado para escolher o ponto de corte
+	 * 
+	 * @param pai
+	 *            Cromossomo pai
+	 * @param mae
+	 *            Cromossomo mae
+	 * @param rand
+	 *            Gerador de números aleatórios
+	 * 
+	 * @return List<Cromossomo> filhos
+	 */
+	public static List<Cromossomo> crossOX1(Cromossomo pai, Cromossomo mae, SplittableRandom rand) {
+		Cromossomo[] filhos = new Cromossomo[2];
+		new CrossoverUmPonto().cruza(pai, mae, rand, filhos, 0);
+		return new ArrayList<Cromossomo>(Arrays.asList(filhos));
 	}
 
 	/**
@@ -146,45 +145,53 @@ public class Genetic {
 	 * @param maxCruzamentos
 	 * @return populacao
 	 */
-	public static Populacao crossover(Populacao populacao, Integer maxCruzamentos) {
+	public static Populacao crossover(Populacao populacao, int maxCruzamentos) {
+		return crossover(populacao, maxCruzamentos, motor);
+	}
+
+	/**
+	 * Realiza o crossover da população, cruzando os casais no motor informado
+	 * 
+	 * @param populacao
+	 * @param maxCruzamentos
+	 * @param motor
+	 * @return populacao
+	 */
+	public static Populacao crossover(Populacao populacao, int maxCruzamentos, MotorParalelo motor) {
 		Populacao possiveisPais = rankeiaPais(populacao);
 		List<Cromossomo> populacaoAux = populacao.getPopulacao();
 		List<Cromossomo> pais = new ArrayList<Cromossomo>();
+		List<Cromossomo> casalPai = new ArrayList<Cromossomo>();
+		List<Cromossomo> casalMae = new ArrayList<Cromossomo>();
+
+		int roleta = 0;
+		int index = 0;
+		SplittableRandom rand = Aleatorio.atual();
 
-		Cromossomo pai = new Cromossomo(g);
-		Cromossomo mae = new Cromossomo(g);
-		Integer roleta = 0;
-		Integer index = 0;
+		// A tabela de seleção é montada uma vez por geração
+		Selecao selecao = tipoSelecao.cria();
+		selecao.prepara(pesos(possiveisPais));
 
-		for (Integer i = 0; i < ((Integer) (possiveisPais.getPopulacao().size() / maxCruzamentos)); i++) {
-			pais.add(selecionaPai(possiveisPais));
+		for (int i = 0; i < (possiveisPais.getPopulacao().size() / maxCruzamentos); i++) {
+			pais.add(selecionaPai(possiveisPais, selecao, rand));
 		}
 
-		while (!pais.isEmpty()) {
-			Random rand = new Random();
+		while (index + 1 < pais.size()) {
 			roleta = rand.nextInt(100);
 
 			if (roleta <= 80) {
-				try {
-					pai = pais.get(index);
-					mae = pais.get(index + 1);
-					pais.remove(index);
-					pais.remove(index + 1);
-
-					List<Cromossomo> filhos = crossOX1(pai, mae);
-					populacaoAux.add(filhos.get(0));
-					populacaoAux.add(filhos.get(1));
-					index += 2;
-				} catch (Exception e) {
-					break;
-				}
+				casalPai.add(pais.get(index));
+				casalMae.add(pais.get(index + 1));
+				index += 2;
 			} else {
-				pais.remove(index);
 				index++;
 			}
 
 		}
 
+		// Os casais são cruzados em paralelo
+		populacaoAux.addAll(motor.cruza(casalPai, casalMae, tipoCrossover.cria()));
+
 		populacao.setPopulacao(populacaoAux);
 
 		return populacao;
@@ -192,121 +199,295 @@ public class Genetic {
 	}
 
 	/**
-	 * Ordena a população de cromossomos pelo critério de melhor fitness, ou
-	 * seja, menor soma das distâncias entre as cidades
+	 * Oferece os melhores cromossomos ao hall da fama. Elimina alguns
+	 * cromossomos da população de acordo com sua inanição
+	 * 
+	 * @param populacao
+	 * @return populacao
 	 */
-	public static void ordenaHallDaFama() {
-		Collections.sort(hallDaFama, new Comparator<Cromossomo>() {
-			@Override
-			public int compare(Cromossomo p1, Cromossomo p2) {
-				return Double.compare(p1.getFitness(), p2.getFitness());
-			}
-		});
+	public static Populacao entraHall(Populacao populacao) {
+		return entraHall(populacao, motor);
 	}
 
 	/**
-	 * Adiciona o cromossomo ao hall da fama se seu fitness for melhor que o 1º
-	 * colocado. Elimina alguns cromossomos da população de acordo com sua
-	 * inanição
+	 * Oferece os melhores cromossomos ao hall da fama, reavaliando as rotas no
+	 * motor informado. Elimina alguns cromossomos da população de acordo com
+	 * sua inanição
 	 * 
 	 * @param populacao
+	 * @param motor
 	 * @return populacao
 	 */
-	public static Populacao entraHall(Populacao populacao) {
+	public static Populacao entraHall(Populacao populacao, MotorParalelo motor) {
 
-		// Elimina 1/4 da população caso ela seja maior que maxPopualacao
-		if (populacao.getPopulacao().size() >= maxPopulacao) {
-			populacao.setPopulacao(populacao.getPopulacao().subList(0,
-					((int) (maxPopulacao - (populacao.getPopulacao().size() / 4)))));
+		// Com as pontas fixas as rotas já nascem com elas no lugar
+		if (!Pontas.isFixas()) {
+			reparaPontas(populacao, motor);
 		}
 
-		// Redefine na rota a cidade de partida e o destino
-		Vertex auxFim;
-		Vertex auxInicio;
-		for (Cromossomo cromAux : populacao.getPopulacao()) {
-			for (int i = 0; i < cromAux.getRota().length; i++) {
-				if (cromAux.getRota()[i].getId() == 1) {
-					auxInicio = cromAux.getRota()[i];
-					cromAux.getRota()[i] = cromAux.getRota()[0];
-					cromAux.getRota()[0] = auxInicio;
-				}
+		/*
+		 * Elimina 1/4 da população caso ela seja maior que maxPopulacao,
+		 * ficando com os melhores. A população sai ordenada pelo fitness, e
+		 * essa ordem é usada pelo hall da fama e pela próxima geração
+		 */
 
-				if (cromAux.getRota()[i].getId() == g.getNumVertex()) {
-					auxFim = cromAux.getRota()[i];
-					cromAux.getRota()[i] = cromAux.getRota()[g.getNumVertex() - 1];
-					cromAux.getRota()[g.getNumVertex() - 1] = auxFim;
-				}
-			}
+		List<Cromossomo> rota = populacao.getPopulacao();
+		int sobreviventes = rota.size();
+		if (sobreviventes >= maxPopulacao) {
+			sobreviventes = maxPopulacao - (rota.size() / 4);
 		}
+		populacao.mantemMelhores(sobreviventes);
 
 		populacao.inanicao();
-		ordenaHallDaFama();
 
 		/*
-		 * Adiciona o cromossomo ao hall da fama se seu fitness for melhor que o
-		 * 1º colocado
+		 * Mata o cromossomo se seu tempo de vida passou e a população cresceu
+		 * demais. A lista é compactada no próprio lugar, mantendo a ordem
 		 */
 
-		List<Cromossomo> rota = populacao.getPopulacao();
-		List<Cromossomo> rotaAux = new ArrayList<Cromossomo>(rota);
-		ListIterator<Cromossomo> cromossomo = rotaAux.listIterator();
+		int vivos = 0;
+		for (int i = 0; i < rota.size(); i++) {
+			Cromossomo cromossomoAux = rota.get(i);
+			int tamanhoAtual = rota.size() - (i - vivos);
+			if ((cromossomoAux.getTempoDeVida() <= 0) && (tamanhoAtual > maxPopulacao)) {
+				ReservaRotas.devolve(cromossomoAux);
+				continue;
+			}
+			rota.set(vivos++, cromossomoAux);
+		}
+		rota.subList(vivos, rota.size()).clear();
+
+		/*
+		 * O hall da fama recebe os melhores da população ordenada; ele mesmo
+		 * descarta os repetidos e os que não batem o seu último colocado
+		 */
+
+		hallDaFama.oferece(rota.subList(0, Math.min(rota.size(), hallDaFama.getCapacidade())));
+
+		return populacao;
+	}
 
-		while (cromossomo.hasNext()) {
-			Cromossomo cromossomoAux = cromossomo.next();
-			if (hallDaFama.get(0).getFitness() > cromossomoAux.getFitness()) {
-				hallDaFama.add(0, cromossomoAux);
-				// Limita o tamanho do hall da fama para 10 rotas
-				if (hallDaFama.size() > 10) {
-					hallDaFama = hallDaFama.subList(0, 10);
+	/**
+	 * Redefine na rota a cidade de partida e o destino, reavaliando no motor
+	 * as rotas alteradas
+	 * 
+	 * @param populacao
+	 * @param motor
+	 */
+	private static void reparaPontas(Populacao populacao, MotorParalelo motor) {
+		int cidadeInicio = Pontas.cidadeInicio(g);
+		int cidadeFim = Pontas.cidadeFim(g);
+		int auxFim;
+		int auxInicio;
+		List<Cromossomo> alterados = new ArrayList<Cromossomo>();
+		for (Cromossomo cromAux : populacao.getPopulacao()) {
+			int[] rotaAux = cromAux.getRota();
+			if (rotaAux[0] == cidadeInicio && rotaAux[rotaAux.length - 1] == cidadeFim) {
+				continue;
+			}
+			boolean alterada = false;
+			for (int i = 0; i < rotaAux.length; i++) {
+				if (rotaAux[i] == cidadeInicio && i != 0) {
+					auxInicio = rotaAux[i];
+					rotaAux[i] = rotaAux[0];
+					rotaAux[0] = auxInicio;
+					alterada = true;
+				}
+
+				if (rotaAux[i] == cidadeFim && i != rotaAux.length - 1) {
+					auxFim = rotaAux[i];
+					rotaAux[i] = rotaAux[rotaAux.length - 1];
+					rotaAux[rotaAux.length - 1] = auxFim;
+					alterada = true;
 				}
 			}
-			/*
-			 * Mata o cromossomo se seu tempo de vida passou ou a população
-			 * cresceu demais
-			 */
-			if ((cromossomoAux.getTempoDeVida() <= 0) && (rota.size() > maxPopulacao)) {
-				rota.remove(cromossomoAux);
+			if (alterada) {
+				alterados.add(cromAux);
+			}
+		}
+		motor.avalia(alterados);
+	}
+
+	/**
+	 * Oferece um cromossomo ao hall da fama
+	 * 
+	 * @param cromossomo
+	 */
+	public static void adicionaHall(Cromossomo cromossomo) {
+		hallDaFama.oferece(cromossomo);
+	}
+
+	/**
+	 * Retorna o 1º colocado do hall da fama
+	 * 
+	 * @return Cromossomo, ou null se nenhuma rota válida entrou no hall
+	 */
+	public static Cromossomo melhorDoHall() {
+		return hallDaFama.melhor();
+	}
+
+	/**
+	 * Retorna o hall da fama, compartilhado por todas as ilhas
+	 * 
+	 * @return HallDaFama
+	 */
+	public static HallDaFama getHallDaFama() {
+		return hallDaFama;
+	}
+
+	/**
+	 * Aplica a busca local (2-opt e Or-opt) aos melhores cromossomos ou aos
+	 * filhos, conforme alvoBuscaLocal, dentro do tempo de buscaLocalTempo. Os
+	 * cromossomos melhorados substituem os originais na população
+	 * 
+	 * @param populacao
+	 * @param primeiroFilho
+	 *            Posição do primeiro filho gerado pelo crossover
+	 * @param motor
+	 * @return populacao
+	 */
+	public static Populacao buscaLocal(Populacao populacao, int primeiroFilho, MotorParalelo motor) {
+		if (alvoBuscaLocal == BuscaLocal.Alvo.NENHUM) {
+			return populacao;
+		}
+
+		List<Cromossomo> rota = populacao.getPopulacao();
+		int[] indices;
+		if (alvoBuscaLocal == BuscaLocal.Alvo.FILHOS) {
+			indices = new int[Math.max(0, rota.size() - primeiroFilho)];
+			for (int i = 0; i < indices.length; i++) {
+				indices[i] = primeiroFilho + i;
 			}
+		} else {
+			indices = Ordenacao.melhores(Ordenacao.fitness(rota), buscaLocalMelhores);
 		}
 
-		if ((hallDaFama.get(0).getRota()[g.getNumVertex() - 1].getId() != g.getNumVertex())
-				|| (hallDaFama.get(0).getRota()[0].getId() != 1)) {
-			hallDaFama.remove(0);
+		List<Cromossomo> alvos = new ArrayList<Cromossomo>();
+		for (int indice : indices) {
+			alvos.add(rota.get(indice));
+		}
+
+		long prazo = (buscaLocalTempo > 0) ? System.nanoTime() + buscaLocalTempo * 1000000L : 0;
+		List<Cromossomo> melhorados = motor.melhora(alvos, prazo);
+		for (int i = 0; i < indices.length; i++) {
+			Cromossomo original = rota.set(indices[i], melhorados.get(i));
+			if (original != melhorados.get(i)) {
+				ReservaRotas.devolve(original);
+			}
 		}
 
-		populacao.setPopulacao(rota);
 		return populacao;
 	}
 
 	/**
-	 * Mata os clones de uma população e a retorna
+	 * Mata os clones de uma população e a retorna. Os clones são achados pela
+	 * assinatura das rotas em uma única passada, em qualquer posição da lista;
+	 * fica o primeiro de cada rota. A lista é compactada no próprio lugar, e
+	 * as rotas dos clones voltam para a {@link ReservaRotas}
 	 * 
 	 * @param populacao
 	 * @return populacao
 	 */
 	public static Populacao mataClones(Populacao populacao) {
 		List<Cromossomo> rota = populacao.getPopulacao();
-		List<Cromossomo> rotaAux = new ArrayList<Cromossomo>(rota);
-		ListIterator<Cromossomo> cromossomo = rotaAux.listIterator();
-		Double fitnessAnterior = 0.0;
+		TabelaAssinaturas vistos = TabelaAssinaturas.prepara(rota.size());
+		int vivos = 0;
 
 		populacao.inanicao();
-		ordenaHallDaFama();
 
-		while (cromossomo.hasNext()) {
-			Cromossomo cromossomoAux = cromossomo.next();
-			if (cromossomoAux.getFitness().equals(fitnessAnterior)) {
-				rota.remove(cromossomoAux);
-			} else {
-				fitnessAnterior = cromossomoAux.getFitness();
+		for (int i = 0; i < rota.size(); i++) {
+			Cromossomo cromossomoAux = rota.get(i);
+			// A tabela guarda a posição do sobrevivente na lista já compactada
+			int posicao = vistos.busca(cromossomoAux.getAssinatura());
+			Cromossomo anterior = (posicao < 0) ? null : rota.get(posicao);
+			if (anterior == null) {
+				vistos.insere(cromossomoAux.getAssinatura(), vivos);
+			} else if (Arrays.equals(anterior.getRota(), cromossomoAux.getRota())) {
+				if (anterior.getRota() != cromossomoAux.getRota()) {
+					ReservaRotas.devolve(cromossomoAux);
+				}
+				continue;
 			}
+			// Numa colisão de assinaturas entre rotas diferentes, as duas ficam
+			rota.set(vivos++, cromossomoAux);
 		}
+		rota.subList(vivos, rota.size()).clear();
 
 		populacao.setPopulacao(rota);
 
 		return populacao;
 	}
 
+	/**
+	 * Executa uma geração do algoritmo (passos 2 a 4) sobre a população
+	 * 
+	 * @param populacao
+	 * @param populacaoVirus
+	 * @param motor
+	 *            Motor em que a infecção, o crossover e a avaliação são
+	 *            executados
+	 * @return populacao
+	 */
+	public static Populacao executaGeracao(Populacao populacao, PopulacaoVirus populacaoVirus, MotorParalelo motor) {
+
+		/*
+		 * 2. [Infecção] Aplicar o operador de infecção nos melhores
+		 * indivíduos da população.
+		 */
+
+		int maxInfectados = 0;
+		List<Cromossomo> rota = populacao.getPopulacao();
+		List<Cromossomo> rotaAux = new ArrayList<Cromossomo>(rota);
+		ListIterator<Cromossomo> cromossomo = rotaAux.listIterator();
+
+		Virus virus = populacaoVirus.selecionaVirus();
+
+		/*
+		 * Os infectados só entram na população depois do laço, mas o limite
+		 * conta com eles, como no laço sequencial que os acrescentava um a um
+		 */
+		int tamPopulacao = rota.size();
+		List<Cromossomo> alvos = new ArrayList<Cromossomo>();
+		while (cromossomo.hasNext() && (maxInfectados < (tamPopulacao + maxInfectados) / porcentagemInfectados)) {
+			alvos.add(cromossomo.next());
+			maxInfectados++;
+		}
+		rota.addAll(motor.infecta(alvos, virus));
+
+		populacao = mataClones(populacao);
+		populacao.setPopulacao(rota);
+
+		/*
+		 * 3. [Geração da Nova população] Criar uma nova população
+		 * através da aplicação das seguintes etapas:
+		 * 
+		 * a) [Seleção] Selecionar dois cromossomos-pais da população
+		 * atual de acordo com sua fitness;
+		 * 
+		 * b) [Crossover] Fazer o cruzamento dos pais para formar novos
+		 * indivíduos (filhos).
+		 */
+
+		int primeiroFilho = populacao.getPopulacao().size();
+		populacao = crossover(populacao, maxCruzamentos, motor);
+
+		/*
+		 * Etapa memética opcional: busca local nos melhores cromossomos ou nos
+		 * filhos do crossover
+		 */
+
+		populacao = buscaLocal(populacao, primeiroFilho, motor);
+
+		/*
+		 * 4. [Avaliar nova população] Calcular a fitness de cada
+		 * cromossomo da população récem gerada;
+		 */
+
+		populacao = entraHall(populacao, motor);
+
+		return populacao;
+	}
+
 	/*
 	 * 1. [Inicialização] Gerar uma população inicial de n cromossomos,
 	 * aleatoriamente, e determinar a fitness de cada cromossomo. Gerar uma
@@ -333,102 +514,171 @@ public class Genetic {
 
 		final long startTime = System.currentTimeMillis();
 
-		g = Graph.loadXML("grafo-50.xml");
+		// Threads usadas na infecção, no crossover e na avaliação
+		int paralelismo = (int) lerOpcao(args, "-paralelismo", 1);
+		// Semente de todos os geradores; com a mesma semente o resultado se repete
+		long semente = lerOpcao(args, "-semente", System.nanoTime());
+		Aleatorio.semeia(semente);
+		// Número de populações evoluídas em paralelo (modelo de ilhas)
+		int ilhas = (int) lerOpcao(args, "-ilhas", 1);
+		// Método de seleção dos pais: roleta, torneio ou rank
+		tipoSelecao = Selecao.Tipo.valueOf(lerTexto(args, "-selecao", "roleta").toUpperCase());
+		// Operador de crossover: um_ponto, ox1, pmx, erx ou eax
+		tipoCrossover = Crossover.Tipo.valueOf(lerTexto(args, "-crossover", "um_ponto").toUpperCase());
+		motor = new MotorParalelo(paralelismo);
+		// Caminho com pontas fixas: os operadores só alteram as cidades internas
+		Pontas.setFixas(lerOpcao(args, "-pontasFixas", 0) != 0);
+		// Busca local por geração: nenhum, melhores ou filhos
+		alvoBuscaLocal = BuscaLocal.Alvo.valueOf(lerTexto(args, "-buscaLocal", "nenhum").toUpperCase());
+		// Quantos dos melhores cromossomos passam pela busca local
+		buscaLocalMelhores = (int) lerOpcao(args, "-buscaLocalMelhores", 10);
+		// Tempo da busca local por geração, em milissegundos; 0 para não ter limite
+		buscaLocalTempo = lerOpcao(args, "-buscaLocalTempo", 0);
+		// Arquivo do grafo: xml, matriz binária (.gdm) ou TSPLIB (.tsp)
+		String arquivoGrafo = lerTexto(args, "-grafo", "grafo-50.xml");
+
+		g = carregaGrafo(arquivoGrafo);
+		if (g == null) {
+			System.err.println("Não foi possível carregar o grafo " + arquivoGrafo);
+			System.exit(1);
+		}
+		// Rotas guardadas no hall da fama; só entram rotas que começam na
+		// cidade 1 e terminam na cidade n
+		hallDaFama = new HallDaFama((int) lerOpcao(args, "-hallDaFama", 10));
+		hallDaFama.setPontas(Pontas.cidadeInicio(g), Pontas.cidadeFim(g));
 		maxPopulacao = 2000;
-		Integer geracaoAtual = 0;
+		int geracaoAtual = 0;
 		// Máximo de gerações
-		Integer maxGeracoes = 300;
+		int maxGeracoes = (int) lerOpcao(args, "-geracoes", 300);
 		// Cruza 1/5 da população
-		Integer maxCruzamentos = 5;
+		maxCruzamentos = 5;
 		// Tamanho inicial da população de cromossomos
-		Integer tamPopulacao = 500;
+		int tamPopulacao = 500;
 		// Tamanho da população de vírus
-		Integer tamPopulacaoVirus = (tamPopulacao / 8);
+		int tamPopulacaoVirus = (tamPopulacao / 8);
 		// Vírus de um 1/8 do tamanho da rota do cromossomo
-		Integer tamVirus = 8;
+		int tamVirus = 8;
 		// Porcentagem de cromossomos infectados
-		Integer porcentagemInfectados = 8;
-		// Instancia populações
-		Populacao populacao = new Populacao(g);
-		PopulacaoVirus populacaoVirus = new PopulacaoVirus(g, tamVirus);
-
-		/*
-		 * 1. [Inicialização] Gerar uma população inicial de n cromossomos,
-		 * aleatoriamente, e determinar a fitness de cada cromossomo. Gerar uma
-		 * população inicial de vírus, aleatoriamente;
-		 */
-		populacao.geraPopulacao(tamPopulacao);
-		// Adiciona o melhor cromossomo no hall da fama
-		hallDaFama.add(populacao.getPopulacao().get(0));
-		populacaoVirus.geraPopulacaoVirus(tamPopulacaoVirus);
-
-		while (geracaoAtual < maxGeracoes) {
-
-			/*
-			 * 2. [Infecção] Aplicar o operador de infecção nos melhores
-			 * indivíduos da população.
-			 */
-
-			Integer maxInfectados = 0;
-			List<Cromossomo> rota = populacao.getPopulacao();
-			List<Cromossomo> rotaAux = new ArrayList<Cromossomo>(rota);
-			ListIterator<Cromossomo> cromossomo = rotaAux.listIterator();
+		porcentagemInfectados = 8;
 
-			Virus virus = new Virus(g);
-			virus = populacaoVirus.selecionaVirus();
-			while (virus.getSubRota() == null) {
-				virus = populacaoVirus.selecionaVirus();
+		if (ilhas > 1) {
+			if (paralelismo > 1 && paralelismo % ilhas != 0) {
+				System.err.println("Aviso: -paralelismo " + paralelismo + " não é múltiplo de -ilhas " + ilhas
+						+ "; cada ilha usa " + Math.max(1, paralelismo / ilhas) + " thread(s)");
 			}
-
-			while (cromossomo.hasNext() && (maxInfectados < Math.floor(rota.size() / porcentagemInfectados))) {
-				rota.add(virus.infecta(cromossomo.next()));
-				maxInfectados++;
-			}
-
-			populacao = mataClones(populacao);
-			populacao.setPopulacao(rota);
+			// As threads de -paralelismo são divididas entre as ilhas
+			Arquipelago arquipelago = new Arquipelago(g, ilhas, paralelismo);
+			arquipelago.setIntervaloMigracao((int) lerOpcao(args, "-migracao", 10));
+			arquipelago.setMigrantes((int) lerOpcao(args, "-migrantes", 5));
+			arquipelago.setMigraVirus(lerOpcao(args, "-migraVirus", 0) != 0);
+			arquipelago.setTopologia(
+					Arquipelago.Topologia.valueOf(lerTexto(args, "-topologia", "anel").toUpperCase()));
+
+			// Cada ilha gera suas populações e evolui em sua própria thread
+			arquipelago.geraPopulacoes(tamPopulacao, tamPopulacaoVirus, tamVirus);
+			arquipelago.executa(maxGeracoes);
+		} else {
+			// Instancia populações
+			Populacao populacao = new Populacao(g);
+			PopulacaoVirus populacaoVirus = new PopulacaoVirus(g, tamVirus);
 
 			/*
-			 * 3. [Geração da Nova população] Criar uma nova população
-			 * através da aplicação das seguintes etapas:
-			 * 
-			 * a) [Seleção] Selecionar dois cromossomos-pais da população
-			 * atual de acordo com sua fitness;
-			 * 
-			 * b) [Crossover] Fazer o cruzamento dos pais para formar novos
-			 * indivíduos (filhos).
+			 * 1. [Inicialização] Gerar uma população inicial de n cromossomos,
+			 * aleatoriamente, e determinar a fitness de cada cromossomo. Gerar
+			 * uma população inicial de vírus, aleatoriamente;
 			 */
+			populacao.geraPopulacao(tamPopulacao);
+			// Adiciona o melhor cromossomo no hall da fama
+			adicionaHall(populacao.getPopulacao().get(0));
+			populacaoVirus.geraPopulacaoVirus(tamPopulacaoVirus);
 
-			populacao = crossover(populacao, maxCruzamentos);
+			while (geracaoAtual < maxGeracoes) {
 
-			/*
-			 * 4. [Avaliar nova população] Calcular a fitness de cada
-			 * cromossomo da população récem gerada;
-			 */
+				populacao = executaGeracao(populacao, populacaoVirus, motor);
 
-			populacao = entraHall(populacao);
-			populacao.ordenaPopulacao();
+				/*
+				 * 5. [Teste de parada] Se condição de parada satisfeita:
+				 * finalizar retornando a melhor solução encontrada. Caso
+				 * contrário, voltar ao passo 2.
+				 */
 
-			/*
-			 * 5. [Teste de parada] Se condição de parada satisfeita:
-			 * finalizar retornando a melhor solução encontrada. Caso
-			 * contrário, voltar ao passo 2.
-			 */
-
-			geracaoAtual++;
-			System.out.println("Geração nº " + geracaoAtual);
+				geracaoAtual++;
+				System.out.println("Geração nº " + geracaoAtual);
+			}
 		}
 
 		final long endTime = System.currentTimeMillis();
 		System.out.println("\nHALL DA FAMA");
-		System.out.print("\nCusto da rota: " + hallDaFama.get(0).getFitness());
-		System.out.print("\nRota selecionada: ");
-		for (int i = 0; i < hallDaFama.get(0).getRota().length; i++) {
-			System.out.print(hallDaFama.get(0).getRota()[i].getId() + "\t");
+		Cromossomo melhor = melhorDoHall();
+		if (melhor == null) {
+			// O hall só aceita rotas que começam na cidade 1 e terminam na
+			// cidade n
+			System.out.println("\nNenhuma rota da cidade 1 à cidade " + g.getNumVertex()
+					+ " entrou no hall da fama");
+		} else {
+			System.out.print("\nCusto da rota: " + melhor.getFitness());
+			System.out.print("\nRota selecionada: ");
+			Vertex[] melhorRota = melhor.getRotaVertices();
+			for (int i = 0; i < melhorRota.length; i++) {
+				System.out.print(melhorRota[i].getId() + "\t");
+			}
+			System.out.println();
 		}
-		System.out.println();
+		System.out.println("Semente: " + semente);
 		System.out.println("Total execution time: " + (endTime - startTime) + " milisegundos");
 
+		motor.encerra();
+	}
+
+	/**
+	 * Carrega o grafo de acordo com a extensão do arquivo: matriz binária
+	 * mapeada em memória (.gdm), instância da TSPLIB (.tsp) ou xml, pelo cache
+	 * binário
+	 * 
+	 * @param arquivo
+	 * @return Graph, ou null em caso de erro
+	 */
+	static Graph carregaGrafo(String arquivo) {
+		String nome = arquivo.toLowerCase();
+		if (nome.endsWith(".gdm")) {
+			return Graph.loadMatrix(arquivo);
+		}
+		if (nome.endsWith(".tsp")) {
+			return Graph.loadTSPLIB(arquivo);
+		}
+		return Graph.loadXMLCached(arquivo);
+	}
+
+	/**
+	 * Lê uma opção numérica da linha de comando, no formato "-nome valor"
+	 * 
+	 * @param args
+	 * @param nome
+	 * @param padrao
+	 *            Valor usado quando a opção não é informada
+	 * @return valor
+	 */
+	private static long lerOpcao(String[] args, String nome, long padrao) {
+		String valor = lerTexto(args, nome, null);
+		return (valor == null) ? padrao : Long.parseLong(valor);
+	}
+
+	/**
+	 * Lê uma opção da linha de comando, no formato "-nome valor"
+	 * 
+	 * @param args
+	 * @param nome
+	 * @param padrao
+	 *            Valor usado quando a opção não é informada
+	 * @return valor
+	 */
+	private static String lerTexto(String[] args, String nome, String padrao) {
+		for (int i = 0; i + 1 < args.length; i++) {
+			if (args[i].equals(nome)) {
+				return args[i + 1];
+			}
+		}
+		return padrao;
 	}
 
 }
@@ -0,0 +1,186 @@
+package genetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Hall da fama: as melhores rotas distintas já encontradas, limitado a uma
+ * capacidade.
+ *
+ * <p>
+ * As entradas ficam em uma árvore ordenada pelo fitness, então oferecer uma
+ * rota custa O(log k). As rotas repetidas são reconhecidas pela assinatura do
+ * cromossomo, e as que não respeitam as pontas fixas da rota são recusadas na
+ * entrada, em vez de serem retiradas depois. O hall guarda cópias dos
+ * cromossomos que entram.
+ * </p>
+ *
+ * <p>
+ * As ofertas são sincronizadas, porque as ilhas compartilham o hall. A cada
+ * mudança o hall publica um retrato imutável, lido sem trava por quem só
+ * acompanha a execução.
+ * </p>
+ *
+ */
+
+public class HallDaFama {
+
+	/**
+	 * Cromossomo no hall, com a ordem de chegada para desempatar o fitness
+	 */
+	private static class Entrada {
+		final Cromossomo cromossomo;
+		final long ordem;
+
+		Entrada(Cromossomo cromossomo, long ordem) {
+			this.cromossomo = cromossomo;
+			this.ordem = ordem;
+		}
+	}
+
+	private static final Comparator<Entrada> comparador = new Comparator<Entrada>() {
+		@Override
+		public int compare(Entrada e1, Entrada e2) {
+			int comparacao = Double.compare(e1.cromossomo.getFitness(), e2.cromossomo.getFitness());
+			return (comparacao != 0) ? comparacao : Long.compare(e1.ordem, e2.ordem);
+		}
+	};
+
+	private final int capacidade;
+	private final TreeSet<Entrada> entradas = new TreeSet<Entrada>(comparador);
+	private final Map<Long, Entrada> porAssinatura = new HashMap<Long, Entrada>();
+	private long chegadas = 0;
+	private int cidadeInicio = -1;
+	private int cidadeFim = -1;
+	private volatile List<Cromossomo> retrato = Collections.emptyList();
+
+	public HallDaFama(int capacidade) {
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("Capacidade do hall da fama: " + capacidade);
+		}
+		this.capacidade = capacidade;
+	}
+
+	public int getCapacidade() {
+		return capacidade;
+	}
+
+	/**
+	 * Define as cidades que toda rota do hall deve ter na primeira e na última
+	 * posição; -1 não impõe a ponta
+	 *
+	 * @param cidadeInicio
+	 * @param cidadeFim
+	 */
+
+	public synchronized void setPontas(int cidadeInicio, int cidadeFim) {
+		this.cidadeInicio = cidadeInicio;
+		this.cidadeFim = cidadeFim;
+	}
+
+	/**
+	 * Oferece um cromossomo ao hall
+	 *
+	 * @param cromossomo
+	 * @return true se o cromossomo entrou
+	 */
+
+	public synchronized boolean oferece(Cromossomo cromossomo) {
+		boolean entrou = this.insere(cromossomo);
+		if (entrou) {
+			this.publica();
+		}
+		return entrou;
+	}
+
+	/**
+	 * Oferece vários cromossomos, publicando um único retrato no fim
+	 *
+	 * @param cromossomos
+	 * @return true se algum cromossomo entrou
+	 */
+
+	public synchronized boolean oferece(List<Cromossomo> cromossomos) {
+		boolean entrou = false;
+		for (Cromossomo cromossomo : cromossomos) {
+			entrou |= this.insere(cromossomo);
+		}
+		if (entrou) {
+			this.publica();
+		}
+		return entrou;
+	}
+
+	/**
+	 * Retorna o 1º colocado, sem travar o hall
+	 *
+	 * @return Cromossomo, ou null se o hall estiver vazio
+	 */
+
+	public Cromossomo melhor() {
+		List<Cromossomo> atual = this.retrato;
+		return atual.isEmpty() ? null : atual.get(0);
+	}
+
+	/**
+	 * Retorna o último retrato publicado, em ordem de fitness. A lista não
+	 * pode ser alterada e não muda com as ofertas seguintes
+	 *
+	 * @return List<Cromossomo>
+	 */
+
+	public List<Cromossomo> getRetrato() {
+		return this.retrato;
+	}
+
+	private boolean insere(Cromossomo cromossomo) {
+		int[] rota = cromossomo.getRota();
+		if ((this.cidadeInicio >= 0 && rota[0] != this.cidadeInicio)
+				|| (this.cidadeFim >= 0 && rota[rota.length - 1] != this.cidadeFim)) {
+			return false;
+		}
+		if (this.entradas.size() >= this.capacidade
+				&& !(cromossomo.getFitness() < this.entradas.last().cromossomo.getFitness())) {
+			return false;
+		}
+
+		// Numa colisão de assinaturas entre rotas diferentes, só a primeira
+		// fica no mapa
+		Entrada existente = this.porAssinatura.get(cromossomo.getAssinatura());
+		if (existente != null && Arrays.equals(existente.cromossomo.getRota(), rota)) {
+			return false;
+		}
+
+		// Guarda uma cópia: a rota do cromossomo volta para a reserva quando
+		// ele morre na população
+		Entrada nova = new Entrada(cromossomo.copia(), this.chegadas++);
+		this.entradas.add(nova);
+		if (existente == null) {
+			this.porAssinatura.put(cromossomo.getAssinatura(), nova);
+		}
+
+		if (this.entradas.size() > this.capacidade) {
+			Entrada pior = this.entradas.pollLast();
+			Long assinatura = pior.cromossomo.getAssinatura();
+			if (this.porAssinatura.get(assinatura) == pior) {
+				this.porAssinatura.remove(assinatura);
+			}
+		}
+		return true;
+	}
+
+	private void publica() {
+		List<Cromossomo> novo = new ArrayList<Cromossomo>(this.entradas.size());
+		for (Entrada entrada : this.entradas) {
+			novo.add(entrada.cromossomo);
+		}
+		this.retrato = Collections.unmodifiableList(novo);
+	}
+
+}
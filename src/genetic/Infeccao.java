@@ -0,0 +1,111 @@
+package genetic;
+
+/**
+ * Classe que implementa o operador de infecção em tempo linear. Usa uma
+ * máscara de cidades por thread, reaproveitada entre chamadas, para saber
+ * quais cidades pertencem ao vírus, e um cursor de escrita para copiar o resto
+ * da rota sem buscas nem deslocamentos.
+ *
+ */
+
+public class Infeccao {
+
+	private static final ThreadLocal<boolean[]> mascara = new ThreadLocal<boolean[]>() {
+		@Override
+		protected boolean[] initialValue() {
+			return new boolean[0];
+		}
+	};
+
+	private Infeccao() {
+
+	}
+
+	/**
+	 * Escreve em destino a rota infectada: a subrota do vírus ocupa as posições
+	 * a partir de inicio e as demais posições recebem as cidades restantes da
+	 * rota original, na ordem em que aparecem
+	 * 
+	 * @param rota
+	 *            Rota original
+	 * @param subRota
+	 *            Subrota do vírus
+	 * @param inicio
+	 *            Primeira posição da rota ocupada pelo vírus
+	 * @param destino
+	 *            Vetor, do tamanho da rota, que recebe a rota infectada
+	 * @param alterado
+	 *            Vetor de duas posições que recebe o trecho [inicio, fim) fora
+	 *            do qual destino é igual à rota original (pode ser null)
+	 */
+
+	public static void infecta(int[] rota, int[] subRota, int inicio, int[] destino, int[] alterado) {
+		boolean[] virus = mascara(rota.length);
+		int fim = inicio + subRota.length;
+		int primeiraAlterada = inicio;
+		int ultimaAlterada = fim - 1;
+
+		for (int i = 0; i < subRota.length; i++) {
+			virus[subRota[i]] = true;
+			destino[inicio + i] = subRota[i];
+		}
+
+		int posicao = 0;
+		int candidatos = 0;
+		for (int i = 0; i < rota.length; i++) {
+			int candidato = rota[i];
+			if (!virus[candidato]) {
+				if (posicao == inicio) {
+					posicao = fim;
+				}
+				// Rotas com cidades repetidas podem ter candidatos de sobra
+				if (posicao < destino.length) {
+					destino[posicao] = candidato;
+					posicao++;
+				}
+				candidatos++;
+			} else {
+				/*
+				 * As cidades do vírus deixam seu lugar na rota original, o que
+				 * desloca as cidades entre elas e a janela do vírus
+				 */
+				primeiraAlterada = Math.min(primeiraAlterada, i);
+				ultimaAlterada = Math.max(ultimaAlterada, i);
+			}
+		}
+
+		// Se a rota ou o vírus tinham cidades repetidas, toda a rota mudou
+		if (candidatos != rota.length - subRota.length) {
+			primeiraAlterada = 0;
+			ultimaAlterada = rota.length - 1;
+		}
+
+		if (alterado != null) {
+			alterado[0] = primeiraAlterada;
+			alterado[1] = ultimaAlterada + 1;
+		}
+
+		// Limpa a máscara para a próxima chamada da mesma thread
+		for (int i = 0; i < subRota.length; i++) {
+			virus[subRota[i]] = false;
+		}
+	}
+
+	/**
+	 * Retorna a máscara da thread atual, com pelo menos tamanho posições. Quem
+	 * usa a máscara deve deixá-la toda false ao terminar
+	 * 
+	 * @param tamanho
+	 * @return boolean[] mascara
+	 */
+
+	static boolean[] mascara(int tamanho) {
+		boolean[] virus = mascara.get();
+		if (virus.length < tamanho) {
+			virus = new boolean[tamanho];
+			mascara.set(virus);
+		}
+		return virus;
+	}
+
+}
@@ -0,0 +1,68 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe que sorteia os intervalos da rota usados pela infecção, pela
+ * transdução e pela geração dos vírus.
+ *
+ * <p>
+ * O intervalo [inicio, fim) tem tamanho fixo e seus dois extremos são posições
+ * válidas da rota, ou seja, fim < tamCromossomo. O início é sorteado de forma
+ * uniforme entre as posições possíveis e o fim é derivado dele, com um único
+ * sorteio por intervalo.
+ * </p>
+ *
+ * <p>
+ * Com as pontas fixas ({@link Pontas}), o intervalo fica dentro das posições
+ * internas [1, tamCromossomo - 1), de forma que nem os vírus nem a infecção
+ * tocam a primeira e a última cidade.
+ * </p>
+ *
+ */
+
+public class Intervalo {
+
+	private Intervalo() {
+
+	}
+
+	/**
+	 * Sorteia o início de um intervalo de tamanho informado
+	 *
+	 * @param tamCromossomo
+	 * @param tamanho
+	 * @param gerador
+	 * @return int inicio
+	 */
+
+	public static int sorteiaInicio(int tamCromossomo, int tamanho, SplittableRandom gerador) {
+		if (Pontas.isFixas()) {
+			if (tamanho < 1 || tamanho > tamCromossomo - 2) {
+				throw new IllegalArgumentException("Intervalo de tamanho " + tamanho
+						+ " não cabe no interior de uma rota de " + tamCromossomo + " cidades");
+			}
+			return 1 + gerador.nextInt(tamCromossomo - 1 - tamanho);
+		}
+		if (tamanho < 1 || tamanho >= tamCromossomo) {
+			throw new IllegalArgumentException(
+					"Intervalo de tamanho " + tamanho + " não cabe em uma rota de " + tamCromossomo + " cidades");
+		}
+		return gerador.nextInt(tamCromossomo - tamanho);
+	}
+
+	/**
+	 * Sorteia um intervalo de tamanho informado
+	 *
+	 * @param tamCromossomo
+	 * @param tamanho
+	 * @param gerador
+	 * @return range[2] com o início e o fim (exclusivo) do intervalo
+	 */
+
+	public static int[] sorteia(int tamCromossomo, int tamanho, SplittableRandom gerador) {
+		int inicio = sorteiaInicio(tamCromossomo, tamanho, gerador);
+		return new int[] { inicio, inicio + tamanho };
+	}
+
+}
@@ -0,0 +1,347 @@
+package genetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import gude.Vizinhos;
+
+/**
+ * Classe que distribui as etapas de uma geração (infecção, crossover e
+ * avaliação do fitness) entre as threads de um ForkJoinPool.
+ *
+ * <p>
+ * Cada item recebe seu próprio gerador, derivado em ordem do gerador mestre
+ * antes da execução, e os resultados são gravados na posição do item. Assim,
+ * para uma mesma semente, o resultado não depende do nível de paralelismo nem
+ * da ordem em que as threads executam.
+ * </p>
+ *
+ */
+
+public class MotorParalelo {
+
+	private final int paralelismo;
+	private final ForkJoinPool pool;
+	private final SplittableRandom mestre;
+
+	/**
+	 * Cria o motor, derivando o gerador mestre do gerador da thread atual
+	 *
+	 * @param paralelismo
+	 *            Número de threads; 1 executa tudo na thread que chamou
+	 */
+
+	public MotorParalelo(int paralelismo) {
+		this(paralelismo, Aleatorio.atual().nextLong());
+	}
+
+	/**
+	 * Cria o motor
+	 *
+	 * @param paralelismo
+	 *            Número de threads; 1 executa tudo na thread que chamou
+	 * @param semente
+	 *            Semente do gerador mestre
+	 */
+
+	public MotorParalelo(int paralelismo, long semente) {
+		if (paralelismo < 1) {
+			throw new IllegalArgumentException("Paralelismo inválido: " + paralelismo);
+		}
+		this.paralelismo = paralelismo;
+		this.pool = (paralelismo > 1) ? new ForkJoinPool(paralelismo) : null;
+		this.mestre = new SplittableRandom(semente);
+	}
+
+	public int getParalelismo() {
+		return paralelismo;
+	}
+
+	/**
+	 * Infecta os cromossomos com o vírus, na ordem da lista. Toda a lista é
+	 * entregue ao pool como uma única tarefa (Infeccoes), que gera blocos de
+	 * infecções em paralelo a partir da subrota atual e atualiza a
+	 * infectabilidade do vírus em ordem; se houver transdução, as infecções
+	 * seguintes do bloco são refeitas com a nova subrota. O resultado é o
+	 * mesmo da execução sequencial
+	 *
+	 * @param alvos
+	 *            Cromossomos que serão infectados
+	 * @param virus
+	 * @return List<Cromossomo> infectados, na ordem dos alvos
+	 */
+
+	public List<Cromossomo> infecta(final List<Cromossomo> alvos, final Virus virus) {
+		// Guarda a semente de cada item: uma infecção refeita após a transdução
+		// recomeça do mesmo ponto da sequência
+		long[] sementes = new long[alvos.size()];
+		for (int i = 0; i < sementes.length; i++) {
+			sementes[i] = this.mestre.nextLong();
+		}
+		Cromossomo[] infectados = new Cromossomo[alvos.size()];
+
+		// As transduções sorteiam com o gerador de quem chamou, na mesma ordem
+		// da execução sequencial, qualquer que seja a thread que as aplica
+		Infeccoes tarefa = new Infeccoes(alvos, virus, sementes, infectados, Aleatorio.atual());
+		if (this.pool == null) {
+			tarefa.compute();
+		} else {
+			this.pool.invoke(tarefa);
+		}
+
+		return Arrays.asList(infectados);
+	}
+
+	/**
+	 * Cruza cada pai com a mãe de mesma posição, com o crossover de um ponto
+	 *
+	 * @param pais
+	 * @param maes
+	 * @return List<Cromossomo> filhos, dois por casal, na ordem dos casais
+	 */
+
+	public List<Cromossomo> cruza(List<Cromossomo> pais, List<Cromossomo> maes) {
+		return this.cruza(pais, maes, Crossover.Tipo.UM_PONTO.cria());
+	}
+
+	/**
+	 * Cruza cada pai com a mãe de mesma posição, com o operador informado
+	 *
+	 * @param pais
+	 * @param maes
+	 * @param operador
+	 * @return List<Cromossomo> filhos, dois por casal, na ordem dos casais
+	 */
+
+	public List<Cromossomo> cruza(final List<Cromossomo> pais, final List<Cromossomo> maes,
+			final Crossover operador) {
+		final SplittableRandom[] geradores = this.divideGeradores(pais.size());
+		final Cromossomo[] filhos = new Cromossomo[2 * pais.size()];
+		if (!pais.isEmpty()) {
+			operador.prepara(pais.get(0).getG());
+		}
+
+		this.executa(pais.size(), new Acao() {
+			@Override
+			public void executa(int i) {
+				operador.cruza(pais.get(i), maes.get(i), geradores[i], filhos, 2 * i);
+			}
+		});
+
+		return new ArrayList<Cromossomo>(Arrays.asList(filhos));
+	}
+
+	/**
+	 * Aplica a busca local a cada cromossomo. As listas de vizinhos são
+	 * obtidas do grafo uma única vez, antes de dividir o trabalho
+	 *
+	 * @param cromossomos
+	 * @param prazo
+	 *            Instante (System.nanoTime) em que as buscas param; 0 para não
+	 *            ter prazo
+	 * @return List<Cromossomo> melhorados, na ordem dos cromossomos; os que
+	 *         não melhoraram são devolvidos sem cópia
+	 */
+
+	public List<Cromossomo> melhora(final List<Cromossomo> cromossomos, final long prazo) {
+		final Cromossomo[] melhorados = new Cromossomo[cromossomos.size()];
+		if (cromossomos.isEmpty()) {
+			return Arrays.asList(melhorados);
+		}
+		final Vizinhos vizinhos = cromossomos.get(0).getG().getVizinhos(BuscaLocal.vizinhosDefault);
+
+		this.executa(cromossomos.size(), new Acao() {
+			@Override
+			public void executa(int i) {
+				melhorados[i] = BuscaLocal.melhora(cromossomos.get(i), vizinhos, prazo);
+			}
+		});
+
+		return Arrays.asList(melhorados);
+	}
+
+	/**
+	 * Recalcula o fitness dos cromossomos a partir de suas rotas
+	 *
+	 * @param cromossomos
+	 */
+
+	public void avalia(final List<Cromossomo> cromossomos) {
+		this.executa(cromossomos.size(), new Acao() {
+			@Override
+			public void executa(int i) {
+				Cromossomo cromossomo = cromossomos.get(i);
+				cromossomo.setFitness(cromossomo.getRota());
+			}
+		});
+	}
+
+	/**
+	 * Finaliza as threads do motor
+	 */
+
+	public void encerra() {
+		if (this.pool != null) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Deriva um gerador para cada item, em ordem, a partir do gerador mestre
+	 *
+	 * @param quantidade
+	 * @return SplittableRandom[] geradores
+	 */
+
+	private SplittableRandom[] divideGeradores(int quantidade) {
+		SplittableRandom[] geradores = new SplittableRandom[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			geradores[i] = this.mestre.split();
+		}
+		return geradores;
+	}
+
+	/**
+	 * Aplica a ação a cada índice de [0, quantidade)
+	 *
+	 * @param quantidade
+	 * @param acao
+	 */
+
+	private void executa(int quantidade, Acao acao) {
+		if (this.pool == null) {
+			for (int i = 0; i < quantidade; i++) {
+				acao.executa(i);
+			}
+		} else {
+			this.pool.invoke(this.divide(acao, 0, quantidade));
+		}
+	}
+
+	/**
+	 * Cria a tarefa que aplica a ação a cada índice de [inicio, fim),
+	 * dividida em algumas tarefas por thread, para equilibrar a carga
+	 *
+	 * @param acao
+	 * @param inicio
+	 * @param fim
+	 * @return Tarefa
+	 */
+
+	private Tarefa divide(Acao acao, int inicio, int fim) {
+		int limite = Math.max(1, (fim - inicio) / (4 * this.paralelismo));
+		return new Tarefa(acao, inicio, fim, limite);
+	}
+
+	/**
+	 * Ação aplicada a um item, identificado por sua posição
+	 */
+
+	private interface Acao {
+		void executa(int i);
+	}
+
+	/**
+	 * Tarefa que infecta toda a lista de alvos. Cada bloco tem o tamanho da
+	 * infectabilidade atual do vírus, que só pode chegar a zero no último item
+	 * dele, ou uma infecção por thread, se for maior; os blocos são divididos
+	 * em subtarefas do próprio pool, sem voltar à thread que chamou
+	 */
+
+	private final class Infeccoes extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Cromossomo> alvos;
+		private final Virus virus;
+		private final long[] sementes;
+		private final Cromossomo[] infectados;
+		private final SplittableRandom gerador;
+
+		Infeccoes(List<Cromossomo> alvos, Virus virus, long[] sementes, Cromossomo[] infectados,
+				SplittableRandom gerador) {
+			this.alvos = alvos;
+			this.virus = virus;
+			this.sementes = sementes;
+			this.infectados = infectados;
+			this.gerador = gerador;
+		}
+
+		@Override
+		protected void compute() {
+			Acao infecta = new Acao() {
+				@Override
+				public void executa(int i) {
+					infectados[i] = virus.geraInfectado(alvos.get(i), new SplittableRandom(sementes[i]));
+				}
+			};
+
+			int proximo = 0;
+			while (proximo < this.alvos.size()) {
+				int inicio = proximo;
+				int bloco = Math.max(this.virus.getInfectabilidade(), paralelismo);
+				int fim = (int) Math.min(this.alvos.size(), (long) inicio + bloco);
+
+				if (pool == null) {
+					for (int i = inicio; i < fim; i++) {
+						infecta.executa(i);
+					}
+				} else {
+					divide(infecta, inicio, fim).invoke();
+				}
+
+				proximo = fim;
+				for (int i = inicio; i < fim; i++) {
+					if (this.virus.atualizaInfectabilidade(this.alvos.get(i), this.infectados[i], this.gerador)) {
+						proximo = i + 1;
+						break;
+					}
+				}
+				// As infecções que serão refeitas devolvem suas rotas
+				for (int i = proximo; i < fim; i++) {
+					ReservaRotas.devolve(this.infectados[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tarefa que aplica a ação a cada índice de [inicio, fim), dividindo o
+	 * intervalo ao meio enquanto ele tiver mais que limite itens
+	 */
+
+	private static class Tarefa extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Acao acao;
+		private final int inicio;
+		private final int fim;
+		private final int limite;
+
+		Tarefa(Acao acao, int inicio, int fim, int limite) {
+			this.acao = acao;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.limite = limite;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.fim - this.inicio <= this.limite) {
+				for (int i = this.inicio; i < this.fim; i++) {
+					this.acao.executa(i);
+				}
+			} else {
+				int meio = (this.inicio + this.fim) >>> 1;
+				invokeAll(new Tarefa(this.acao, this.inicio, meio, this.limite),
+						new Tarefa(this.acao, meio, this.fim, this.limite));
+			}
+		}
+	}
+
+}
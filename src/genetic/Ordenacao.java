@@ -0,0 +1,221 @@
+package genetic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordenação parcial da população pelo fitness, sobre um vetor primitivo de
+ * fitness e um vetor de índices, sem Comparator nem objetos intermediários.
+ *
+ * <p>
+ * A ordem é pelo fitness e, no empate, pela posição na lista, a mesma de uma
+ * ordenação estável. A população chega a cada etapa quase ordenada: um prefixo
+ * já ordenado (os sobreviventes da geração anterior) seguido dos cromossomos
+ * novos. Só a cauda é ordenada, e depois intercalada com o prefixo, então o
+ * custo é O(P + t log t) para t cromossomos novos. Quando só os k melhores
+ * interessam, a cauda é antes reduzida aos seus k melhores por quickselect.
+ * </p>
+ *
+ */
+
+public class Ordenacao {
+
+	/** Trechos menores que este são ordenados por inserção */
+	private static final int limiteInsercao = 16;
+
+	private Ordenacao() {
+
+	}
+
+	/**
+	 * Ordena a lista pelo fitness
+	 *
+	 * @param cromossomos
+	 * @return List<Cromossomo> nova lista, ordenada
+	 */
+
+	public static List<Cromossomo> ordena(List<Cromossomo> cromossomos) {
+		return melhores(cromossomos, cromossomos.size());
+	}
+
+	/**
+	 * Retorna os k cromossomos de menor fitness, em ordem
+	 *
+	 * @param cromossomos
+	 * @param k
+	 * @return List<Cromossomo> nova lista, com min(k, tamanho) cromossomos
+	 */
+
+	public static List<Cromossomo> melhores(List<Cromossomo> cromossomos, int k) {
+		int[] indices = melhores(fitness(cromossomos), k);
+		List<Cromossomo> ordenados = new ArrayList<Cromossomo>(indices.length);
+		for (int indice : indices) {
+			ordenados.add(cromossomos.get(indice));
+		}
+		return ordenados;
+	}
+
+	/**
+	 * Retorna o fitness de cada cromossomo, na ordem da lista
+	 *
+	 * @param cromossomos
+	 * @return double[] fitness
+	 */
+
+	public static double[] fitness(List<Cromossomo> cromossomos) {
+		double[] fitness = new double[cromossomos.size()];
+		for (int i = 0; i < fitness.length; i++) {
+			fitness[i] = cromossomos.get(i).getFitness();
+		}
+		return fitness;
+	}
+
+	/**
+	 * Retorna os índices dos k menores valores, em ordem
+	 *
+	 * @param fitness
+	 * @param k
+	 * @return int[] índices, com min(k, tamanho) posições
+	 */
+
+	public static int[] melhores(double[] fitness, int k) {
+		int n = fitness.length;
+		k = Math.max(0, Math.min(k, n));
+
+		// Prefixo já ordenado
+		int prefixo = 1;
+		while (prefixo < n && Double.compare(fitness[prefixo - 1], fitness[prefixo]) <= 0) {
+			prefixo++;
+		}
+		prefixo = Math.min(prefixo, n);
+
+		int[] indices = new int[k];
+		if (prefixo == n) {
+			for (int i = 0; i < k; i++) {
+				indices[i] = i;
+			}
+			return indices;
+		}
+
+		// Só os k melhores da cauda podem entrar no resultado
+		int[] cauda = new int[n - prefixo];
+		for (int i = 0; i < cauda.length; i++) {
+			cauda[i] = prefixo + i;
+		}
+		int tamCauda = cauda.length;
+		if (tamCauda > k) {
+			seleciona(fitness, cauda, 0, tamCauda - 1, k);
+			tamCauda = k;
+		}
+		ordena(fitness, cauda, 0, tamCauda - 1);
+
+		// Intercala o prefixo com a cauda ordenada; do prefixo, só os k
+		// primeiros podem entrar
+		prefixo = Math.min(prefixo, k);
+		int i = 0;
+		int j = 0;
+		for (int posicao = 0; posicao < k; posicao++) {
+			if (j >= tamCauda || (i < prefixo && !antes(fitness, cauda[j], i))) {
+				indices[posicao] = i++;
+			} else {
+				indices[posicao] = cauda[j++];
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * Ordem total: menor fitness e, no empate, menor índice
+	 */
+	private static boolean antes(double[] fitness, int a, int b) {
+		int comparacao = Double.compare(fitness[a], fitness[b]);
+		return (comparacao < 0) || (comparacao == 0 && a < b);
+	}
+
+	/**
+	 * Quickselect: deixa em [inicio, inicio + k) os k menores de [inicio, fim],
+	 * em qualquer ordem
+	 */
+	private static void seleciona(double[] fitness, int[] indices, int inicio, int fim, int k) {
+		int alvo = inicio + k - 1;
+		while (fim - inicio >= limiteInsercao) {
+			int pivo = particiona(fitness, indices, inicio, fim);
+			if (pivo == alvo) {
+				return;
+			} else if (pivo < alvo) {
+				inicio = pivo + 1;
+			} else {
+				fim = pivo - 1;
+			}
+		}
+		insercao(fitness, indices, inicio, fim);
+	}
+
+	/**
+	 * Quicksort de [inicio, fim], recursivo só na metade menor. Ordena os
+	 * índices pelo valor e, no empate, pelo próprio índice, a mesma ordem de
+	 * uma ordenação estável dos índices em ordem crescente
+	 */
+	static void ordena(double[] fitness, int[] indices, int inicio, int fim) {
+		while (fim - inicio >= limiteInsercao) {
+			int pivo = particiona(fitness, indices, inicio, fim);
+			if (pivo - inicio < fim - pivo) {
+				ordena(fitness, indices, inicio, pivo - 1);
+				inicio = pivo + 1;
+			} else {
+				ordena(fitness, indices, pivo + 1, fim);
+				fim = pivo - 1;
+			}
+		}
+		insercao(fitness, indices, inicio, fim);
+	}
+
+	/**
+	 * Partição de Lomuto com pivô na mediana de três; retorna a posição final
+	 * do pivô. Ordenados os três, a mediana fica em meio e é levada para fim,
+	 * então uma entrada já ordenada (ou com a cauda ordenada) ainda é dividida
+	 * ao meio
+	 */
+	private static int particiona(double[] fitness, int[] indices, int inicio, int fim) {
+		int meio = (inicio + fim) >>> 1;
+		if (antes(fitness, indices[meio], indices[inicio])) {
+			troca(indices, meio, inicio);
+		}
+		if (antes(fitness, indices[fim], indices[inicio])) {
+			troca(indices, fim, inicio);
+		}
+		if (antes(fitness, indices[fim], indices[meio])) {
+			troca(indices, meio, fim);
+		}
+		troca(indices, meio, fim);
+
+		int pivo = indices[fim];
+		int posicao = inicio;
+		for (int i = inicio; i < fim; i++) {
+			if (antes(fitness, indices[i], pivo)) {
+				troca(indices, i, posicao++);
+			}
+		}
+		troca(indices, posicao, fim);
+		return posicao;
+	}
+
+	private static void insercao(double[] fitness, int[] indices, int inicio, int fim) {
+		for (int i = inicio + 1; i <= fim; i++) {
+			int atual = indices[i];
+			int j = i - 1;
+			while (j >= inicio && antes(fitness, atual, indices[j])) {
+				indices[j + 1] = indices[j];
+				j--;
+			}
+			indices[j + 1] = atual;
+		}
+	}
+
+	private static void troca(int[] indices, int a, int b) {
+		int aux = indices[a];
+		indices[a] = indices[b];
+		indices[b] = aux;
+	}
+
+}
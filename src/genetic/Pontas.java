@@ -0,0 +1,107 @@
+package genetic;
+
+import java.util.SplittableRandom;
+import gude.Graph;
+
+/**
+ * Modo de caminho com pontas fixas.
+ *
+ * <p>
+ * O problema é um caminho hamiltoniano da cidade 1 até a cidade n. Com as
+ * pontas fixas, toda rota já nasce com a cidade 1 na posição 0 e a cidade n na
+ * posição n - 1, e os operadores só alteram as n - 2 posições internas: os
+ * intervalos da infecção, da transdução e dos vírus ficam em [1, n - 1), e o
+ * OX1 mantém as pontas de pais que as têm no lugar. Assim nenhuma rota precisa
+ * de reparo, e o fitness de cada filho é calculado uma única vez.
+ * </p>
+ *
+ * <p>
+ * Sem o modo, as rotas são permutações livres e o entraHall leva as pontas
+ * para o lugar a cada geração.
+ * </p>
+ *
+ */
+
+public class Pontas {
+
+	private static volatile boolean fixas = false;
+
+	private Pontas() {
+
+	}
+
+	public static boolean isFixas() {
+		return fixas;
+	}
+
+	/**
+	 * Liga ou desliga o modo; deve ser chamado antes de gerar as populações
+	 *
+	 * @param fixas
+	 */
+
+	public static void setFixas(boolean fixas) {
+		Pontas.fixas = fixas;
+	}
+
+	/**
+	 * Retorna o índice da cidade de partida, a cidade 1
+	 *
+	 * @param g
+	 * @return índice
+	 */
+
+	public static int cidadeInicio(Graph g) {
+		return g.indexOf(1);
+	}
+
+	/**
+	 * Retorna o índice da cidade de destino, a cidade n
+	 *
+	 * @param g
+	 * @return índice
+	 */
+
+	public static int cidadeFim(Graph g) {
+		return g.indexOf(g.getNumVertex());
+	}
+
+	/**
+	 * Embaralha uma permutação das cidades. Com as pontas fixas, leva a cidade
+	 * de partida e a de destino para as pontas e embaralha só o interior
+	 *
+	 * @param rota
+	 * @param g
+	 * @param rand
+	 */
+
+	public static void embaralha(int[] rota, Graph g, SplittableRandom rand) {
+		if (!fixas) {
+			Populacao.embaralha(rota, rand);
+			return;
+		}
+
+		posiciona(rota, cidadeInicio(g), 0);
+		posiciona(rota, cidadeFim(g), rota.length - 1);
+		for (int i = rota.length - 2; i > 1; i--) {
+			int j = 1 + rand.nextInt(i);
+			int aux = rota[i];
+			rota[i] = rota[j];
+			rota[j] = aux;
+		}
+	}
+
+	/**
+	 * Troca a cidade com a que está na posição
+	 */
+	private static void posiciona(int[] rota, int cidade, int posicao) {
+		for (int i = 0; i < rota.length; i++) {
+			if (rota[i] == cidade) {
+				rota[i] = rota[posicao];
+				rota[posicao] = cidade;
+				return;
+			}
+		}
+	}
+
+}
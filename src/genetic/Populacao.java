@@ -1,21 +1,22 @@
 package genetic;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.SplittableRandom;
 import gude.Graph;
-import gude.Vertex;
 
 public class Populacao {
 
 	private Graph g;
 	private List<Cromossomo> populacao = new ArrayList<Cromossomo>();
-	private List<Vertex> rotaAux = new ArrayList<Vertex>();
+	private int[] rotaAux;
 
 	public Populacao(Graph g) {
 		this.g = g;
-		this.rotaAux = g.getArrayListOfVertexes();
+		this.rotaAux = new int[g.getNumVertex()];
+		for (int i = 0; i < this.rotaAux.length; i++) {
+			this.rotaAux[i] = i;
+		}
 	}
 
 	public List<Cromossomo> getPopulacao() {
@@ -33,9 +34,9 @@ public class Populacao {
 	 * @param somaRank
 	 */
 
-	public void calculaRank(Double somaRank) {
+	public void calculaRank(double somaRank) {
 
-		Double rank = 0.0;
+		double rank = 0.0;
 
 		for (Cromossomo cromossomo : this.populacao) {
 			rank = (100 - (cromossomo.getFitness() / somaRank));
@@ -46,16 +47,46 @@ public class Populacao {
 
 	/**
 	 * Ordena a população de cromossomos pelo critério de melhor fitness, ou
-	 * seja, menor soma das distâncias entre as cidades
+	 * seja, menor soma das distâncias entre as cidades. Só a parte fora de
+	 * ordem é ordenada (ver {@link Ordenacao}); a lista continua a mesma
 	 */
 
 	public void ordenaPopulacao() {
-		Collections.sort(this.populacao, new Comparator<Cromossomo>() {
-			@Override
-			public int compare(Cromossomo p1, Cromossomo p2) {
-				return Double.compare(p1.getFitness(), p2.getFitness());
+		this.mantemMelhores(this.populacao.size());
+	}
+
+	/**
+	 * Mantém na população só os melhores cromossomos, em ordem de fitness. As
+	 * rotas dos eliminados voltam para a {@link ReservaRotas}. A lista é
+	 * truncada no próprio lugar: uma subList manteria os eliminados vivos na
+	 * lista original, e a memória cresceria a cada geração
+	 * 
+	 * @param quantidade
+	 *            Número de sobreviventes
+	 */
+
+	public void mantemMelhores(int quantidade) {
+		double[] fitness = Ordenacao.fitness(this.populacao);
+		int[] melhores = Ordenacao.melhores(fitness, quantidade);
+
+		// Marca os sobreviventes no vetor de fitness para achar os eliminados
+		if (melhores.length < fitness.length) {
+			for (int indice : melhores) {
+				fitness[indice] = Double.NaN;
+			}
+			for (int i = 0; i < fitness.length; i++) {
+				if (!Double.isNaN(fitness[i])) {
+					ReservaRotas.devolve(this.populacao.get(i));
+				}
 			}
-		});
+		}
+
+		List<Cromossomo> ordenados = new ArrayList<Cromossomo>(melhores.length);
+		for (int indice : melhores) {
+			ordenados.add(this.populacao.get(indice));
+		}
+		this.populacao.clear();
+		this.populacao.addAll(ordenados);
 	}
 
 	/**
@@ -64,9 +95,7 @@ public class Populacao {
 
 	public void inanicao() {
 		for (Cromossomo cromossomo : this.populacao) {
-			Integer vidaAux = 0;
-			vidaAux = cromossomo.getTempoDeVida() - 1;
-			cromossomo.setTempoDeVida(vidaAux);
+			cromossomo.setTempoDeVida(cromossomo.getTempoDeVida() - 1);
 		}
 	}
 
@@ -77,26 +106,15 @@ public class Populacao {
 	 *            Tamanho da populacao
 	 */
 
-	public void geraPopulacao(Integer tamPopulacao) {
-		Integer contPermutacao = 0;
-		Vertex[] rotaAux = new Vertex[this.g.getNumVertex()];
+	public void geraPopulacao(int tamPopulacao) {
+		int contPermutacao = 0;
+		SplittableRandom rand = Aleatorio.atual();
 
 		while (contPermutacao < tamPopulacao) {
-			Integer i = 0;
-			Collections.shuffle(this.rotaAux);
-
-			/**
-			 * Converte a lista em um vetor para facilitar a permutação das
-			 * cidades
-			 */
-
-			for (Vertex index : this.rotaAux) {
-				rotaAux[i] = index;
-				i++;
-			}
+			Pontas.embaralha(this.rotaAux, this.g, rand);
 
 			Cromossomo cromossomo = new Cromossomo(this.g);
-			cromossomo.setRota(rotaAux);
+			cromossomo.setRota(this.rotaAux.clone());
 
 			/**
 			 * Adiciona o rotaAux gerado a população
@@ -111,4 +129,20 @@ public class Populacao {
 
 	}
 
+	/**
+	 * Embaralha as cidades de uma rota (Fisher-Yates)
+	 * 
+	 * @param rota
+	 * @param rand
+	 */
+
+	static void embaralha(int[] rota, SplittableRandom rand) {
+		for (int i = rota.length - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int aux = rota[i];
+			rota[i] = rota[j];
+			rota[j] = aux;
+		}
+	}
+
 }
@@ -4,30 +4,30 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import gude.Graph;
-import gude.Vertex;
 
 public class PopulacaoVirus {
 
 	private Graph g;
 	private List<Virus> populacaoVirus = new ArrayList<Virus>();
-	private List<Vertex> rotaList = new ArrayList<Vertex>();
-	private Integer tamVirus = 0;
+	private int[] rotaList;
+	private int tamVirus = 0;
 
-	public PopulacaoVirus(Graph g, Integer tamVirus) {
+	public PopulacaoVirus(Graph g, int tamVirus) {
 		this.g = g;
 		this.tamVirus = tamVirus;
-		for (Vertex v : g.getArrayListOfVertexes()) {
-			this.rotaList.add(v);
+		this.rotaList = new int[g.getNumVertex()];
+		for (int i = 0; i < this.rotaList.length; i++) {
+			this.rotaList[i] = i;
 		}
 	}
 
-	public Integer getTamVirus() {
+	public int getTamVirus() {
 		return tamVirus;
 	}
 
-	public void setTamVirus(Integer tamVirus) {
+	public void setTamVirus(int tamVirus) {
 		this.tamVirus = tamVirus;
 	}
 
@@ -39,11 +39,11 @@ public class PopulacaoVirus {
 		this.populacaoVirus = populacaoVirus;
 	}
 
-	public List<Vertex> getRotaAux() {
+	public int[] getRotaAux() {
 		return rotaList;
 	}
 
-	public void setRotaAux(List<Vertex> rotaList) {
+	public void setRotaAux(int[] rotaList) {
 		this.rotaList = rotaList;
 	}
 
@@ -56,7 +56,7 @@ public class PopulacaoVirus {
 		Collections.sort(this.populacaoVirus, new Comparator<Virus>() {
 			@Override
 			public int compare(Virus v1, Virus v2) {
-				return Double.compare(v1.getInfectabilidade(), v2.getInfectabilidade());
+				return Integer.compare(v1.getInfectabilidade(), v2.getInfectabilidade());
 			}
 		});
 	}
@@ -68,36 +68,16 @@ public class PopulacaoVirus {
 	 */
 
 	public Virus selecionaVirus() {
-		Integer roleta = 0;
-		Fatia[] pizza = new Fatia[this.populacaoVirus.size()];
-		Double acumulado = 0.0;
-		Virus virusSelecionado = new Virus(this.g);
-
-		roleta = this.geraRange(100)[1];
-
-		for (Integer i = 0; i < this.populacaoVirus.size(); i++) {
-			Fatia fatia = new Fatia();
-			if (i == 0) {
-				fatia.setInicio(0.0);
-				fatia.setFim((double) this.populacaoVirus.get(i).getInfectabilidade());
-				acumulado = fatia.getFim();
-				pizza[i] = fatia;
-			} else {
-				fatia.setInicio(acumulado + 0.1);
-				fatia.setFim(this.populacaoVirus.get(i).getInfectabilidade() + fatia.getInicio());
-				pizza[i] = fatia;
-				acumulado = fatia.getFim();
-			}
-		}
+		double[] pesos = new double[this.populacaoVirus.size()];
 
-		for (Integer i = 0; i < pizza.length; i++) {
-			if ((roleta > pizza[i].getInicio()) && roleta < pizza[i].getFim()) {
-				virusSelecionado = this.populacaoVirus.get(i);
-				break;
-			}
+		for (int i = 0; i < pesos.length; i++) {
+			pesos[i] = this.populacaoVirus.get(i).getInfectabilidade();
 		}
 
-		return virusSelecionado;
+		Selecao roleta = new SelecaoRoleta();
+		roleta.prepara(pesos);
+
+		return this.populacaoVirus.get(roleta.seleciona(Aleatorio.atual()));
 	}
 
 	/**
@@ -107,8 +87,8 @@ public class PopulacaoVirus {
 
 	public void rankeiaVirus() {
 
-		Double rank = 0.0;
-		Double somaRank = 0.0;
+		double rank = 0.0;
+		double somaRank = 0.0;
 
 		for (Virus virus : this.populacaoVirus) {
 			somaRank += virus.getInfectabilidade();
@@ -128,34 +108,8 @@ public class PopulacaoVirus {
 	 * @return range
 	 */
 
-	public Integer[] geraRange(Integer tamCromossomo) {
-
-		Integer rand1 = 0;
-		Integer rand2 = 0;
-		Integer validaRand = 0;
-		Integer[] range = new Integer[2];
-		Random gerador = new Random();
-
-		do {
-			rand1 = gerador.nextInt(tamCromossomo);
-			rand2 = gerador.nextInt(tamCromossomo);
-			validaRand = Math.abs(rand2 - rand1);
-
-			if (validaRand == 0) {
-				continue;
-			}
-		} while (validaRand != (Math.floor((tamCromossomo / this.tamVirus))));
-
-		if (rand2 > rand1) {
-			range[0] = rand1;
-			range[1] = rand2;
-		} else {
-			range[0] = rand2;
-			range[1] = rand1;
-		}
-
-		return range;
-
+	public int[] geraRange(int tamCromossomo) {
+		return Intervalo.sorteia(tamCromossomo, tamCromossomo / this.tamVirus, Aleatorio.atual());
 	}
 
 	/**
@@ -166,19 +120,16 @@ public class PopulacaoVirus {
 	 *            Tamanho da população de vírus
 	 */
 
-	public void geraPopulacaoVirus(Integer tamPopulacaoVirus) {
-		Integer contPermutacao = 0;
-		Vertex[] subRota = new Vertex[(int) Math.floor((this.g.getNumVertex() / this.tamVirus))];
+	public void geraPopulacaoVirus(int tamPopulacaoVirus) {
+		int contPermutacao = 0;
+		int tamSubRota = this.g.getNumVertex() / this.tamVirus;
+		SplittableRandom rand = Aleatorio.atual();
 
 		while (contPermutacao < tamPopulacaoVirus) {
-			Integer i = 0, j = 0;
-			Collections.shuffle(this.rotaList);
-			Integer[] range = this.geraRange(this.g.getNumVertex());
-
-			for (i = range[0]; i < range[1]; i++) {
-				subRota[j] = this.rotaList.get(i);
-				j++;
-			}
+			int[] subRota = new int[tamSubRota];
+			Pontas.embaralha(this.rotaList, this.g, rand);
+			int inicio = Intervalo.sorteiaInicio(this.rotaList.length, tamSubRota, rand);
+			System.arraycopy(this.rotaList, inicio, subRota, 0, tamSubRota);
 
 			/**
 			 * Seta o novo virus
@@ -0,0 +1,183 @@
+package genetic;
+
+/**
+ * Reserva de vetores de rota: as rotas dos cromossomos que morrem voltam para
+ * a reserva e são reaproveitadas pelos filhos e infectados das gerações
+ * seguintes, de forma que uma geração em regime não aloque rotas novas.
+ *
+ * <p>
+ * Só pode devolver uma rota quem é o único dono dela: o cromossomo acabou de
+ * sair da população e nenhuma outra estrutura guarda uma referência a ele. Por
+ * isso o hall da fama guarda cópias. A reserva guarda vetores de um único
+ * tamanho; quando chega um vetor de outro tamanho (outro grafo), ela é
+ * esvaziada.
+ * </p>
+ *
+ * <p>
+ * Cada thread tem a sua reserva (ThreadLocal), e obtem e devolve não usam
+ * trava. Como as rotas costumam morrer na thread da população e nascer nas
+ * threads do motor, as reservas trocam lotes de vetores com um depósito
+ * compartilhado: a que enche passa metade dos vetores para o depósito e a que
+ * esvazia busca um lote nele, uma operação sincronizada a cada lote.
+ * </p>
+ *
+ */
+
+public class ReservaRotas {
+
+	/** Máximo de vetores guardados no depósito */
+	private static final int capacidade = 1 << 14;
+	/** Máximo de vetores guardados na reserva de cada thread */
+	private static final int capacidadeLocal = 256;
+
+	private static final ThreadLocal<Pilha> local = new ThreadLocal<Pilha>() {
+		@Override
+		protected Pilha initialValue() {
+			return new Pilha(capacidadeLocal);
+		}
+	};
+
+	private static final Pilha deposito = new Pilha(capacidade);
+
+	private ReservaRotas() {
+
+	}
+
+	/**
+	 * Retorna um vetor de rota com n posições, reaproveitado se houver. O
+	 * conteúdo é indefinido
+	 *
+	 * @param n
+	 * @return int[] rota
+	 */
+
+	public static int[] obtem(int n) {
+		Pilha pilha = local.get();
+		if (pilha.tamanho == 0 || pilha.comprimento != n) {
+			synchronized (deposito) {
+				deposito.passa(pilha, n, capacidadeLocal / 2);
+			}
+		}
+		if (pilha.comprimento == n && pilha.tamanho > 0) {
+			return pilha.retira();
+		}
+		return new int[n];
+	}
+
+	/**
+	 * Retorna um vetor com uma cópia da rota
+	 *
+	 * @param rota
+	 * @return int[] cópia
+	 */
+
+	public static int[] copia(int[] rota) {
+		int[] copia = obtem(rota.length);
+		System.arraycopy(rota, 0, copia, 0, rota.length);
+		return copia;
+	}
+
+	/**
+	 * Devolve um vetor de rota para a reserva
+	 *
+	 * @param rota
+	 */
+
+	public static void devolve(int[] rota) {
+		if (rota == null) {
+			return;
+		}
+		Pilha pilha = local.get();
+		if (pilha.tamanho == capacidadeLocal) {
+			synchronized (deposito) {
+				pilha.passa(deposito, pilha.comprimento, capacidadeLocal / 2);
+			}
+		}
+		pilha.guarda(rota);
+	}
+
+	/**
+	 * Devolve a rota de um cromossomo que morreu
+	 *
+	 * @param cromossomo
+	 */
+
+	public static void devolve(Cromossomo cromossomo) {
+		devolve(cromossomo.getRota());
+	}
+
+	/**
+	 * Retorna quantos vetores a thread atual pode obter sem alocar: os da sua
+	 * reserva e os do depósito
+	 *
+	 * @return tamanho
+	 */
+
+	public static int getTamanho() {
+		synchronized (deposito) {
+			return local.get().tamanho + deposito.tamanho;
+		}
+	}
+
+	/**
+	 * Pilha de vetores de um único comprimento
+	 */
+
+	private static final class Pilha {
+
+		private int[][] rotas = new int[64][];
+		private int tamanho = 0;
+		private int comprimento = -1;
+		private final int limite;
+
+		Pilha(int limite) {
+			this.limite = limite;
+		}
+
+		/**
+		 * Guarda o vetor; um vetor de outro comprimento esvazia a pilha e
+		 * com a pilha cheia o vetor é descartado
+		 */
+		void guarda(int[] rota) {
+			if (rota.length != this.comprimento) {
+				esvazia();
+				this.comprimento = rota.length;
+			}
+			if (this.tamanho == this.limite) {
+				return;
+			}
+			if (this.tamanho == this.rotas.length) {
+				int[][] maior = new int[Math.min(this.limite, 2 * this.rotas.length)][];
+				System.arraycopy(this.rotas, 0, maior, 0, this.tamanho);
+				this.rotas = maior;
+			}
+			this.rotas[this.tamanho++] = rota;
+		}
+
+		int[] retira() {
+			int[] rota = this.rotas[--this.tamanho];
+			this.rotas[this.tamanho] = null;
+			return rota;
+		}
+
+		/**
+		 * Passa até quantidade vetores de n posições para a outra pilha
+		 */
+		void passa(Pilha outra, int n, int quantidade) {
+			if (this.comprimento != n) {
+				return;
+			}
+			for (int i = 0; i < quantidade && this.tamanho > 0; i++) {
+				outra.guarda(retira());
+			}
+		}
+
+		private void esvazia() {
+			for (int i = 0; i < this.tamanho; i++) {
+				this.rotas[i] = null;
+			}
+			this.tamanho = 0;
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Interface dos métodos de seleção. A tabela de seleção é montada uma vez, em
+ * prepara, e cada sorteio em seleciona retorna sempre um índice válido.
+ *
+ */
+
+public interface Selecao {
+
+	/**
+	 * Métodos de seleção disponíveis
+	 */
+	enum Tipo {
+		/** Roleta proporcional ao peso, por busca binária nos pesos acumulados */
+		ROLETA,
+		/** Melhor de alguns indivíduos sorteados */
+		TORNEIO,
+		/** Roleta proporcional à posição no ranking */
+		RANK;
+
+		/**
+		 * Cria uma nova instância do método de seleção
+		 * 
+		 * @return Selecao
+		 */
+		public Selecao cria() {
+			switch (this) {
+			case TORNEIO:
+				return new SelecaoTorneio(SelecaoTorneio.tamanhoDefault);
+			case RANK:
+				return new SelecaoRank();
+			default:
+				return new SelecaoRoleta();
+			}
+		}
+	}
+
+	/**
+	 * Monta a tabela de seleção
+	 * 
+	 * @param pesos
+	 *            Peso de cada indivíduo; quanto maior, melhor o indivíduo
+	 */
+	void prepara(double[] pesos);
+
+	/**
+	 * Sorteia um indivíduo
+	 * 
+	 * @param rand
+	 * @return índice do indivíduo sorteado
+	 */
+	int seleciona(SplittableRandom rand);
+
+}
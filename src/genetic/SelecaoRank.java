@@ -0,0 +1,49 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe que implementa a seleção por ranking: a fatia de cada indivíduo na
+ * roleta é proporcional à sua posição (o pior tem peso 1 e o melhor, peso n),
+ * e não ao valor de seu peso.
+ *
+ */
+
+public class SelecaoRank implements Selecao {
+
+	private double[] acumulado = new double[0];
+	private int[] indices = new int[0];
+	private int tamanho;
+
+	@Override
+	public void prepara(double[] pesos) {
+		if (pesos.length == 0) {
+			throw new IllegalArgumentException("Não há indivíduos para selecionar");
+		}
+		if (this.acumulado.length < pesos.length) {
+			this.acumulado = new double[pesos.length];
+			this.indices = new int[pesos.length];
+		}
+		this.tamanho = pesos.length;
+
+		// Ordena os índices do pior para o melhor peso, no próprio vetor da
+		// tabela; no empate fica a ordem das posições
+		for (int i = 0; i < pesos.length; i++) {
+			this.indices[i] = i;
+		}
+		Ordenacao.ordena(pesos, this.indices, 0, pesos.length - 1);
+
+		double soma = 0.0;
+		for (int i = 0; i < pesos.length; i++) {
+			soma += i + 1;
+			this.acumulado[i] = soma;
+		}
+	}
+
+	@Override
+	public int seleciona(SplittableRandom rand) {
+		double roleta = rand.nextDouble() * this.acumulado[this.tamanho - 1];
+		return this.indices[SelecaoRoleta.busca(this.acumulado, this.tamanho, roleta)];
+	}
+
+}
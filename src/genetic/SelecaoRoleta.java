@@ -0,0 +1,70 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe que implementa a seleção por roleta. Os pesos são acumulados uma vez
+ * e cada sorteio faz uma busca binária na tabela acumulada, em O(log n).
+ *
+ */
+
+public class SelecaoRoleta implements Selecao {
+
+	private double[] acumulado = new double[0];
+	private int tamanho;
+
+	@Override
+	public void prepara(double[] pesos) {
+		if (pesos.length == 0) {
+			throw new IllegalArgumentException("Não há indivíduos para selecionar");
+		}
+		if (this.acumulado.length < pesos.length) {
+			this.acumulado = new double[pesos.length];
+		}
+		this.tamanho = pesos.length;
+
+		double soma = 0.0;
+		for (int i = 0; i < pesos.length; i++) {
+			// Pesos negativos não têm fatia na roleta
+			soma += Math.max(0.0, pesos[i]);
+			this.acumulado[i] = soma;
+		}
+	}
+
+	@Override
+	public int seleciona(SplittableRandom rand) {
+		double total = this.acumulado[this.tamanho - 1];
+
+		// Sem nenhum peso positivo, a roleta é uniforme
+		if (total <= 0.0) {
+			return rand.nextInt(this.tamanho);
+		}
+
+		return busca(this.acumulado, this.tamanho, rand.nextDouble() * total);
+	}
+
+	/**
+	 * Retorna o primeiro índice cujo valor acumulado é maior que roleta
+	 * 
+	 * @param acumulado
+	 * @param tamanho
+	 * @param roleta
+	 * @return índice
+	 */
+	static int busca(double[] acumulado, int tamanho, double roleta) {
+		int inicio = 0;
+		int fim = tamanho - 1;
+
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (acumulado[meio] > roleta) {
+				fim = meio;
+			} else {
+				inicio = meio + 1;
+			}
+		}
+
+		return inicio;
+	}
+
+}
@@ -0,0 +1,51 @@
+package genetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe que implementa a seleção por torneio: sorteia alguns indivíduos e
+ * retorna o de maior peso.
+ *
+ */
+
+public class SelecaoTorneio implements Selecao {
+
+	static final int tamanhoDefault = 5;
+
+	private final int tamanhoTorneio;
+	private double[] pesos;
+
+	public SelecaoTorneio(int tamanhoTorneio) {
+		if (tamanhoTorneio < 1) {
+			throw new IllegalArgumentException("Tamanho de torneio inválido: " + tamanhoTorneio);
+		}
+		this.tamanhoTorneio = tamanhoTorneio;
+	}
+
+	public int getTamanhoTorneio() {
+		return tamanhoTorneio;
+	}
+
+	@Override
+	public void prepara(double[] pesos) {
+		if (pesos.length == 0) {
+			throw new IllegalArgumentException("Não há indivíduos para selecionar");
+		}
+		this.pesos = pesos;
+	}
+
+	@Override
+	public int seleciona(SplittableRandom rand) {
+		int vencedor = rand.nextInt(this.pesos.length);
+
+		for (int i = 1; i < this.tamanhoTorneio; i++) {
+			int desafiante = rand.nextInt(this.pesos.length);
+			if (this.pesos[desafiante] > this.pesos[vencedor]) {
+				vencedor = desafiante;
+			}
+		}
+
+		return vencedor;
+	}
+
+}
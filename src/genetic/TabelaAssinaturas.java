@@ -0,0 +1,82 @@
+package genetic;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de endereçamento aberto de assinatura de rota para posição na lista,
+ * sem objetos por entrada. Cada thread reaproveita a sua entre chamadas, de
+ * forma que a remoção de clones não aloca nada em regime.
+ *
+ */
+
+class TabelaAssinaturas {
+
+	private static final ThreadLocal<TabelaAssinaturas> tabela = new ThreadLocal<TabelaAssinaturas>() {
+		@Override
+		protected TabelaAssinaturas initialValue() {
+			return new TabelaAssinaturas();
+		}
+	};
+
+	private long[] chaves = new long[0];
+	private int[] valores = new int[0];
+	private int mascara;
+
+	/**
+	 * Retorna a tabela da thread atual, vazia e com espaço para a quantidade
+	 * de entradas
+	 *
+	 * @param quantidade
+	 * @return TabelaAssinaturas
+	 */
+
+	static TabelaAssinaturas prepara(int quantidade) {
+		TabelaAssinaturas atual = tabela.get();
+		int capacidade = Integer.highestOneBit(Math.max(2, 2 * quantidade) - 1) << 1;
+		if (atual.valores.length < capacidade) {
+			atual.chaves = new long[capacidade];
+			atual.valores = new int[capacidade];
+		}
+		Arrays.fill(atual.valores, 0, capacidade, -1);
+		atual.mascara = capacidade - 1;
+		return atual;
+	}
+
+	/**
+	 * Retorna o valor da chave, ou -1 se ela não estiver na tabela
+	 *
+	 * @param chave
+	 * @return valor
+	 */
+
+	int busca(long chave) {
+		for (int i = posicao(chave);; i = (i + 1) & this.mascara) {
+			if (this.valores[i] < 0 || this.chaves[i] == chave) {
+				return this.valores[i];
+			}
+		}
+	}
+
+	/**
+	 * Insere a chave, que não pode estar na tabela
+	 *
+	 * @param chave
+	 * @param valor
+	 *            Valor não negativo
+	 */
+
+	void insere(long chave, int valor) {
+		int i = posicao(chave);
+		while (this.valores[i] >= 0) {
+			i = (i + 1) & this.mascara;
+		}
+		this.chaves[i] = chave;
+		this.valores[i] = valor;
+	}
+
+	private int posicao(long chave) {
+		// As assinaturas já são embaralhadas; basta dobrar os 64 bits
+		return (int) (chave ^ (chave >>> 32)) & this.mascara;
+	}
+
+}
@@ -1,20 +1,16 @@
 package genetic;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Random;
+import java.util.SplittableRandom;
 import gude.Graph;
-import gude.Vertex;
 
 public class Virus {
 
 	private Graph g;
-	private Double rank;
-	private Integer infectabilidade;
-	private Vertex[] subRota;
+	private double rank;
+	private int infectabilidade;
+	private int[] subRota;
 
-	private final Integer infectabilidadeDefault = 5;
+	private final int infectabilidadeDefault = 5;
 
 	public Virus(Graph g) {
 		this.infectabilidade = this.infectabilidadeDefault;
@@ -29,30 +25,45 @@ public class Virus {
 		this.g = g;
 	}
 
-	public Vertex[] getSubRota() {
+	public int[] getSubRota() {
 		return this.subRota;
 	}
 
-	public void setSubRota(Vertex[] subRota) {
+	public void setSubRota(int[] subRota) {
 		this.subRota = subRota;
 	}
 
-	public Integer getInfectabilidade() {
+	public int getInfectabilidade() {
 		return infectabilidade;
 	}
 
-	public void setInfectabilidade(Integer infectabilidade) {
+	public void setInfectabilidade(int infectabilidade) {
 		this.infectabilidade = infectabilidade;
 	}
 
-	public Double getRank() {
+	public double getRank() {
 		return rank;
 	}
 
-	public void setRank(Double rank) {
+	public void setRank(double rank) {
 		this.rank = rank;
 	}
 
+	/**
+	 * Cria uma cópia do vírus, com sua própria subrota e a mesma
+	 * infectabilidade
+	 * 
+	 * @return Virus
+	 */
+
+	public Virus copia() {
+		Virus copia = new Virus(this.g);
+		copia.subRota = this.subRota.clone();
+		copia.infectabilidade = this.infectabilidade;
+		copia.rank = this.rank;
+		return copia;
+	}
+
 	/**
 	 * Gera um range válido para inserção do vírus
 	 * 
@@ -60,33 +71,20 @@ public class Virus {
 	 * @return range[2]
 	 */
 
-	public Integer[] geraRange(Integer tamCromossomo) {
-
-		Integer rand1 = 0;
-		Integer rand2 = 0;
-		Integer validaRand = 0;
-		Integer[] range = new Integer[2];
-		Random gerador = new Random();
-
-		do {
-			rand1 = gerador.nextInt(tamCromossomo);
-			rand2 = gerador.nextInt(tamCromossomo);
-			validaRand = Math.abs(rand2 - rand1);
-			if (validaRand == 0) {
-				continue;
-			}
-		} while (validaRand != this.subRota.length);
-
-		if (rand2 > rand1) {
-			range[0] = rand1;
-			range[1] = rand2;
-		} else {
-			range[0] = rand2;
-			range[1] = rand1;
-		}
+	public int[] geraRange(int tamCromossomo) {
+		return this.geraRange(tamCromossomo, Aleatorio.atual());
+	}
 
-		return range;
+	/**
+	 * Gera um range válido para inserção do vírus, usando o gerador informado
+	 * 
+	 * @param tamCromossomo
+	 * @param gerador
+	 * @return range[2]
+	 */
 
+	public int[] geraRange(int tamCromossomo, SplittableRandom gerador) {
+		return Intervalo.sorteia(tamCromossomo, this.subRota.length, gerador);
 	}
 
 	/**
@@ -96,64 +94,92 @@ public class Virus {
 	 */
 
 	public void transducao(Cromossomo cromossomo) {
-		Integer[] range = this.geraRange(cromossomo.getRota().length);
-		Integer aux = 0;
+		this.transducao(cromossomo, Aleatorio.atual());
+	}
 
-		for (Integer i = range[0]; i < range[1]; i++) {
-			this.subRota[aux] = cromossomo.getRota()[i];
-		}
+	/**
+	 * Copia uma nova rota para o vírus, sorteada com o gerador informado, e
+	 * seta sua infectabilidade para default
+	 * 
+	 * @param cromossomo
+	 * @param gerador
+	 */
+
+	public void transducao(Cromossomo cromossomo, SplittableRandom gerador) {
+		int inicio = Intervalo.sorteiaInicio(cromossomo.getRota().length, this.subRota.length, gerador);
+		System.arraycopy(cromossomo.getRota(), inicio, this.subRota, 0, this.subRota.length);
 
 		this.setInfectabilidade(this.infectabilidadeDefault);
 	}
 
 	/**
-	 * Recebe o cromossomo e o infecta
+	 * Recebe o cromossomo e gera um novo cromossomo infectado
 	 * 
 	 * @param cromossomo
 	 * @return Cromossomo
 	 */
 
 	public Cromossomo infecta(Cromossomo cromossomo) {
-		Integer[] range = this.geraRange(cromossomo.getRota().length);
-
-		ArrayList<Vertex> oldRota = new ArrayList(Arrays.asList(cromossomo.getRota()));
-		ArrayList<Vertex> rotaInfectada = new ArrayList();
-		// inicializa com null senao o size do ArrayList sera 0
-		for (int i = 0; i < oldRota.size(); i++) {
-			rotaInfectada.add(null);
-		}
+		Cromossomo infectado = this.geraInfectado(cromossomo, Aleatorio.atual());
+		this.atualizaInfectabilidade(cromossomo, infectado);
+		return infectado;
+	}
 
-		ArrayList<Vertex> subRota_ = new ArrayList(Arrays.asList(this.subRota));
-		Double fitnessVelho = cromossomo.getFitness();
-		Integer aux = 0;
+	/**
+	 * Gera o cromossomo infectado sem alterar o vírus, o que permite infectar
+	 * vários cromossomos ao mesmo tempo com a mesma subrota
+	 * 
+	 * @param cromossomo
+	 * @param gerador
+	 * @return Cromossomo
+	 */
 
-		// Copia o vírus como uma subrota
-		for (Integer i = range[0]; i < range[1]; i++) {
-			rotaInfectada.set(i, subRota_.get(aux));
-			aux++;
-		}
+	public Cromossomo geraInfectado(Cromossomo cromossomo, SplittableRandom gerador) {
+		int[] range = this.geraRange(cromossomo.getRota().length, gerador);
+		int[] rotaInfectada = ReservaRotas.obtem(cromossomo.getRota().length);
 
 		/*
-		 * Copia o resto da rota, respeitando as posições do vírus e sem
-		 * repetições
+		 * Copia o vírus como uma subrota e o resto da rota sem repetições. O
+		 * range é reaproveitado para receber o trecho alterado da rota
 		 */
-		int primeiraPosicaoNula = 0;
-		for (Vertex candidato : oldRota) {
-			if (!rotaInfectada.contains(candidato)) {
-				primeiraPosicaoNula = rotaInfectada.indexOf(null);
-				rotaInfectada.add(primeiraPosicaoNula, candidato);
-			}
-		}
+		Infeccao.infecta(cromossomo.getRota(), this.subRota, range[0], rotaInfectada, range);
 
-		// Remove possíveis posições nulas
-		rotaInfectada.removeAll(Collections.singleton(null));
-		cromossomo.setRota(rotaInfectada.toArray(new Vertex[rotaInfectada.size()]));
+		// Só as arestas do trecho alterado precisam ser recalculadas
+		Cromossomo infectado = new Cromossomo(this.g);
+		infectado.setRota(rotaInfectada, cromossomo, range[0], range[1]);
 
-		/*
-		 * Atualiza a infectabilidade do vírus de acordo com o fitness do
-		 * cromossomo infectado
-		 */
-		if (fitnessVelho > cromossomo.getFitness()) {
+		return infectado;
+	}
+
+	/**
+	 * Atualiza a infectabilidade do vírus de acordo com o fitness do
+	 * cromossomo infectado
+	 * 
+	 * @param cromossomo
+	 *            Cromossomo antes da infecção
+	 * @param infectado
+	 *            Cromossomo gerado pela infecção
+	 * @return true se houve transdução, ou seja, se a subrota mudou
+	 */
+
+	public boolean atualizaInfectabilidade(Cromossomo cromossomo, Cromossomo infectado) {
+		return this.atualizaInfectabilidade(cromossomo, infectado, Aleatorio.atual());
+	}
+
+	/**
+	 * Atualiza a infectabilidade do vírus de acordo com o fitness do
+	 * cromossomo infectado, sorteando a transdução com o gerador informado
+	 * 
+	 * @param cromossomo
+	 *            Cromossomo antes da infecção
+	 * @param infectado
+	 *            Cromossomo gerado pela infecção
+	 * @param gerador
+	 * @return true se houve transdução, ou seja, se a subrota mudou
+	 */
+
+	public boolean atualizaInfectabilidade(Cromossomo cromossomo, Cromossomo infectado, SplittableRandom gerador) {
+		if (cromossomo.getFitness() > infectado.getFitness()) {
 			this.infectabilidade++;
 		} else {
 			this.infectabilidade--;
@@ -165,10 +191,11 @@ public class Virus {
 		 * e seta sua infectabilidade para default novamente
 		 */
 		if (this.infectabilidade == 0) {
-			this.transducao(cromossomo);
+			this.transducao(infectado, gerador);
+			return true;
 		}
 
-		return cromossomo;
+		return false;
 	}
 
 }
@@ -0,0 +1,534 @@
+package gude;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binário de Graph.saveFile e Graph.loadFile.
+ *
+ * <p>
+ * O arquivo guarda só valores primitivos: os ids e as cores dos vértices, as
+ * arestas como (id, alpha, omega, distância) e as sementes dos ids, e termina
+ * com o CRC32 de todo o conteúdo anterior. A leitura recria os vértices e as
+ * arestas com os mesmos ids, sem recursão, e recusa arquivos truncados,
+ * corrompidos ou de outra versão. Os valores são big-endian e passam por um
+ * buffer de 64 KB, então o grafo não precisa caber em um único vetor.
+ * </p>
+ *
+ * <pre>
+ * int    marca ("GVGB")
+ * int    versão
+ * int    flags: bit 0 = matriz de distâncias montada das arestas,
+ *               bit 1 = matriz de distâncias gravada no arquivo
+ * int    último id de vértice gerado
+ * int    último id de aresta gerado
+ * int    n
+ * int    m
+ * n x    int id, int cor                        (na ordem dos ids)
+ * m x    int id, int alpha, int omega, double distância (NaN = sem distância)
+ * [bit 1] double matriz completa, linha por linha (n * n)
+ * long   CRC32 de tudo o que vem antes
+ * </pre>
+ *
+ * <p>
+ * A matriz só é gravada quando o grafo tem distâncias mas não tem arestas
+ * (lido com loadXMLStream, loadMatrix ou loadTSPLIB); com arestas, ela é
+ * remontada por buildDistanceMatrix.
+ * </p>
+ *
+ * @see Graph#saveFile(Graph, String)
+ * @see Graph#loadFile(String)
+ */
+class ArquivoGrafo {
+
+	static final int MARCA = 0x47564742;
+	static final int VERSAO = 1;
+	static final int FLAG_MATRIZ_ARESTAS = 1;
+	static final int FLAG_MATRIZ_GRAVADA = 2;
+
+	private static final int TAM_CABECALHO = 7 * 4;
+	private static final int TAM_VERTICE = 4 + 4;
+	private static final int TAM_ARESTA = 4 + 4 + 4 + 8;
+	private static final int TAM_BUFFER = 1 << 16;
+
+	private ArquivoGrafo() {
+
+	}
+
+	/**
+	 * Testa se o arquivo começa com a marca do formato.
+	 *
+	 * @param arquivo
+	 * @return true se for um arquivo deste formato.
+	 * @throws IOException
+	 */
+	static boolean reconhece(File arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer marca = ByteBuffer.allocate(4);
+			while (marca.hasRemaining()) {
+				if (canal.read(marca) < 0) {
+					return false;
+				}
+			}
+			marca.flip();
+			return marca.getInt() == MARCA;
+		}
+	}
+
+	/**
+	 * Grava o grafo. O arquivo é escrito em um temporário e movido para o
+	 * lugar, para que um arquivo anterior nunca fique pela metade.
+	 *
+	 * @param g
+	 * @param arquivo
+	 * @throws IOException
+	 */
+	static void escreve(Graph g, File arquivo) throws IOException {
+		Distancias distancias = g.getDistancias();
+		int n = g.getNumVertex();
+		int m = g.getNumEdge();
+		int flags = 0;
+		if (distancias != null) {
+			flags = (m > 0) ? FLAG_MATRIZ_ARESTAS : FLAG_MATRIZ_GRAVADA;
+		}
+
+		Path destino = arquivo.toPath().toAbsolutePath();
+		Path temporario = Files.createTempFile(destino.getParent(), arquivo.getName(), ".tmp");
+		try {
+			try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+				Escritor saida = new Escritor(canal);
+				saida.putInt(MARCA);
+				saida.putInt(VERSAO);
+				saida.putInt(flags);
+				saida.putInt(g.ultimoIdVertex());
+				saida.putInt(g.ultimoIdEdge());
+				saida.putInt(n);
+				saida.putInt(m);
+
+				for (Vertex v : g.getVertexTree().values()) {
+					saida.putInt(v.getId());
+					saida.putInt(v.getColor());
+				}
+				for (Edge a : g.getEdgeTree().values()) {
+					saida.putInt(a.getId());
+					saida.putInt(a.getAlpha().getId());
+					saida.putInt(a.getOmega().getId());
+					saida.putDouble((a.getDistancia() == null) ? Double.NaN : a.getDistancia());
+				}
+				if ((flags & FLAG_MATRIZ_GRAVADA) != 0) {
+					for (int i = 0; i < n; i++) {
+						for (int j = 0; j < n; j++) {
+							saida.putDouble(distancias.distancia(i, j));
+						}
+					}
+				}
+				saida.termina();
+			}
+			try {
+				Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temporario = null;
+		} finally {
+			if (temporario != null) {
+				Files.deleteIfExists(temporario);
+			}
+		}
+	}
+
+	/**
+	 * Lê o grafo.
+	 *
+	 * @param arquivo
+	 * @return o grafo lido.
+	 * @throws IOException
+	 *             se o arquivo não existir, não estiver no formato, estiver
+	 *             truncado ou o CRC não conferir.
+	 */
+	static Graph le(File arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+			Leitor entrada = new Leitor(canal);
+			if (entrada.getInt() != MARCA) {
+				throw new IOException("Não é um arquivo de grafo: " + arquivo);
+			}
+			int versao = entrada.getInt();
+			if (versao != VERSAO) {
+				throw new IOException("Versão " + versao + " do arquivo de grafo não suportada: " + arquivo);
+			}
+			int flags = entrada.getInt();
+			int ultimoIdVertex = entrada.getInt();
+			int ultimoIdEdge = entrada.getInt();
+			int n = entrada.getInt();
+			int m = entrada.getInt();
+
+			boolean matrizGravada = (flags & FLAG_MATRIZ_GRAVADA) != 0;
+			long tamanho = TAM_CABECALHO + (long) TAM_VERTICE * n + (long) TAM_ARESTA * m + 8;
+			if (matrizGravada) {
+				tamanho += 8L * n * n;
+			}
+			if (n < 0 || m < 0 || canal.size() != tamanho || (matrizGravada && (long) n * n > Integer.MAX_VALUE)) {
+				throw new IOException("Tamanho do arquivo não corresponde ao cabeçalho: " + arquivo);
+			}
+
+			Graph g = new Graph();
+			Vertex[] vertices = new Vertex[n];
+			int[] idsVertices = new int[n];
+			boolean emOrdem = true;
+			for (int i = 0; i < n; i++) {
+				int id = entrada.getInt();
+				if (g.idVertexExists(id)) {
+					throw new IOException("Vértice " + id + " repetido: " + arquivo);
+				}
+				vertices[i] = g.criaVertice(id);
+				vertices[i].setColor(entrada.getInt());
+				idsVertices[i] = id;
+				emOrdem &= (i == 0 || id > idsVertices[i - 1]);
+			}
+
+			Arestas arestas = new Arestas(m);
+			for (int a = 0; a < m; a++) {
+				arestas.ids[a] = entrada.getInt();
+				arestas.alphas[a] = entrada.getInt();
+				arestas.omegas[a] = entrada.getInt();
+				arestas.distancias[a] = entrada.getDouble();
+				emOrdem &= (a == 0 || arestas.ids[a] > arestas.ids[a - 1]);
+			}
+			double[] matriz = null;
+			if (matrizGravada) {
+				matriz = new double[n * n];
+				for (int i = 0; i < matriz.length; i++) {
+					matriz[i] = entrada.getDouble();
+				}
+			}
+			entrada.confereCRC(arquivo);
+
+			if (emOrdem) {
+				arestas.criaEmOrdem(g, vertices, idsVertices, arquivo);
+			} else {
+				arestas.criaUmaAUma(g, arquivo);
+			}
+			g.defineUltimosIds(ultimoIdVertex, ultimoIdEdge);
+			if (matriz != null) {
+				g.indexaVertices();
+				g.setDistancias(new MatrizDistancias(n, matriz));
+			} else if ((flags & FLAG_MATRIZ_ARESTAS) != 0) {
+				g.buildDistanceMatrix();
+			}
+			return g;
+		}
+	}
+
+	/**
+	 * Escrita bufferizada que acumula o CRC32 do que passa por ela
+	 */
+	private static final class Escritor {
+		private final FileChannel canal;
+		private final ByteBuffer buffer = ByteBuffer.allocate(TAM_BUFFER);
+		private final CRC32 crc = new CRC32();
+
+		Escritor(FileChannel canal) {
+			this.canal = canal;
+		}
+
+		void putInt(int valor) throws IOException {
+			garanteEspaco(4);
+			buffer.putInt(valor);
+		}
+
+		void putDouble(double valor) throws IOException {
+			garanteEspaco(8);
+			buffer.putDouble(valor);
+		}
+
+		/**
+		 * Descarrega o buffer e grava o CRC, que não entra na conta.
+		 */
+		void termina() throws IOException {
+			descarrega();
+			buffer.putLong(crc.getValue());
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				canal.write(buffer);
+			}
+		}
+
+		private void garanteEspaco(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				descarrega();
+			}
+		}
+
+		private void descarrega() throws IOException {
+			buffer.flip();
+			crc.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				canal.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Arestas lidas do arquivo, ainda como valores primitivos
+	 */
+	private static final class Arestas {
+		final int[] ids;
+		final int[] alphas;
+		final int[] omegas;
+		final double[] distancias;
+
+		Arestas(int m) {
+			ids = new int[m];
+			alphas = new int[m];
+			omegas = new int[m];
+			distancias = new double[m];
+		}
+
+		/**
+		 * Cria as arestas pelos métodos normais do grafo, conferindo cada
+		 * uma; usado quando os ids do arquivo não estão em ordem.
+		 */
+		void criaUmaAUma(Graph g, File arquivo) throws IOException {
+			for (int a = 0; a < ids.length; a++) {
+				if (g.idEdgeExists(ids[a]) || g.criaAresta(ids[a], alphas[a], omegas[a], distancia(a)) == null) {
+					throw new IOException("Aresta " + ids[a] + " repetida ou com vértices inexistentes: " + arquivo);
+				}
+			}
+		}
+
+		/**
+		 * Cria as arestas de ids e vértices em ordem crescente, como saveFile
+		 * grava. As coleções do grafo e de cada vértice são montadas de uma
+		 * vez a partir de vetores já ordenados, em tempo linear (construtor
+		 * TreeMap(SortedMap)), em vez de uma inserção O(log m) por aresta em
+		 * cada uma delas.
+		 */
+		void criaEmOrdem(Graph g, Vertex[] vertices, int[] idsVertices, File arquivo) throws IOException {
+			int m = ids.length;
+			int n = vertices.length;
+			Edge[] criadas = new Edge[m];
+			// Cada id é convertido em Integer uma vez, e a chave é compartilhada
+			// pelas três coleções em que a aresta entra
+			Integer[] chaves = new Integer[m];
+			int[] tamanhoLista = new int[n];
+			int[] grau = new int[n];
+			for (int a = 0; a < m; a++) {
+				int i = Arrays.binarySearch(idsVertices, alphas[a]);
+				int j = Arrays.binarySearch(idsVertices, omegas[a]);
+				if (i < 0 || j < 0) {
+					throw new IOException("Aresta " + ids[a] + " com vértices inexistentes: " + arquivo);
+				}
+				criadas[a] = new Edge(ids[a], vertices[i], vertices[j], distancia(a), g);
+				chaves[a] = ids[a];
+				// Daqui em diante alphas e omegas guardam as posições dos vértices
+				alphas[a] = i;
+				omegas[a] = j;
+				grau[i]++;
+				grau[j]++;
+				tamanhoLista[i]++;
+				if (j != i) {
+					tamanhoLista[j]++;
+				}
+			}
+
+			// Arestas de cada vértice em [inicio[v], inicio[v + 1]), na ordem
+			// dos ids
+			int[] inicio = new int[n + 1];
+			for (int v = 0; v < n; v++) {
+				inicio[v + 1] = inicio[v] + tamanhoLista[v];
+			}
+			Edge[] porVertice = new Edge[inicio[n]];
+			Integer[] chavesPorVertice = new Integer[inicio[n]];
+			int[] cursor = Arrays.copyOf(inicio, n);
+			for (int a = 0; a < m; a++) {
+				chavesPorVertice[cursor[alphas[a]]] = chaves[a];
+				porVertice[cursor[alphas[a]]++] = criadas[a];
+				if (omegas[a] != alphas[a]) {
+					chavesPorVertice[cursor[omegas[a]]] = chaves[a];
+					porVertice[cursor[omegas[a]]++] = criadas[a];
+				}
+			}
+
+			for (int v = 0; v < n; v++) {
+				vertices[v].setEdgeList(new TreeMap<Integer, Edge>(
+						new Ordenadas(chavesPorVertice, porVertice, inicio[v], inicio[v + 1])));
+				vertices[v].setDegree(grau[v]);
+			}
+			g.setEdgeTree(new TreeMap<Integer, Edge>(new Ordenadas(chaves, criadas, 0, m)));
+		}
+
+		private Double distancia(int a) {
+			return Double.isNaN(distancias[a]) ? null : distancias[a];
+		}
+	}
+
+	/**
+	 * Vista somente leitura de um trecho de vetores de ids e de arestas, em
+	 * ordem crescente de id, como mapa ordenado, só para montar uma TreeMap
+	 */
+	private static final class Ordenadas extends AbstractMap<Integer, Edge> implements SortedMap<Integer, Edge> {
+		private final Integer[] chaves;
+		private final Edge[] arestas;
+		private final int inicio;
+		private final int fim;
+
+		Ordenadas(Integer[] chaves, Edge[] arestas, int inicio, int fim) {
+			this.chaves = chaves;
+			this.arestas = arestas;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		public int size() {
+			return fim - inicio;
+		}
+
+		@Override
+		public Set<Entry<Integer, Edge>> entrySet() {
+			return new AbstractSet<Entry<Integer, Edge>>() {
+				@Override
+				public int size() {
+					return fim - inicio;
+				}
+
+				@Override
+				public Iterator<Entry<Integer, Edge>> iterator() {
+					return new Iterator<Entry<Integer, Edge>>() {
+						private int proxima = inicio;
+
+						@Override
+						public boolean hasNext() {
+							return proxima < fim;
+						}
+
+						@Override
+						public Entry<Integer, Edge> next() {
+							if (proxima >= fim) {
+								throw new NoSuchElementException();
+							}
+							int atual = proxima++;
+							return new SimpleImmutableEntry<Integer, Edge>(chaves[atual], arestas[atual]);
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		public Comparator<? super Integer> comparator() {
+			return null;
+		}
+
+		@Override
+		public Integer firstKey() {
+			if (inicio == fim) {
+				throw new NoSuchElementException();
+			}
+			return chaves[inicio];
+		}
+
+		@Override
+		public Integer lastKey() {
+			if (inicio == fim) {
+				throw new NoSuchElementException();
+			}
+			return chaves[fim - 1];
+		}
+
+		@Override
+		public SortedMap<Integer, Edge> subMap(Integer de, Integer ate) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedMap<Integer, Edge> headMap(Integer ate) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedMap<Integer, Edge> tailMap(Integer de) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Leitura bufferizada que acumula o CRC32 do que já foi consumido
+	 */
+	private static final class Leitor {
+		private final FileChannel canal;
+		private final ByteBuffer buffer = ByteBuffer.allocate(TAM_BUFFER);
+		private final CRC32 crc = new CRC32();
+		/** Início dos bytes consumidos que ainda não entraram no CRC */
+		private int somados;
+
+		Leitor(FileChannel canal) {
+			this.canal = canal;
+			buffer.limit(0);
+		}
+
+		int getInt() throws IOException {
+			garante(4);
+			return buffer.getInt();
+		}
+
+		double getDouble() throws IOException {
+			garante(8);
+			return buffer.getDouble();
+		}
+
+		/**
+		 * Lê o CRC gravado no fim e o compara com o dos bytes consumidos.
+		 */
+		void confereCRC(File arquivo) throws IOException {
+			garante(8);
+			soma();
+			if (buffer.getLong() != crc.getValue()) {
+				throw new IOException("CRC não confere, arquivo corrompido: " + arquivo);
+			}
+		}
+
+		private void garante(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes) {
+				return;
+			}
+			soma();
+			buffer.compact();
+			while (buffer.position() < bytes) {
+				if (canal.read(buffer) < 0) {
+					throw new EOFException("Arquivo de grafo truncado");
+				}
+			}
+			buffer.flip();
+			somados = 0;
+		}
+
+		private void soma() {
+			ByteBuffer consumidos = buffer.duplicate();
+			consumidos.limit(buffer.position());
+			consumidos.position(somados);
+			crc.update(consumidos);
+			somados = buffer.position();
+		}
+	}
+
+}
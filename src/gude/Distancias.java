@@ -0,0 +1,37 @@
+package gude;
+
+import java.io.Serializable;
+
+/**
+ * Fonte das distâncias entre os vértices de um grafo, indexada pela posição
+ * dos vértices (ver {@link Graph#indexOf(int)}).
+ *
+ * <p>
+ * As implementações são somente leitura depois de criadas e podem ser lidas
+ * por várias threads ao mesmo tempo.
+ * </p>
+ *
+ * @see MatrizDistancias
+ * @see MatrizMapeada
+ */
+public interface Distancias extends Serializable {
+
+	/**
+	 * Retorna o número de vértices.
+	 *
+	 * @return número de vértices.
+	 */
+	int tamanho();
+
+	/**
+	 * Retorna a distância entre dois vértices.
+	 *
+	 * @param i
+	 *            índice do primeiro vértice.
+	 * @param j
+	 *            índice do segundo vértice.
+	 * @return distância entre os vértices, ou infinito se não houver aresta.
+	 */
+	double distancia(int i, int j);
+
+}
@@ -0,0 +1,127 @@
+package gude;
+
+/**
+ * Distâncias calculadas sob demanda a partir das coordenadas dos vértices, com
+ * as funções de distância da TSPLIB.
+ *
+ * <p>
+ * Só as coordenadas ficam em memória, então o espaço é O(n) e instâncias com
+ * dezenas de milhares de cidades cabem sem montar a matriz. Como na TSPLIB, as
+ * distâncias são inteiras.
+ * </p>
+ *
+ * @see LeitorTSPLIB
+ */
+public class DistanciasCoordenadas implements Distancias {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Raio da Terra usado pela distância GEO da TSPLIB, em km. */
+	private static final double RAIO_TERRA = 6378.388;
+	/** Valor de pi usado pela TSPLIB na conversão das coordenadas GEO. */
+	private static final double PI = 3.141592;
+
+	/**
+	 * Funções de distância da TSPLIB para coordenadas
+	 */
+	public enum Tipo {
+		/** Euclidiana arredondada para o inteiro mais próximo */
+		EUC_2D,
+		/** Euclidiana arredondada para cima */
+		CEIL_2D,
+		/** Pseudo-euclidiana das instâncias att */
+		ATT,
+		/** Geográfica: coordenadas em graus.minutos, distância em km */
+		GEO
+	}
+
+	private final Tipo tipo;
+	private final double[] x;
+	private final double[] y;
+
+	/**
+	 * Cria as distâncias a partir das coordenadas. Para GEO, as coordenadas
+	 * são convertidas uma vez para latitude e longitude em radianos.
+	 *
+	 * @param tipo
+	 * @param x
+	 *            coordenada x (ou latitude) de cada vértice, por índice.
+	 * @param y
+	 *            coordenada y (ou longitude) de cada vértice, por índice.
+	 */
+	public DistanciasCoordenadas(Tipo tipo, double[] x, double[] y) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("Coordenadas com tamanhos diferentes: " + x.length + " e " + y.length);
+		}
+		this.tipo = tipo;
+		if (tipo == Tipo.GEO) {
+			this.x = new double[x.length];
+			this.y = new double[y.length];
+			for (int i = 0; i < x.length; i++) {
+				this.x[i] = radianos(x[i]);
+				this.y[i] = radianos(y[i]);
+			}
+		} else {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	@Override
+	public int tamanho() {
+		return x.length;
+	}
+
+	@Override
+	public double distancia(int i, int j) {
+		if (i == j) {
+			return 0.0;
+		}
+		double dx = x[i] - x[j];
+		double dy = y[i] - y[j];
+
+		switch (tipo) {
+		case EUC_2D:
+			return nint(Math.sqrt(dx * dx + dy * dy));
+		case CEIL_2D:
+			return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+		case ATT:
+			double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+			double t = nint(r);
+			return (t < r) ? t + 1.0 : t;
+		default:
+			double q1 = Math.cos(y[i] - y[j]);
+			double q2 = Math.cos(x[i] - x[j]);
+			double q3 = Math.cos(x[i] + x[j]);
+			return (int) (RAIO_TERRA * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+		}
+	}
+
+	/**
+	 * Converte uma coordenada GEO (graus.minutos) para radianos, como na
+	 * TSPLIB.
+	 *
+	 * @param coordenada
+	 * @return radianos.
+	 */
+	private static double radianos(double coordenada) {
+		int graus = (int) coordenada;
+		double minutos = coordenada - graus;
+		return PI * (graus + 5.0 * minutos / 3.0) / 180.0;
+	}
+
+	/**
+	 * Arredonda para o inteiro mais próximo, como a função nint da TSPLIB.
+	 *
+	 * @param valor
+	 * @return valor arredondado.
+	 */
+	private static double nint(double valor) {
+		return Math.floor(valor + 0.5);
+	}
+
+}
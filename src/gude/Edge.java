@@ -60,6 +60,28 @@ public class Edge implements Serializable {
 		graph.getVertex(omega).insertEdgeInList(this);
 	}
 
+	/**
+	 * Construtor que não insere a aresta nas coleções do grafo e dos
+	 * vértices; quem chama monta as coleções de uma vez.<br>
+	 * (uso interno, chamado na leitura de ArquivoGrafo)
+	 *
+	 * @param id
+	 *            id da aresta
+	 * @param alpha
+	 *            vértice de partida da aresta
+	 * @param omega
+	 *            vértice de chegada da aresta
+	 * @param graph
+	 *            grafo que contém a aresta.
+	 */
+	Edge(int id, Vertex alpha, Vertex omega, Double distancia, Graph graph) {
+		this.grafo = graph;
+		this.id = id;
+		this.alpha = alpha;
+		this.omega = omega;
+		this.distancia = distancia;
+	}
+
 	/**
 	 * Destrutor chamado pela classe Graph.<br>
 	 * (uso interno)
@@ -135,6 +157,7 @@ public class Edge implements Serializable {
 
 	public void setDistancia(Double distancia) {
 		this.distancia = distancia;
+		grafo.alterado();
 	}
 
 	/**
@@ -157,6 +180,7 @@ public class Edge implements Serializable {
 	 */
 	void setAlpha(int alpha) {
 		this.alpha = grafo.getVertex(alpha);
+		grafo.alterado();
 	}
 
 	/**
@@ -181,6 +205,7 @@ public class Edge implements Serializable {
 	 */
 	void setOmega(int omega) {
 		this.omega = grafo.getVertex(omega);
+		grafo.alterado();
 	}
 
 }
@@ -0,0 +1,446 @@
+package gude;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Retrato imutável das arestas de um grafo em formato CSR (compressed sparse
+ * row), indexado pelas posições dos vértices (as mesmas de
+ * {@link Graph#indexOf(int)}).
+ *
+ * <p>
+ * Cada direção tem seus vetores: os arcos que saem do vértice i ficam nas
+ * posições [offsetsSaida[i], offsetsSaida[i + 1]) de destinos e pesosSaida,
+ * ordenados pelo destino, e os que chegam em i ficam em [offsetsEntrada[i],
+ * offsetsEntrada[i + 1]) de origens e pesosEntrada, ordenados pela origem. Os
+ * adjacentes de i, sem considerar a direção e sem repetição, ficam em
+ * [offsetsAdjacentes[i], offsetsAdjacentes[i + 1]) de adjacentes. Percorrer a
+ * estrela de um vértice é uma varredura contígua, e testar se um arco existe
+ * é uma busca binária na linha. Arestas sem distância (null) ficam com peso
+ * NaN; elas contam como arcos normalmente.
+ * </p>
+ *
+ * <p>
+ * O retrato é montado por {@link Graph#freeze()} e descartado pelo grafo
+ * quando um vértice ou uma aresta muda; alterações posteriores não aparecem
+ * nele. Grafos lidos sem objetos Edge (loadXMLStream, loadMatrix,
+ * loadTSPLIB) ficam só com os vértices; as distâncias continuam em
+ * {@link Graph#getDistancias()}.
+ * </p>
+ *
+ * @see Graph#freeze()
+ */
+public final class GrafoCompacto {
+
+	private final int n;
+	private final Vertex[] vertices;
+	private final int[] ids;
+	private final int[] idParaIndice;
+
+	private final int[] offsetsSaida;
+	private final int[] destinos;
+	private final double[] pesosSaida;
+	private final Edge[] arestasSaida;
+
+	private final int[] offsetsEntrada;
+	private final int[] origens;
+	private final double[] pesosEntrada;
+
+	private final int[] offsetsAdjacentes;
+	private final int[] adjacentes;
+
+	/**
+	 * Monta o retrato.<br>
+	 * (uso interno, chamado por Graph.freeze)
+	 *
+	 * @param vertices
+	 *            vértices na ordem de seus índices.
+	 * @param idParaIndice
+	 *            índice de cada id de vértice, ou -1.
+	 * @param arestas
+	 *            arestas do grafo.
+	 */
+	GrafoCompacto(Vertex[] vertices, int[] idParaIndice, Collection<Edge> arestas) {
+		this.n = vertices.length;
+		this.vertices = vertices.clone();
+		this.ids = new int[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = vertices[i].getId();
+		}
+		this.idParaIndice = idParaIndice.clone();
+
+		int m = arestas.size();
+		int[] alfa = new int[m];
+		int[] omega = new int[m];
+		double[] peso = new double[m];
+		Edge[] aresta = new Edge[m];
+		int a = 0;
+		for (Edge e : arestas) {
+			alfa[a] = idParaIndice[e.getAlpha().getId()];
+			omega[a] = idParaIndice[e.getOmega().getId()];
+			// Aresta sem distância: existe, mas não tem custo definido
+			peso[a] = (e.getDistancia() == null) ? Double.NaN : e.getDistancia();
+			aresta[a] = e;
+			a++;
+		}
+
+		// As arestas são distribuídas pela chegada e depois, nessa ordem,
+		// pela saída: cada linha de saída fica ordenada pelo destino
+		int[] porChegada = new int[m];
+		int[] proxima = offsets(omega, m);
+		for (a = 0; a < m; a++) {
+			porChegada[proxima[omega[a]]++] = a;
+		}
+
+		this.offsetsSaida = offsets(alfa, m);
+		this.destinos = new int[m];
+		this.pesosSaida = new double[m];
+		this.arestasSaida = new Edge[m];
+		proxima = Arrays.copyOf(offsetsSaida, n);
+		for (int i = 0; i < m; i++) {
+			a = porChegada[i];
+			int k = proxima[alfa[a]]++;
+			destinos[k] = omega[a];
+			pesosSaida[k] = peso[a];
+			arestasSaida[k] = aresta[a];
+		}
+
+		// Percorrendo as linhas de saída em ordem, cada linha de entrada fica
+		// ordenada pela origem
+		this.offsetsEntrada = offsets(omega, m);
+		this.origens = new int[m];
+		this.pesosEntrada = new double[m];
+		proxima = Arrays.copyOf(offsetsEntrada, n);
+		for (int i = 0; i < n; i++) {
+			for (int k = offsetsSaida[i]; k < offsetsSaida[i + 1]; k++) {
+				int j = proxima[destinos[k]]++;
+				origens[j] = i;
+				pesosEntrada[j] = pesosSaida[k];
+			}
+		}
+
+		// Adjacentes: intercalação das duas linhas, sem repetição
+		this.offsetsAdjacentes = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			offsetsAdjacentes[i + 1] = offsetsAdjacentes[i] + intercala(i, null, 0);
+		}
+		this.adjacentes = new int[offsetsAdjacentes[n]];
+		for (int i = 0; i < n; i++) {
+			intercala(i, adjacentes, offsetsAdjacentes[i]);
+		}
+	}
+
+	/**
+	 * Conta as arestas por vértice e devolve o início de cada linha.
+	 */
+	private int[] offsets(int[] vertice, int m) {
+		int[] inicio = new int[n + 1];
+		for (int a = 0; a < m; a++) {
+			inicio[vertice[a] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			inicio[i + 1] += inicio[i];
+		}
+		return inicio;
+	}
+
+	/**
+	 * Intercala destinos e origens do vértice, sem repetição.
+	 *
+	 * @param saida
+	 *            vetor onde os adjacentes são escritos, ou null para só
+	 *            contar.
+	 * @return número de adjacentes.
+	 */
+	private int intercala(int i, int[] saida, int posicao) {
+		int s = offsetsSaida[i];
+		int e = offsetsEntrada[i];
+		int ultimo = -1;
+		int escritos = 0;
+		while (s < offsetsSaida[i + 1] || e < offsetsEntrada[i + 1]) {
+			int v;
+			if (e == offsetsEntrada[i + 1] || (s < offsetsSaida[i + 1] && destinos[s] <= origens[e])) {
+				v = destinos[s++];
+			} else {
+				v = origens[e++];
+			}
+			if (v != ultimo) {
+				if (saida != null) {
+					saida[posicao + escritos] = v;
+				}
+				escritos++;
+				ultimo = v;
+			}
+		}
+		return escritos;
+	}
+
+	/**
+	 * Retorna o número de vértices.
+	 *
+	 * @return número de vértices.
+	 */
+	public int tamanho() {
+		return n;
+	}
+
+	/**
+	 * Retorna o número de arcos (arestas do grafo).
+	 *
+	 * @return número de arcos.
+	 */
+	public int numArcos() {
+		return destinos.length;
+	}
+
+	/**
+	 * Retorna o índice de um vértice.
+	 *
+	 * @param id
+	 *            id do vértice.
+	 * @return índice do vértice, ou -1 se ele não existir no retrato.
+	 */
+	public int indice(int id) {
+		return (id >= 0 && id < idParaIndice.length) ? idParaIndice[id] : -1;
+	}
+
+	/**
+	 * Retorna o id do vértice que ocupa um índice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return id do vértice.
+	 */
+	public int id(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Retorna o vértice que ocupa um índice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return o vértice.
+	 */
+	public Vertex vertice(int i) {
+		return vertices[i];
+	}
+
+	/**
+	 * Retorna o número de arcos que saem do vértice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return grau de saída.
+	 */
+	public int grauSaida(int i) {
+		return offsetsSaida[i + 1] - offsetsSaida[i];
+	}
+
+	/**
+	 * Retorna o número de arcos que chegam no vértice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return grau de entrada.
+	 */
+	public int grauEntrada(int i) {
+		return offsetsEntrada[i + 1] - offsetsEntrada[i];
+	}
+
+	/**
+	 * Retorna o número de vértices adjacentes, sem considerar a direção.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return número de adjacentes.
+	 */
+	public int numAdjacentes(int i) {
+		return offsetsAdjacentes[i + 1] - offsetsAdjacentes[i];
+	}
+
+	/**
+	 * Retorna o destino do r-ésimo arco que sai do vértice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @param r
+	 *            posição na linha, de 0 a grauSaida(i) - 1.
+	 * @return índice do destino.
+	 */
+	public int destino(int i, int r) {
+		return destinos[offsetsSaida[i] + r];
+	}
+
+	/**
+	 * Retorna a origem do r-ésimo arco que chega no vértice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @param r
+	 *            posição na linha, de 0 a grauEntrada(i) - 1.
+	 * @return índice da origem.
+	 */
+	public int origem(int i, int r) {
+		return origens[offsetsEntrada[i] + r];
+	}
+
+	/**
+	 * Retorna o r-ésimo adjacente do vértice.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @param r
+	 *            posição na linha, de 0 a numAdjacentes(i) - 1.
+	 * @return índice do adjacente.
+	 */
+	public int adjacente(int i, int r) {
+		return adjacentes[offsetsAdjacentes[i] + r];
+	}
+
+	/**
+	 * Busca o arco de i para j.
+	 *
+	 * @param i
+	 *            índice do vértice de partida.
+	 * @param j
+	 *            índice do vértice de chegada.
+	 * @return posição do arco em destinos, ou -1 se ele não existir.
+	 */
+	public int arco(int i, int j) {
+		int k = Arrays.binarySearch(destinos, offsetsSaida[i], offsetsSaida[i + 1], j);
+		if (k < 0) {
+			return -1;
+		}
+		// Com arestas paralelas, devolve a primeira
+		while (k > offsetsSaida[i] && destinos[k - 1] == j) {
+			k--;
+		}
+		return k;
+	}
+
+	/**
+	 * Testa se existe um arco de i para j, considerando o grafo direcionado.
+	 *
+	 * @param i
+	 *            índice do vértice de partida.
+	 * @param j
+	 *            índice do vértice de chegada.
+	 * @return true se existir.
+	 */
+	public boolean existeArco(int i, int j) {
+		return arco(i, j) >= 0;
+	}
+
+	/**
+	 * Testa se i e j são adjacentes, considerando o grafo não direcionado.
+	 *
+	 * @param i
+	 *            índice de um vértice.
+	 * @param j
+	 *            índice do outro vértice.
+	 * @return true se existir.
+	 */
+	public boolean ligados(int i, int j) {
+		return Arrays.binarySearch(adjacentes, offsetsAdjacentes[i], offsetsAdjacentes[i + 1], j) >= 0;
+	}
+
+	/**
+	 * Retorna o peso (distância) do arco de i para j.
+	 *
+	 * @param i
+	 *            índice do vértice de partida.
+	 * @param j
+	 *            índice do vértice de chegada.
+	 * @return peso do arco, NaN se ele não tiver distância, ou infinito se ele
+	 *         não existir.
+	 */
+	public double peso(int i, int j) {
+		int k = arco(i, j);
+		return (k < 0) ? Double.POSITIVE_INFINITY : pesosSaida[k];
+	}
+
+	/**
+	 * Retorna a aresta que ocupa uma posição de destinos.
+	 *
+	 * @param k
+	 *            posição do arco.
+	 * @return a aresta.
+	 * @see #arco(int, int)
+	 */
+	public Edge aresta(int k) {
+		return arestasSaida[k];
+	}
+
+	/**
+	 * Vetores das linhas de saída, para laços que percorrem os arcos sem
+	 * chamadas. Não devem ser alterados.
+	 *
+	 * @return int[n + 1].
+	 */
+	public int[] getOffsetsSaida() {
+		return offsetsSaida;
+	}
+
+	/**
+	 * @return int[numArcos()], destinos de cada linha de saída.
+	 * @see #getOffsetsSaida()
+	 */
+	public int[] getDestinos() {
+		return destinos;
+	}
+
+	/**
+	 * @return double[numArcos()], pesos de cada linha de saída (NaN = sem
+	 *         distância).
+	 * @see #getOffsetsSaida()
+	 */
+	public double[] getPesosSaida() {
+		return pesosSaida;
+	}
+
+	/**
+	 * Vetores das linhas de entrada, para laços que percorrem os arcos sem
+	 * chamadas. Não devem ser alterados.
+	 *
+	 * @return int[n + 1].
+	 */
+	public int[] getOffsetsEntrada() {
+		return offsetsEntrada;
+	}
+
+	/**
+	 * @return int[numArcos()], origens de cada linha de entrada.
+	 * @see #getOffsetsEntrada()
+	 */
+	public int[] getOrigens() {
+		return origens;
+	}
+
+	/**
+	 * @return double[numArcos()], pesos de cada linha de entrada (NaN = sem
+	 *         distância).
+	 * @see #getOffsetsEntrada()
+	 */
+	public double[] getPesosEntrada() {
+		return pesosEntrada;
+	}
+
+	/**
+	 * Vetores das linhas de adjacentes. Não devem ser alterados.
+	 *
+	 * @return int[n + 1].
+	 */
+	public int[] getOffsetsAdjacentes() {
+		return offsetsAdjacentes;
+	}
+
+	/**
+	 * @return adjacentes de cada linha, ordenados.
+	 * @see #getOffsetsAdjacentes()
+	 */
+	public int[] getAdjacentes() {
+		return adjacentes;
+	}
+
+}
@@ -1,24 +1,28 @@
 package gude;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.SortedMap;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
@@ -85,6 +89,33 @@ public class Graph implements Serializable {
 	 * Armazena as arestas do grafo.
 	 */
 	private TreeMap<Integer, Edge> edgeTree;
+	/**
+	 * Distâncias entre os vértices, indexadas por posição do vértice.
+	 */
+	private Distancias distancias;
+	/**
+	 * Indica que as distâncias foram montadas das arestas, e portanto podem
+	 * ser montadas de novo depois que o grafo muda.
+	 */
+	private transient boolean distanciasDasArestas;
+	/**
+	 * Listas de candidatos montadas a partir das distâncias (cache de
+	 * getVizinhos).
+	 */
+	private transient Vizinhos vizinhos;
+	/**
+	 * Vértices do grafo na ordem de seus índices na matriz de distâncias.
+	 */
+	private Vertex[] vertexIndex;
+	/**
+	 * Converte o id de um vértice em seu índice na matriz de distâncias.
+	 */
+	private int[] idParaIndice;
+	/**
+	 * Retrato CSR das arestas (cache de freeze), descartado quando o grafo
+	 * muda.
+	 */
+	private transient volatile GrafoCompacto compacto;
 
 	/**
 	 * Cria um grafo vazio, sem vértices e sem arestas.
@@ -128,6 +159,7 @@ public class Graph implements Serializable {
 	 */
 	void insertVertexInList(int id, Vertex v) {
 		getVertexTree().put(id, v);
+		alterado();
 	}
 
 	/**
@@ -141,6 +173,7 @@ public class Graph implements Serializable {
 	 */
 	void insertEdgeInList(int id, Edge a) {
 		getEdgeTree().put(id, a);
+		alterado();
 	}
 
 	/**
@@ -152,6 +185,7 @@ public class Graph implements Serializable {
 	 */
 	void removeVertexFromList(int id) {
 		getVertexTree().remove(id);
+		alterado();
 	}
 
 	/**
@@ -163,6 +197,23 @@ public class Graph implements Serializable {
 	 */
 	void removeEdgeFromList(int id) {
 		getEdgeTree().remove(id);
+		alterado();
+	}
+
+	/**
+	 * Descarta tudo o que foi montado a partir dos vértices e das arestas e
+	 * deixou de corresponder a eles: o retrato, a matriz de distâncias, as
+	 * listas de vizinhos e o índice dos vértices. O índice é refeito no
+	 * próximo acesso, e a matriz também, se tiver sido montada das arestas.
+	 * <br>
+	 * (uso interno, chamado quando um vértice ou uma aresta muda)
+	 */
+	void alterado() {
+		compacto = null;
+		distancias = null;
+		vizinhos = null;
+		vertexIndex = null;
+		idParaIndice = null;
 	}
 
 	/**
@@ -214,6 +265,58 @@ public class Graph implements Serializable {
 			return null;
 	}
 
+	/**
+	 * Cria um vértice com um id definido.<br>
+	 * (uso interno, chamado na leitura de ArquivoGrafo)
+	 *
+	 * @param id
+	 *            id do vértice.
+	 * @return o vértice criado.
+	 */
+	Vertex criaVertice(int id) {
+		idControlVertex.setSemente(id - 1);
+		return new Vertex(this);
+	}
+
+	/**
+	 * Cria uma aresta com um id definido.<br>
+	 * (uso interno, chamado na leitura de ArquivoGrafo)
+	 *
+	 * @return a aresta criada, ou null se um dos vértices não existir.
+	 */
+	Edge criaAresta(int id, int alpha, int omega, Double distancia) {
+		if (!idVertexExists(alpha) || !idVertexExists(omega))
+			return null;
+		idControlEdge.setSemente(id - 1);
+		return new Edge(alpha, omega, distancia, this);
+	}
+
+	/**
+	 * Retorna o último id de vértice gerado.<br>
+	 * (uso interno)
+	 */
+	int ultimoIdVertex() {
+		return idControlVertex.inteiro;
+	}
+
+	/**
+	 * Retorna o último id de aresta gerado.<br>
+	 * (uso interno)
+	 */
+	int ultimoIdEdge() {
+		return idControlEdge.inteiro;
+	}
+
+	/**
+	 * Define os últimos ids gerados, para que os próximos continuem a partir
+	 * deles.<br>
+	 * (uso interno, chamado na leitura de ArquivoGrafo)
+	 */
+	void defineUltimosIds(int vertice, int aresta) {
+		idControlVertex.setSemente(vertice);
+		idControlEdge.setSemente(aresta);
+	}
+
 	/**
 	 * Retorna o número de vértices que existem no grafo.
 	 *
@@ -235,47 +338,51 @@ public class Graph implements Serializable {
 	}
 
 	/**
-	 * Salva o grafo em arquivo, serializado.
+	 * Salva o grafo em arquivo, no formato binário de ArquivoGrafo. Falhas
+	 * são registradas no log.
 	 *
 	 * @param grafo
 	 *            grafo que será salvo.
 	 * @param nomeArq
 	 *            nome do arquivo.
 	 * @return true se operação foi concluída com sucesso, false caso contrário.
-	 * @see #saveFile(String)
+	 * @see #loadFile(String)
+	 * @see ArquivoGrafo
 	 */
 	public static boolean saveFile(Graph grafo, String nomeArq) {
-		boolean ok = true;
 		try {
-			FileOutputStream fs = new FileOutputStream(nomeArq);
-			ObjectOutputStream os = new ObjectOutputStream(fs);
-			os.writeObject(grafo);
-			os.close();
-		} catch (Exception ex) {
-			ok = false;
+			ArquivoGrafo.escreve(grafo, new File(nomeArq));
+			return true;
+		} catch (IOException | RuntimeException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, "Falha ao salvar o grafo em " + nomeArq, ex);
 		}
-		return ok;
+		return false;
 	}
 
 	/**
-	 * Carrega um grafo que foi salvo previamente, serializado.
+	 * Carrega um grafo salvo por saveFile. Arquivos gravados pela versão
+	 * antiga, com serialização Java, continuam sendo lidos. Falhas são
+	 * registradas no log.
 	 *
 	 * @param nomeArq
 	 *            nome do arquivo.
 	 * @return o grafo lido, ou null em caso de erro.
-	 * @see #loadFile(Graph,String)
+	 * @see #saveFile(Graph,String)
+	 * @see ArquivoGrafo
 	 */
 	public static Graph loadFile(String nomeArq) {
-		Graph grafo = null;
+		File arquivo = new File(nomeArq);
 		try {
-			FileInputStream fs = new FileInputStream(nomeArq);
-			ObjectInputStream os = new ObjectInputStream(fs);
-			grafo = (Graph) os.readObject();
-			os.close();
-		} catch (Exception ex) {
-			grafo = null;
+			if (ArquivoGrafo.reconhece(arquivo)) {
+				return ArquivoGrafo.le(arquivo);
+			}
+			try (ObjectInputStream os = new ObjectInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+				return (Graph) os.readObject();
+			}
+		} catch (IOException | ClassNotFoundException | RuntimeException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, "Falha ao carregar o grafo de " + nomeArq, ex);
 		}
-		return grafo;
+		return null;
 	}
 
 	/**
@@ -320,6 +427,8 @@ public class Graph implements Serializable {
 				edgeAux.setId(Integer.parseInt(idEdge));
 			}
 
+			g.buildDistanceMatrix();
+
 			return g;
 
 		} catch (JDOMException | IOException ex) {
@@ -329,6 +438,155 @@ public class Graph implements Serializable {
 		return null;
 	}
 
+	/**
+	 * Lê um xml sem montar o documento em memória, passando as arestas direto
+	 * para a matriz de distâncias. O grafo resultante tem os vértices e a
+	 * matriz, mas não tem objetos Edge; use loadXML quando as arestas forem
+	 * necessárias.
+	 * 
+	 * @param nomeArquivo
+	 * @return o grafo lido, ou null em caso de erro.
+	 * @see #loadXML(String)
+	 */
+
+	public static Graph loadXMLStream(String nomeArquivo) {
+		Graph g = new Graph();
+		double[] matriz = null;
+		int n = 0;
+
+		try (InputStream entrada = new BufferedInputStream(new FileInputStream(nomeArquivo))) {
+			XMLInputFactory fabrica = XMLInputFactory.newInstance();
+			fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			XMLStreamReader leitor = fabrica.createXMLStreamReader(entrada);
+			try {
+				while (leitor.hasNext()) {
+					if (leitor.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+
+					String elemento = leitor.getLocalName();
+					if (elemento.equals("Vertex")) {
+						if (matriz != null) {
+							throw new XMLStreamException("Vértice depois das arestas", leitor.getLocation());
+						}
+						Vertex vertexAux = g.createVertex();
+						vertexAux.setId(Integer.parseInt(leitor.getAttributeValue(null, "id")));
+					} else if (elemento.equals("Edge")) {
+						// Os vértices vêm antes das arestas: a matriz é criada
+						// na primeira aresta
+						if (matriz == null) {
+							g.indexaVertices();
+							n = g.vertexIndex.length;
+							matriz = MatrizDistancias.vazia(n);
+						}
+						String distancia = leitor.getAttributeValue(null, "distancia");
+						if (distancia == null) {
+							throw new XMLStreamException("Aresta sem distância", leitor.getLocation());
+						}
+						int alpha = g.indexOf(Integer.parseInt(leitor.getAttributeValue(null, "alpha")));
+						int omega = g.indexOf(Integer.parseInt(leitor.getAttributeValue(null, "omega")));
+						double d = Double.parseDouble(distancia);
+						matriz[alpha * n + omega] = d;
+						matriz[omega * n + alpha] = d;
+					}
+				}
+			} finally {
+				leitor.close();
+			}
+
+			if (matriz == null) {
+				g.indexaVertices();
+				n = g.vertexIndex.length;
+				matriz = MatrizDistancias.vazia(n);
+			}
+			g.setDistancias(new MatrizDistancias(n, matriz));
+
+			return g;
+
+		} catch (XMLStreamException | IOException | RuntimeException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, null, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Lê um xml usando o cache binário gravado ao lado dele. Se o cache não
+	 * existir ou não corresponder ao conteúdo atual do xml, o xml é lido com
+	 * loadXMLStream e o cache é regravado. O hash do xml só é calculado quando
+	 * o tamanho ou a data de modificação não conferem com os do cache.
+	 * 
+	 * @param nomeArquivo
+	 * @return o grafo lido, ou null em caso de erro.
+	 * @see GraphCache
+	 */
+
+	public static Graph loadXMLCached(String nomeArquivo) {
+		File xml = new File(nomeArquivo);
+		GraphCache.Origem origem;
+		try {
+			origem = GraphCache.origem(xml);
+		} catch (IOException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, null, ex);
+			return null;
+		}
+
+		File cache = GraphCache.arquivoCache(xml);
+		Graph g = GraphCache.read(cache, origem);
+		if (g == null) {
+			// O hash gravado no cache deve ser do conteúdo lido a seguir, ou
+			// de um anterior a ele; nunca de um xml modificado depois
+			try {
+				origem.hash();
+			} catch (IOException ex) {
+				Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, null, ex);
+				return null;
+			}
+			g = loadXMLStream(nomeArquivo);
+			if (g != null) {
+				GraphCache.write(g, cache, origem);
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * Abre um arquivo de matriz de distâncias (ver MatrizBinaria), mapeado em
+	 * memória. O grafo resultante tem os vértices e as distâncias, mas não tem
+	 * objetos Edge.
+	 * 
+	 * @param nomeArquivo
+	 * @return o grafo lido, ou null em caso de erro.
+	 * @see MatrizBinaria
+	 */
+
+	public static Graph loadMatrix(String nomeArquivo) {
+		try {
+			return MatrizBinaria.abre(new File(nomeArquivo));
+		} catch (IOException | RuntimeException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, null, ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Lê uma instância da TSPLIB (ver LeitorTSPLIB). Nas instâncias por
+	 * coordenadas as distâncias são calculadas sob demanda, sem matriz.
+	 * 
+	 * @param nomeArquivo
+	 * @return o grafo lido, ou null em caso de erro.
+	 * @see LeitorTSPLIB
+	 */
+
+	public static Graph loadTSPLIB(String nomeArquivo) {
+		try {
+			return LeitorTSPLIB.carrega(new File(nomeArquivo));
+		} catch (IOException | RuntimeException ex) {
+			Logger.getLogger(Graph.class.getName()).log(Level.SEVERE, null, ex);
+		}
+		return null;
+	}
+
 	public static void txt2xml(String nomeArquivo) {
 		try {
 			BufferedWriter arquivoXML = new BufferedWriter(
@@ -369,6 +627,210 @@ public class Graph implements Serializable {
 		}
 	}
 
+	/**
+	 * Monta a matriz de distâncias do grafo a partir das arestas, considerando
+	 * o grafo não direcionado. Pares sem aresta, ou ligados só por arestas sem
+	 * distância, ficam com distância infinita.
+	 * <br>
+	 * A matriz é descartada quando o grafo muda e montada de novo no próximo
+	 * acesso.
+	 */
+	public void buildDistanceMatrix() {
+		GrafoCompacto c = freeze();
+		int n = c.tamanho();
+		int[] offsets = c.getOffsetsSaida();
+		int[] destinos = c.getDestinos();
+		double[] pesos = c.getPesosSaida();
+
+		double[] matriz = MatrizDistancias.vazia(n);
+		for (int alpha = 0; alpha < n; alpha++) {
+			for (int k = offsets[alpha]; k < offsets[alpha + 1]; k++) {
+				if (Double.isNaN(pesos[k])) {
+					continue;
+				}
+				int omega = destinos[k];
+				matriz[alpha * n + omega] = pesos[k];
+				matriz[omega * n + alpha] = pesos[k];
+			}
+		}
+		distancias = new MatrizDistancias(n, matriz);
+		distanciasDasArestas = true;
+		vizinhos = null;
+	}
+
+	/**
+	 * Monta o índice dos vértices na matriz de distâncias, na ordem da coleção
+	 * de vértices.<br>
+	 * (uso interno, chamado antes de preencher a matriz de distâncias)
+	 */
+	void indexaVertices() {
+		int n = getNumVertex();
+		int maxId = 0;
+		Vertex[] vertices = new Vertex[n];
+		int i = 0;
+		for (Vertex v : getVertexTree().values()) {
+			vertices[i++] = v;
+			maxId = Math.max(maxId, v.getId());
+		}
+
+		int[] indice = new int[maxId + 1];
+		Arrays.fill(indice, -1);
+		for (i = 0; i < n; i++) {
+			indice[vertices[i].getId()] = i;
+		}
+		vertexIndex = vertices;
+		idParaIndice = indice;
+	}
+
+	/**
+	 * Define as distâncias, já indexadas pelos vértices do grafo.<br>
+	 * (uso interno, chamado pelos leitores que não criam arestas)
+	 *
+	 * @param distancias
+	 *            distâncias entre os vértices.
+	 * @see #indexaVertices()
+	 */
+	void setDistancias(Distancias distancias) {
+		if (distancias.tamanho() != vertexIndex.length) {
+			throw new IllegalArgumentException(
+					"Distâncias de " + distancias.tamanho() + " vértices para " + vertexIndex.length + " vértices");
+		}
+		this.distancias = distancias;
+		this.distanciasDasArestas = false;
+		this.vizinhos = null;
+	}
+
+	/**
+	 * Retorna as distâncias entre os vértices do grafo. Se elas foram montadas
+	 * das arestas e o grafo mudou depois disso, são montadas de novo.
+	 *
+	 * @return as distâncias, indexadas por posição do vértice, ou null se o
+	 *         grafo não tiver distâncias (nunca montadas, ou lidas de um
+	 *         arquivo sem arestas e descartadas por uma alteração).
+	 * @see #distance(int, int)
+	 */
+	public synchronized Distancias getDistancias() {
+		if (distancias == null && distanciasDasArestas) {
+			buildDistanceMatrix();
+		}
+		return distancias;
+	}
+
+	/**
+	 * Retorna as listas dos k vizinhos mais próximos de cada vértice. As
+	 * listas são montadas em paralelo na primeira chamada e guardadas até que
+	 * as distâncias mudem.
+	 *
+	 * @param k
+	 *            número de vizinhos por vértice.
+	 * @return as listas de candidatos.
+	 * @see Vizinhos
+	 */
+	public synchronized Vizinhos getVizinhos(int k) {
+		if (vizinhos == null || vizinhos.getK() != Math.min(k, getNumVertex() - 1)) {
+			vizinhos = Vizinhos.constroi(getDistancias(), k, Runtime.getRuntime().availableProcessors());
+		}
+		return vizinhos;
+	}
+
+	/**
+	 * Retorna o retrato imutável das arestas do grafo em formato CSR, com os
+	 * vértices nos mesmos índices da matriz de distâncias. O retrato é
+	 * montado na primeira chamada e guardado até que um vértice ou uma aresta
+	 * mude; enquanto ele existir, getEdge(int, int), edgeExists e linkExists
+	 * são buscas binárias nele.
+	 *
+	 * @return o retrato.
+	 * @see GrafoCompacto
+	 */
+	public synchronized GrafoCompacto freeze() {
+		if (compacto == null) {
+			indexaVertices();
+			compacto = new GrafoCompacto(vertexIndex, idParaIndice, getEdgeTree().values());
+		}
+		return compacto;
+	}
+
+	/**
+	 * Retorna a distância entre dois vértices, dados seus índices na matriz de
+	 * distâncias.
+	 *
+	 * <p>
+	 * Os índices valem enquanto o grafo não muda. Criar ou remover um vértice
+	 * ou uma aresta, ou mudar uma distância, descarta a matriz: se ela foi
+	 * montada das arestas (buildDistanceMatrix), é montada de novo no próximo
+	 * acesso, com os índices refeitos; se foi lida de um arquivo sem arestas,
+	 * deixa de existir. Em nenhum caso a matriz antiga é lida.
+	 * </p>
+	 *
+	 * @param i
+	 *            índice do primeiro vértice.
+	 * @param j
+	 *            índice do segundo vértice.
+	 * @return distância entre os vértices, ou infinito se não houver aresta.
+	 * @throws IllegalStateException
+	 *             se o grafo não tiver distâncias.
+	 * @see #buildDistanceMatrix()
+	 * @see #indexOf(int)
+	 */
+	public double distance(int i, int j) {
+		Distancias d = distancias;
+		if (d == null) {
+			d = getDistancias();
+			if (d == null) {
+				throw new IllegalStateException("Grafo sem matriz de distâncias");
+			}
+		}
+		return d.distancia(i, j);
+	}
+
+	/**
+	 * Retorna o índice de um vértice na matriz de distâncias. Os índices são
+	 * os dos vértices em ordem de id e são refeitos depois que o grafo muda;
+	 * um índice obtido antes de uma alteração não deve ser usado depois dela.
+	 *
+	 * @param id
+	 *            id do vértice.
+	 * @return índice do vértice.
+	 * @see #getVertexByIndex(int)
+	 */
+	public int indexOf(int id) {
+		return indiceAtual()[id];
+	}
+
+	/**
+	 * Retorna o vértice que ocupa um índice da matriz de distâncias.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @return o vértice.
+	 * @see #indexOf(int)
+	 */
+	public Vertex getVertexByIndex(int i) {
+		Vertex[] vertices = vertexIndex;
+		if (vertices == null) {
+			indiceAtual();
+			vertices = vertexIndex;
+		}
+		return vertices[i];
+	}
+
+	/**
+	 * Retorna o índice dos ids, refazendo-o se o grafo mudou.
+	 */
+	private int[] indiceAtual() {
+		int[] indice = idParaIndice;
+		if (indice == null) {
+			synchronized (this) {
+				if (idParaIndice == null) {
+					indexaVertices();
+				}
+				indice = idParaIndice;
+			}
+		}
+		return indice;
+	}
+
 	/**
 	 * Limpa o grafo, ou seja, remove todos os vértices e as arestas dele.
 	 */
@@ -379,6 +841,7 @@ public class Graph implements Serializable {
 		}
 		getEdgeTree().clear();
 		getVertexTree().clear();
+		alterado();
 		idControlEdge.setSemente(0);
 		idControlVertex.setSemente(0);
 	}
@@ -436,10 +899,7 @@ public class Graph implements Serializable {
 	 * @see #nextVertex(int)
 	 */
 	public ArrayList<Vertex> getArrayListOfVertexes() {
-		ArrayList<Vertex> lista = new ArrayList<Vertex>();
-		for (Vertex v = firstVertex(); v != null; v = nextVertex(v.getId()))
-			lista.add(v);
-		return lista;
+		return new ArrayList<Vertex>(getVertexTree().values());
 	}
 
 	/**
@@ -559,6 +1019,11 @@ public class Graph implements Serializable {
 		if (!idVertexExists(alpha) || !idVertexExists(omega)) {
 			return null;
 		}
+		GrafoCompacto c = compacto;
+		if (c != null) {
+			int k = c.arco(c.indice(alpha), c.indice(omega));
+			return (k < 0) ? null : c.aresta(k);
+		}
 		Vertex v = getVertex(alpha);
 		for (Edge a = v.firstOut(); a != null; a = v.nextOut(a.getId())) {
 			if (a.getOmega().getId() == omega) {
@@ -584,6 +1049,10 @@ public class Graph implements Serializable {
 	public boolean linkExists(int idA, int idB) {
 		Vertex v = getVertex(idA);
 		if (v != null && idVertexExists(idB)) {
+			GrafoCompacto c = compacto;
+			if (c != null) {
+				return c.ligados(c.indice(idA), c.indice(idB));
+			}
 			for (Edge a = v.firstEdge(); a != null; a = v.nextEdge(a.getId())) {
 				if (a.neighbour(idA).getId() == idB)
 					return true;
@@ -618,6 +1087,7 @@ public class Graph implements Serializable {
 	 */
 	void setVertexTree(TreeMap<Integer, Vertex> arvoreVertices) {
 		this.vertexTree = arvoreVertices;
+		alterado();
 	}
 
 	/**
@@ -634,6 +1104,7 @@ public class Graph implements Serializable {
 	 */
 	void setEdgeTree(TreeMap<Integer, Edge> arvoreArestas) {
 		this.edgeTree = arvoreArestas;
+		alterado();
 	}
 
 	/**
@@ -668,19 +1139,32 @@ public class Graph implements Serializable {
 		this.idControlVertex = idControlVertex;
 	}
 
+	/**
+	 * Retorna os vértices em ordem crescente de grau; vértices de mesmo grau
+	 * ficam na ordem dos ids. Ordenação por contagem, O(V + grau máximo).
+	 *
+	 * @return lista de vértices ordenada pelo grau.
+	 * @see #ordenaGrauDecrescente(List)
+	 */
 	public List<Vertex> ordenaGrau() {
+		int maxGrau = 0;
+		for (Vertex v : getVertexTree().values()) {
+			maxGrau = Math.max(maxGrau, v.getDegree());
+		}
 
-		List<Vertex> vertexList = this.getArrayListOfVertexes();
-
-		for (int i = vertexList.size(); i > 1; i--) {
-			for (int j = 1; j < i; j++) {
-				if ((vertexList.get(j - 1).getDegree()) > (vertexList.get(j).getDegree())) {
-					Collections.swap(vertexList, j, j - 1);
-				}
-			}
+		int[] inicio = new int[maxGrau + 2];
+		for (Vertex v : getVertexTree().values()) {
+			inicio[v.getDegree() + 1]++;
+		}
+		for (int grau = 0; grau <= maxGrau; grau++) {
+			inicio[grau + 1] += inicio[grau];
 		}
 
-		return vertexList;
+		Vertex[] ordenados = new Vertex[getNumVertex()];
+		for (Vertex v : getVertexTree().values()) {
+			ordenados[inicio[v.getDegree()]++] = v;
+		}
+		return new ArrayList<Vertex>(Arrays.asList(ordenados));
 	}
 
 	public List<Vertex> ordenaGrauDecrescente(List<Vertex> vertexListAux) {
@@ -693,14 +1177,27 @@ public class Graph implements Serializable {
 		return vertexListDecrescente;
 	}
 
+	/**
+	 * Retorna os vértices ligados ao vértice, considerando o grafo não
+	 * direcionado, em ordem de id. Usa as linhas de adjacentes do retrato do
+	 * grafo, montado uma vez e refeito só depois que o grafo muda.
+	 *
+	 * @param id
+	 *            id do vértice.
+	 * @return lista dos adjacentes; vazia se o vértice não existir.
+	 * @see #freeze()
+	 */
 	public List<Vertex> getAdjacentes(Integer id) {
 
 		List<Vertex> adjacentes = new ArrayList<Vertex>();
+		if (!idVertexExists(id)) {
+			return adjacentes;
+		}
 
-		for (Integer i = 1; i <= this.getArrayListOfVertexes().size(); i++) {
-			if (this.linkExists(i, id)) {
-				adjacentes.add(this.getVertex(i));
-			}
+		GrafoCompacto c = freeze();
+		int i = c.indice(id);
+		for (int r = 0; r < c.numAdjacentes(i); r++) {
+			adjacentes.add(c.vertice(c.adjacente(i, r)));
 		}
 
 		return adjacentes;
@@ -0,0 +1,322 @@
+package gude;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache binário de um grafo lido de xml, gravado ao lado do xml.
+ *
+ * <p>
+ * O arquivo guarda o hash SHA-256 do xml de origem, os ids dos vértices na
+ * ordem dos índices e o triângulo superior da matriz de distâncias. Um cache
+ * cujo hash não corresponde ao xml atual é ignorado e regravado, então não é
+ * preciso apagá-lo quando o xml muda.
+ * </p>
+ *
+ * <p>
+ * Para não ler o xml inteiro a cada execução, o cache guarda também o tamanho
+ * e a data de modificação do xml. Se os dois conferem, o cache é usado sem
+ * calcular o hash; se não, o hash decide, e um cache de mesmo hash tem o
+ * tamanho e a data atualizados. Um xml modificado no mesmo instante em que o
+ * cache foi gravado fica com a data -1, para que a próxima leitura confira o
+ * hash.
+ * </p>
+ *
+ * <pre>
+ * int    marca ("GVC1")
+ * int    versão
+ * long   tamanho do xml
+ * long   data de modificação do xml (ms), ou -1
+ * byte[] hash do xml (32)
+ * int    n
+ * int[]  ids dos vértices (n)
+ * double distâncias i &lt; j, linha por linha (n * (n - 1) / 2)
+ * </pre>
+ *
+ */
+class GraphCache {
+
+	static final int MARCA = 0x47564331;
+	static final int VERSAO = 2;
+	static final String EXTENSAO = ".cache";
+
+	private static final int TAM_HASH = 32;
+	private static final int POS_CARIMBO = 4 + 4;
+	private static final int TAM_CABECALHO = POS_CARIMBO + 8 + 8 + TAM_HASH + 4;
+
+	/**
+	 * Intervalo, em ms, em que uma modificação do xml pode não mudar a sua
+	 * data
+	 */
+	private static final long RESOLUCAO_DATA = 2000;
+
+	private GraphCache() {
+
+	}
+
+	/**
+	 * Retorna o arquivo de cache de um xml.
+	 *
+	 * @param xml
+	 *            arquivo xml.
+	 * @return arquivo de cache.
+	 */
+	static File arquivoCache(File xml) {
+		return new File(xml.getPath() + EXTENSAO);
+	}
+
+	/**
+	 * Xml de origem de um cache: o tamanho e a data de modificação, lidos ao
+	 * criar a origem, e o hash do conteúdo, calculado só quando é pedido.
+	 */
+	static final class Origem {
+		final File xml;
+		final long tamanho;
+		final long modificado;
+		private byte[] hash;
+
+		private Origem(File xml, long tamanho, long modificado) {
+			this.xml = xml;
+			this.tamanho = tamanho;
+			this.modificado = modificado;
+		}
+
+		byte[] hash() throws IOException {
+			if (hash == null) {
+				hash = GraphCache.hash(xml);
+			}
+			return hash;
+		}
+	}
+
+	/**
+	 * Lê o tamanho e a data de modificação de um xml.
+	 *
+	 * @param xml
+	 * @return origem.
+	 * @throws IOException
+	 *             se o xml não existir ou não puder ser lido.
+	 */
+	static Origem origem(File xml) throws IOException {
+		BasicFileAttributes atributos = Files.readAttributes(xml.toPath(), BasicFileAttributes.class);
+		return new Origem(xml, atributos.size(), atributos.lastModifiedTime().toMillis());
+	}
+
+	/**
+	 * Calcula o hash SHA-256 do conteúdo de um arquivo.
+	 *
+	 * @param arquivo
+	 * @return hash.
+	 * @throws IOException
+	 */
+	static byte[] hash(File arquivo) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+
+		try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+			while (canal.read(buffer) > 0) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Lê o grafo do cache.
+	 *
+	 * @param cache
+	 *            arquivo de cache.
+	 * @param origem
+	 *            xml de origem.
+	 * @return o grafo, ou null se o cache não existir, estiver corrompido ou
+	 *         for de outro xml.
+	 */
+	static Graph read(File cache, Origem origem) {
+		if (!cache.isFile()) {
+			return null;
+		}
+
+		boolean atualizaCarimbo = false;
+		try (FileChannel canal = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer cabecalho = lerCompleto(canal, TAM_CABECALHO);
+			if (cabecalho == null || cabecalho.getInt() != MARCA || cabecalho.getInt() != VERSAO) {
+				return null;
+			}
+			long tamanho = cabecalho.getLong();
+			long modificado = cabecalho.getLong();
+			byte[] hashCache = new byte[TAM_HASH];
+			cabecalho.get(hashCache);
+			if (tamanho != origem.tamanho || modificado != origem.modificado || modificado < 0) {
+				if (!Arrays.equals(origem.hash(), hashCache)) {
+					return null;
+				}
+				atualizaCarimbo = true;
+			}
+
+			int n = cabecalho.getInt();
+			long pares = (long) n * (n - 1) / 2;
+			if (n < 0 || canal.size() != TAM_CABECALHO + 4L * n + 8L * pares) {
+				return null;
+			}
+
+			ByteBuffer corpo = lerCompleto(canal, (int) (canal.size() - TAM_CABECALHO));
+			Graph g = new Graph();
+			for (int i = 0; i < n; i++) {
+				Vertex vertexAux = g.createVertex();
+				vertexAux.setId(corpo.getInt());
+			}
+			g.indexaVertices();
+
+			double[] matriz = MatrizDistancias.vazia(n);
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					double d = corpo.getDouble();
+					matriz[i * n + j] = d;
+					matriz[j * n + i] = d;
+				}
+			}
+			g.setDistancias(new MatrizDistancias(n, matriz));
+
+			if (atualizaCarimbo) {
+				carimba(cache, origem);
+			}
+			return g;
+
+		} catch (IOException | RuntimeException ex) {
+			Logger.getLogger(GraphCache.class.getName()).log(Level.WARNING, "Cache ignorado: " + cache, ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Grava no cache o tamanho e a data atuais do xml, cujo hash já conferiu.
+	 * Falhas são ignoradas: a próxima leitura só volta a conferir o hash.
+	 *
+	 * @param cache
+	 * @param origem
+	 */
+	private static void carimba(File cache, Origem origem) {
+		ByteBuffer carimbo = ByteBuffer.allocate(16);
+		carimbo.putLong(origem.tamanho).putLong(dataConfiavel(origem)).flip();
+		try (FileChannel canal = FileChannel.open(cache.toPath(), StandardOpenOption.WRITE)) {
+			while (carimbo.hasRemaining()) {
+				canal.write(carimbo, POS_CARIMBO + carimbo.position());
+			}
+		} catch (IOException ex) {
+			Logger.getLogger(GraphCache.class.getName()).log(Level.FINE, "Cache não atualizado: " + cache, ex);
+		}
+	}
+
+	/**
+	 * Retorna a data de modificação a gravar no cache: -1 se o xml pode ser
+	 * modificado de novo sem que a data mude.
+	 *
+	 * @param origem
+	 * @return data de modificação, ou -1.
+	 */
+	private static long dataConfiavel(Origem origem) {
+		return (System.currentTimeMillis() - origem.modificado < RESOLUCAO_DATA) ? -1 : origem.modificado;
+	}
+
+	/**
+	 * Grava o grafo no cache. O arquivo é escrito em um temporário e movido
+	 * para o lugar, para que outro processo nunca leia um cache incompleto.
+	 * Falhas são registradas e ignoradas: o cache é só uma otimização.
+	 *
+	 * @param g
+	 *            grafo com a matriz de distâncias montada.
+	 * @param cache
+	 *            arquivo de cache.
+	 * @param origem
+	 *            xml de origem, com o tamanho e a data lidos antes do xml.
+	 */
+	static void write(Graph g, File cache, Origem origem) {
+		int n = g.getNumVertex();
+		long tamanho = TAM_CABECALHO + 4L * n + 8L * ((long) n * (n - 1) / 2);
+		if (tamanho > Integer.MAX_VALUE) {
+			return;
+		}
+
+		Path destino = cache.toPath().toAbsolutePath();
+		Path temporario = null;
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate((int) tamanho).order(ByteOrder.BIG_ENDIAN);
+			buffer.putInt(MARCA).putInt(VERSAO).putLong(origem.tamanho).putLong(dataConfiavel(origem));
+			buffer.put(origem.hash()).putInt(n);
+			for (int i = 0; i < n; i++) {
+				buffer.putInt(g.getVertexByIndex(i).getId());
+			}
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					buffer.putDouble(g.distance(i, j));
+				}
+			}
+			buffer.flip();
+
+			temporario = Files.createTempFile(destino.getParent(), cache.getName(), ".tmp");
+			try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining()) {
+					canal.write(buffer);
+				}
+			}
+			try {
+				Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temporario = null;
+
+		} catch (IOException | RuntimeException ex) {
+			Logger.getLogger(GraphCache.class.getName()).log(Level.WARNING, "Falha ao gravar o cache " + cache, ex);
+		} finally {
+			if (temporario != null) {
+				try {
+					Files.deleteIfExists(temporario);
+				} catch (IOException ex) {
+					Logger.getLogger(GraphCache.class.getName()).log(Level.WARNING, null, ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lê os próximos bytes do canal.
+	 *
+	 * @param canal
+	 * @param tamanho
+	 * @return buffer com os bytes lidos, ou null se o arquivo acabar antes.
+	 * @throws IOException
+	 */
+	private static ByteBuffer lerCompleto(FileChannel canal, int tamanho) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+		while (buffer.hasRemaining()) {
+			if (canal.read(buffer) < 0) {
+				return null;
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+}
@@ -0,0 +1,221 @@
+package gude;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Leitor de instâncias da TSPLIB (.tsp).
+ *
+ * <p>
+ * As instâncias por coordenadas (EUC_2D, CEIL_2D, ATT e GEO) guardam só as
+ * coordenadas e calculam as distâncias sob demanda
+ * ({@link DistanciasCoordenadas}), então ocupam O(n) de memória. As
+ * instâncias EXPLICIT são lidas para uma {@link MatrizDistancias}, em qualquer
+ * um dos formatos de EDGE_WEIGHT_FORMAT.
+ * </p>
+ *
+ * <p>
+ * O grafo resultante tem os vértices, com os ids da instância (1 a n quando
+ * não há coordenadas), e as distâncias, sem objetos Edge.
+ * </p>
+ */
+public class LeitorTSPLIB {
+
+	private LeitorTSPLIB() {
+
+	}
+
+	/**
+	 * Lê uma instância da TSPLIB.
+	 *
+	 * @param arquivo
+	 * @return o grafo lido.
+	 * @throws IOException
+	 *             se o arquivo não puder ser lido ou não estiver no formato.
+	 */
+	public static Graph carrega(File arquivo) throws IOException {
+		int n = -1;
+		String tipoPeso = null;
+		String formatoPeso = "FULL_MATRIX";
+		int[] ids = null;
+		double[] x = null;
+		double[] y = null;
+		double[] matriz = null;
+
+		try (BufferedReader leitor = new BufferedReader(new FileReader(arquivo))) {
+			Numeros numeros = new Numeros(leitor, arquivo);
+			String linha;
+
+			while ((linha = leitor.readLine()) != null) {
+				linha = linha.trim();
+				if (linha.isEmpty()) {
+					continue;
+				}
+
+				int separador = linha.indexOf(':');
+				String chave = (separador >= 0 ? linha.substring(0, separador) : linha).trim();
+				String valor = (separador >= 0) ? linha.substring(separador + 1).trim() : "";
+
+				if (chave.equals("EOF")) {
+					break;
+				} else if (chave.equals("DIMENSION")) {
+					n = Integer.parseInt(valor);
+				} else if (chave.equals("EDGE_WEIGHT_TYPE")) {
+					tipoPeso = valor;
+				} else if (chave.equals("EDGE_WEIGHT_FORMAT")) {
+					formatoPeso = valor;
+				} else if (chave.equals("NODE_COORD_SECTION")) {
+					exigeDimensao(n, chave, arquivo);
+					ids = new int[n];
+					x = new double[n];
+					y = new double[n];
+					for (int i = 0; i < n; i++) {
+						ids[i] = (int) numeros.proximo();
+						x[i] = numeros.proximo();
+						y[i] = numeros.proximo();
+					}
+				} else if (chave.equals("EDGE_WEIGHT_SECTION")) {
+					exigeDimensao(n, chave, arquivo);
+					matriz = leMatriz(numeros, n, formatoPeso, arquivo);
+				} else if (chave.equals("FIXED_EDGES_SECTION")) {
+					// Lista de arestas terminada por -1; não é usada
+					while (numeros.proximo() != -1) {
+					}
+				} else if (chave.equals("DISPLAY_DATA_SECTION")) {
+					exigeDimensao(n, chave, arquivo);
+					for (int i = 0; i < 3 * n; i++) {
+						numeros.proximo();
+					}
+				}
+			}
+		}
+
+		exigeDimensao(n, "DIMENSION", arquivo);
+		if (tipoPeso == null) {
+			throw new IOException("EDGE_WEIGHT_TYPE não informado em " + arquivo);
+		}
+
+		Distancias distancias;
+		if (tipoPeso.equals("EXPLICIT")) {
+			if (matriz == null) {
+				throw new IOException("EDGE_WEIGHT_SECTION não encontrada em " + arquivo);
+			}
+			distancias = new MatrizDistancias(n, matriz);
+		} else {
+			if (x == null) {
+				throw new IOException("NODE_COORD_SECTION não encontrada em " + arquivo);
+			}
+			DistanciasCoordenadas.Tipo tipo;
+			try {
+				tipo = DistanciasCoordenadas.Tipo.valueOf(tipoPeso);
+			} catch (IllegalArgumentException ex) {
+				throw new IOException("EDGE_WEIGHT_TYPE " + tipoPeso + " não suportado em " + arquivo);
+			}
+			distancias = new DistanciasCoordenadas(tipo, x, y);
+		}
+
+		Graph g = new Graph();
+		for (int i = 0; i < n; i++) {
+			Vertex vertexAux = g.createVertex();
+			vertexAux.setId((ids != null) ? ids[i] : i + 1);
+		}
+		g.indexaVertices();
+		g.setDistancias(distancias);
+		return g;
+	}
+
+	/**
+	 * Lê os pesos de EDGE_WEIGHT_SECTION no formato informado.
+	 *
+	 * @param numeros
+	 * @param n
+	 * @param formato
+	 * @param arquivo
+	 * @return matriz n x n, em uma linha por vértice.
+	 * @throws IOException
+	 */
+	private static double[] leMatriz(Numeros numeros, int n, String formato, File arquivo) throws IOException {
+		double[] matriz = MatrizDistancias.vazia(n);
+
+		if (formato.equals("FULL_MATRIX")) {
+			for (int i = 0; i < n * n; i++) {
+				matriz[i] = numeros.proximo();
+			}
+			return matriz;
+		}
+
+		// Os formatos por coluna de um triângulo têm a mesma sequência que os
+		// formatos por linha do outro triângulo
+		boolean superior;
+		boolean diagonal;
+		if (formato.equals("UPPER_ROW") || formato.equals("LOWER_COL")) {
+			superior = true;
+			diagonal = false;
+		} else if (formato.equals("LOWER_ROW") || formato.equals("UPPER_COL")) {
+			superior = false;
+			diagonal = false;
+		} else if (formato.equals("UPPER_DIAG_ROW") || formato.equals("LOWER_DIAG_COL")) {
+			superior = true;
+			diagonal = true;
+		} else if (formato.equals("LOWER_DIAG_ROW") || formato.equals("UPPER_DIAG_COL")) {
+			superior = false;
+			diagonal = true;
+		} else {
+			throw new IOException("EDGE_WEIGHT_FORMAT " + formato + " não suportado em " + arquivo);
+		}
+
+		for (int i = 0; i < n; i++) {
+			int inicio = superior ? (diagonal ? i : i + 1) : 0;
+			int fim = superior ? n : (diagonal ? i + 1 : i);
+			for (int j = inicio; j < fim; j++) {
+				double d = numeros.proximo();
+				matriz[i * n + j] = d;
+				matriz[j * n + i] = d;
+			}
+		}
+		return matriz;
+	}
+
+	private static void exigeDimensao(int n, String secao, File arquivo) throws IOException {
+		if (n < 0) {
+			throw new IOException("DIMENSION precisa vir antes de " + secao + " em " + arquivo);
+		}
+	}
+
+	/**
+	 * Lê números separados por espaços, em quantas linhas forem necessárias
+	 */
+	private static class Numeros {
+
+		private final BufferedReader leitor;
+		private final File arquivo;
+		private String[] campos = new String[0];
+		private int proximo = 0;
+
+		Numeros(BufferedReader leitor, File arquivo) {
+			this.leitor = leitor;
+			this.arquivo = arquivo;
+		}
+
+		double proximo() throws IOException {
+			while (proximo >= campos.length) {
+				String linha = leitor.readLine();
+				if (linha == null) {
+					throw new IOException("Fim de arquivo inesperado em " + arquivo);
+				}
+				linha = linha.trim();
+				campos = linha.isEmpty() ? new String[0] : linha.split("\\s+");
+				proximo = 0;
+			}
+			String campo = campos[proximo++];
+			try {
+				return Double.parseDouble(campo);
+			} catch (NumberFormatException ex) {
+				throw new IOException("Número esperado em " + arquivo + ": " + campo);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,302 @@
+package gude;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Formato binário de matriz de distâncias, aberto por mapeamento de memória.
+ *
+ * <p>
+ * Vários processos que abrem o mesmo arquivo compartilham uma única cópia das
+ * distâncias no cache de páginas do sistema, e o cálculo do fitness lê direto
+ * do mapeamento. Todos os valores são little-endian.
+ * </p>
+ *
+ * <pre>
+ * int    marca ("GVDM")
+ * int    versão
+ * int    n
+ * int    precisão: bytes por distância, 8 (double) ou 4 (float)
+ * int    flags: bit 0 = simétrica
+ * int    reservado
+ * int[]  ids dos vértices (n), completados com zeros até múltiplo de 8 bytes
+ * dados  simétrica: distâncias i &lt; j, linha por linha (n * (n - 1) / 2)
+ *        senão: matriz completa, linha por linha (n * n)
+ * </pre>
+ *
+ * <p>
+ * O arquivo inteiro precisa caber em um único mapeamento (2 GB), o que vale
+ * para até 23 mil vértices simétricos em double.
+ * </p>
+ *
+ * Uso do conversor:
+ *
+ * <pre>
+ * java gude.MatrizBinaria entrada.xml|entrada.txt saida.gdm [-float]
+ * </pre>
+ */
+public class MatrizBinaria {
+
+	static final int MARCA = 0x4D445647;
+	static final int VERSAO = 1;
+	static final int FLAG_SIMETRICA = 1;
+	static final String EXTENSAO = ".gdm";
+
+	private static final int TAM_CABECALHO = 24;
+
+	private MatrizBinaria() {
+
+	}
+
+	/**
+	 * Posição de (i, j), i &lt; j, no triângulo superior gravado linha por
+	 * linha.
+	 *
+	 * @param n
+	 * @param i
+	 * @param j
+	 * @return posição.
+	 */
+	static int posicaoTriangular(int n, int i, int j) {
+		return (int) ((long) i * (2L * n - i - 1) / 2) + (j - i - 1);
+	}
+
+	/**
+	 * Abre um arquivo de matriz e cria o grafo sobre ele. O canal é fechado em
+	 * seguida; o mapeamento continua válido enquanto o grafo existir.
+	 *
+	 * @param arquivo
+	 * @return o grafo, com vértices e distâncias, sem arestas.
+	 * @throws IOException
+	 *             se o arquivo não existir ou não estiver no formato.
+	 */
+	public static Graph abre(File arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+			long tamanhoArquivo = canal.size();
+			if (tamanhoArquivo < TAM_CABECALHO) {
+				throw new IOException("Arquivo de matriz truncado: " + arquivo);
+			}
+			if (tamanhoArquivo > Integer.MAX_VALUE) {
+				throw new IOException("Arquivo de matriz grande demais para um mapeamento: " + arquivo);
+			}
+
+			MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanhoArquivo);
+			mapa.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (mapa.getInt() != MARCA) {
+				throw new IOException("Não é um arquivo de matriz: " + arquivo);
+			}
+			int versao = mapa.getInt();
+			if (versao != VERSAO) {
+				throw new IOException("Versão " + versao + " do arquivo de matriz não suportada: " + arquivo);
+			}
+			int n = mapa.getInt();
+			int precisao = mapa.getInt();
+			boolean simetrica = (mapa.getInt() & FLAG_SIMETRICA) != 0;
+			mapa.getInt();
+
+			if (n < 0 || (precisao != 4 && precisao != 8)) {
+				throw new IOException("Cabeçalho inválido (n = " + n + ", precisão = " + precisao + "): " + arquivo);
+			}
+			long inicioDados = inicioDados(n);
+			if (tamanhoArquivo != inicioDados + (long) precisao * quantidade(n, simetrica)) {
+				throw new IOException("Tamanho do arquivo não corresponde ao cabeçalho: " + arquivo);
+			}
+
+			Graph g = new Graph();
+			for (int i = 0; i < n; i++) {
+				Vertex vertexAux = g.createVertex();
+				vertexAux.setId(mapa.getInt());
+			}
+			g.indexaVertices();
+
+			mapa.position((int) inicioDados);
+			ByteBuffer dados = mapa.slice().order(ByteOrder.LITTLE_ENDIAN);
+			g.setDistancias(new MatrizMapeada(n, precisao, simetrica, dados));
+			return g;
+		}
+	}
+
+	/**
+	 * Grava as distâncias de um grafo. A matriz é gravada só com o triângulo
+	 * superior quando for simétrica com diagonal zero.
+	 *
+	 * @param g
+	 *            grafo com as distâncias montadas.
+	 * @param arquivo
+	 * @param precisao
+	 *            bytes por distância: 8 (double) ou 4 (float).
+	 * @throws IOException
+	 */
+	public static void escreve(Graph g, File arquivo, int precisao) throws IOException {
+		if (precisao != 4 && precisao != 8) {
+			throw new IllegalArgumentException("Precisão inválida: " + precisao);
+		}
+		Distancias distancias = g.getDistancias();
+		int n = distancias.tamanho();
+		boolean simetrica = simetrica(distancias);
+
+		try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MARCA).putInt(VERSAO).putInt(n).putInt(precisao);
+			buffer.putInt(simetrica ? FLAG_SIMETRICA : 0).putInt(0);
+
+			for (int i = 0; i < n; i++) {
+				buffer = garanteEspaco(canal, buffer, 4);
+				buffer.putInt(g.getVertexByIndex(i).getId());
+			}
+			if (n % 2 != 0) {
+				buffer = garanteEspaco(canal, buffer, 4);
+				buffer.putInt(0);
+			}
+
+			for (int i = 0; i < n; i++) {
+				for (int j = simetrica ? i + 1 : 0; j < n; j++) {
+					buffer = garanteEspaco(canal, buffer, precisao);
+					if (precisao == 8) {
+						buffer.putDouble(distancias.distancia(i, j));
+					} else {
+						buffer.putFloat((float) distancias.distancia(i, j));
+					}
+				}
+			}
+			descarrega(canal, buffer);
+		}
+	}
+
+	/**
+	 * Converte um grafo em xml para o formato binário.
+	 *
+	 * @param xml
+	 * @param saida
+	 * @param precisao
+	 * @throws IOException
+	 */
+	public static void deXML(String xml, String saida, int precisao) throws IOException {
+		Graph g = Graph.loadXMLStream(xml);
+		if (g == null) {
+			throw new IOException("Falha ao ler o grafo " + xml);
+		}
+		escreve(g, new File(saida), precisao);
+	}
+
+	/**
+	 * Converte um grafo no formato DIMACS lido por txt2xml ("p edge n m" e uma
+	 * linha "e alpha omega [distancia]" por aresta) para o formato binário. As
+	 * arestas sem distância valem 1 e os pares sem aresta ficam com distância
+	 * infinita.
+	 *
+	 * @param txt
+	 * @param saida
+	 * @param precisao
+	 * @throws IOException
+	 */
+	public static void deDIMACS(String txt, String saida, int precisao) throws IOException {
+		Graph g = new Graph();
+		double[] matriz = null;
+		int n = 0;
+
+		try (BufferedReader lerArq = new BufferedReader(new FileReader(txt))) {
+			String linha;
+			while ((linha = lerArq.readLine()) != null) {
+				String[] aux = linha.trim().split("\\s+");
+
+				if (aux[0].equals("p")) {
+					n = Integer.parseInt(aux[2]);
+					for (int i = 1; i <= n; i++) {
+						Vertex vertexAux = g.createVertex();
+						vertexAux.setId(i);
+					}
+					g.indexaVertices();
+					matriz = MatrizDistancias.vazia(n);
+				} else if (aux[0].equals("e")) {
+					if (matriz == null) {
+						throw new IOException("Aresta antes da linha 'p' em " + txt);
+					}
+					int alpha = g.indexOf(Integer.parseInt(aux[1]));
+					int omega = g.indexOf(Integer.parseInt(aux[2]));
+					double d = (aux.length > 3) ? Double.parseDouble(aux[3]) : 1.0;
+					matriz[alpha * n + omega] = d;
+					matriz[omega * n + alpha] = d;
+				}
+			}
+		}
+
+		if (matriz == null) {
+			throw new IOException("Linha 'p' não encontrada em " + txt);
+		}
+		g.setDistancias(new MatrizDistancias(n, matriz));
+		escreve(g, new File(saida), precisao);
+	}
+
+	/**
+	 * Conversor de linha de comando: o formato de entrada é escolhido pela
+	 * extensão (.xml ou DIMACS).
+	 *
+	 * @param args
+	 *            entrada, saída e, opcionalmente, -float para gravar em
+	 *            precisão simples.
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Uso: java gude.MatrizBinaria entrada.xml|entrada.txt saida" + EXTENSAO + " [-float]");
+			System.exit(1);
+		}
+		int precisao = (args.length > 2 && args[2].equals("-float")) ? 4 : 8;
+
+		if (args[0].toLowerCase().endsWith(".xml")) {
+			deXML(args[0], args[1], precisao);
+		} else {
+			deDIMACS(args[0], args[1], precisao);
+		}
+	}
+
+	private static long inicioDados(int n) {
+		long ids = 4L * n;
+		return TAM_CABECALHO + ((ids + 7) & ~7L);
+	}
+
+	private static long quantidade(int n, boolean simetrica) {
+		return simetrica ? (long) n * (n - 1) / 2 : (long) n * n;
+	}
+
+	private static boolean simetrica(Distancias distancias) {
+		int n = distancias.tamanho();
+		for (int i = 0; i < n; i++) {
+			if (distancias.distancia(i, i) != 0.0) {
+				return false;
+			}
+			for (int j = i + 1; j < n; j++) {
+				if (Double.compare(distancias.distancia(i, j), distancias.distancia(j, i)) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static ByteBuffer garanteEspaco(FileChannel canal, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			descarrega(canal, buffer);
+			buffer.clear();
+		}
+		return buffer;
+	}
+
+	private static void descarrega(FileChannel canal, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+	}
+
+}
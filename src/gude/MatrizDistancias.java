@@ -0,0 +1,76 @@
+package gude;
+
+import java.util.Arrays;
+
+/**
+ * Matriz de distâncias densa em memória, em uma linha por vértice (linha *
+ * numVertex + coluna).
+ */
+public class MatrizDistancias implements Distancias {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int n;
+	private final double[] matriz;
+
+	/**
+	 * Cria a matriz a partir de um vetor já preenchido.
+	 *
+	 * @param n
+	 *            número de vértices.
+	 * @param matriz
+	 *            vetor n x n, em uma linha por vértice.
+	 */
+	public MatrizDistancias(int n, double[] matriz) {
+		if (matriz.length != n * n) {
+			throw new IllegalArgumentException("Matriz de " + matriz.length + " posições para " + n + " vértices");
+		}
+		this.n = n;
+		this.matriz = matriz;
+	}
+
+	/**
+	 * Copia as distâncias de outra fonte para a memória.
+	 *
+	 * @param distancias
+	 * @return a cópia.
+	 */
+	public static MatrizDistancias copia(Distancias distancias) {
+		int n = distancias.tamanho();
+		double[] matriz = new double[n * n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				matriz[i * n + j] = distancias.distancia(i, j);
+			}
+		}
+		return new MatrizDistancias(n, matriz);
+	}
+
+	/**
+	 * Cria um vetor n x n sem arestas: distância infinita entre vértices
+	 * distintos e zero na diagonal.
+	 *
+	 * @param n
+	 *            número de vértices.
+	 * @return o vetor, em uma linha por vértice.
+	 */
+	public static double[] vazia(int n) {
+		double[] matriz = new double[n * n];
+		Arrays.fill(matriz, Double.POSITIVE_INFINITY);
+		for (int i = 0; i < n; i++) {
+			matriz[i * n + i] = 0.0;
+		}
+		return matriz;
+	}
+
+	@Override
+	public int tamanho() {
+		return n;
+	}
+
+	@Override
+	public double distancia(int i, int j) {
+		return matriz[i * n + j];
+	}
+
+}
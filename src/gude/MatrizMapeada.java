@@ -0,0 +1,81 @@
+package gude;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Matriz de distâncias lida direto de um arquivo mapeado em memória, no
+ * formato de {@link MatrizBinaria}.
+ *
+ * <p>
+ * Os valores não são copiados para o heap: cada leitura vai ao buffer
+ * mapeado, e processos que abrem o mesmo arquivo compartilham as páginas do
+ * cache do sistema operacional. Na serialização a matriz é gravada como uma
+ * {@link MatrizDistancias}.
+ * </p>
+ */
+public class MatrizMapeada implements Distancias {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int n;
+	private final boolean simetrica;
+	private final transient DoubleBuffer duplos;
+	private final transient FloatBuffer simples;
+
+	/**
+	 * Cria a matriz sobre a região de dados do arquivo.
+	 *
+	 * @param n
+	 *            número de vértices.
+	 * @param precisao
+	 *            bytes por distância: 8 (double) ou 4 (float).
+	 * @param simetrica
+	 *            se true, só o triângulo superior (i &lt; j) está gravado.
+	 * @param dados
+	 *            buffer posicionado no início das distâncias, já com a ordem
+	 *            de bytes do arquivo.
+	 */
+	MatrizMapeada(int n, int precisao, boolean simetrica, ByteBuffer dados) {
+		this.n = n;
+		this.simetrica = simetrica;
+		if (precisao == 8) {
+			this.duplos = dados.asDoubleBuffer();
+			this.simples = null;
+		} else {
+			this.duplos = null;
+			this.simples = dados.asFloatBuffer();
+		}
+	}
+
+	@Override
+	public int tamanho() {
+		return n;
+	}
+
+	@Override
+	public double distancia(int i, int j) {
+		int posicao;
+		if (simetrica) {
+			if (i == j) {
+				return 0.0;
+			}
+			if (i > j) {
+				int aux = i;
+				i = j;
+				j = aux;
+			}
+			posicao = MatrizBinaria.posicaoTriangular(n, i, j);
+		} else {
+			posicao = i * n + j;
+		}
+		return (duplos != null) ? duplos.get(posicao) : simples.get(posicao);
+	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return MatrizDistancias.copia(this);
+	}
+
+}
@@ -3,7 +3,6 @@ package gude;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.TreeMap;
-import java.util.SortedMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.io.Serializable;
@@ -171,13 +170,10 @@ public class Vertex implements Serializable {
 	 * @see #firstEdge()
 	 */
 	public Edge nextEdge(int id) {
-		if (!edgeList.containsKey(id) || edgeList.lastKey() == id)
+		if (!edgeList.containsKey(id))
 			return null;
-		else {
-			SortedMap<Integer, Edge> map = edgeList.tailMap(id + 1);
-			int novoId = map.firstKey();
-			return edgeList.get(novoId);
-		}
+		Integer novoId = edgeList.higherKey(id);
+		return (novoId == null) ? null : edgeList.get(novoId);
 	}
 
 	/**
@@ -298,6 +294,7 @@ public class Vertex implements Serializable {
 	 */
 	void setId(int id) {
 		this.id = id;
+		graph.alterado();
 	}
 
 	/**
@@ -0,0 +1,227 @@
+package gude;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Listas de candidatos: os k vértices mais próximos de cada vértice.
+ *
+ * <p>
+ * As listas ficam em um único vetor int[n * k], com os vizinhos de i nas
+ * posições [i * k, (i + 1) * k), do mais próximo para o mais distante (empates
+ * pelo menor índice). Os operadores que só consideram movimentos entre
+ * vizinhos próximos deixam de ser quadráticos em n.
+ * </p>
+ *
+ * @see Graph#getVizinhos(int)
+ */
+public class Vizinhos {
+
+	/** Linhas por tarefa na construção em paralelo */
+	private static final int LIMITE_TAREFA = 64;
+
+	private final int n;
+	private final int k;
+	private final int[] lista;
+
+	private Vizinhos(int n, int k) {
+		this.n = n;
+		this.k = k;
+		this.lista = new int[n * k];
+	}
+
+	/**
+	 * Monta as listas de candidatos a partir das distâncias.
+	 *
+	 * @param distancias
+	 * @param k
+	 *            número de vizinhos por vértice; limitado a n - 1.
+	 * @param paralelismo
+	 *            número de threads; 1 monta na thread que chamou.
+	 * @return as listas.
+	 */
+	public static Vizinhos constroi(final Distancias distancias, int k, int paralelismo) {
+		if (k < 1 || paralelismo < 1) {
+			throw new IllegalArgumentException("k = " + k + ", paralelismo = " + paralelismo);
+		}
+		int n = distancias.tamanho();
+		final Vizinhos vizinhos = new Vizinhos(n, Math.max(0, Math.min(k, n - 1)));
+
+		Tarefa tarefa = new Tarefa(vizinhos, distancias, 0, n);
+		if (paralelismo == 1) {
+			tarefa.compute();
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(paralelismo);
+			try {
+				pool.invoke(tarefa);
+			} finally {
+				pool.shutdown();
+			}
+		}
+		return vizinhos;
+	}
+
+	/**
+	 * Retorna o número de vértices.
+	 *
+	 * @return número de vértices.
+	 */
+	public int tamanho() {
+		return n;
+	}
+
+	/**
+	 * Retorna o número de vizinhos por vértice.
+	 *
+	 * @return k.
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * Retorna o r-ésimo vizinho mais próximo de i.
+	 *
+	 * @param i
+	 *            índice do vértice.
+	 * @param r
+	 *            posição na lista, de 0 a k - 1.
+	 * @return índice do vizinho.
+	 */
+	public int vizinho(int i, int r) {
+		return lista[i * k + r];
+	}
+
+	/**
+	 * Retorna o vetor com todas as listas, para laços que percorrem os
+	 * vizinhos sem chamadas. Não deve ser alterado.
+	 *
+	 * @return int[n * k].
+	 */
+	public int[] getLista() {
+		return lista;
+	}
+
+	/**
+	 * Monta a lista de um vértice: mantém os k mais próximos em um heap de
+	 * máximo e depois ordena o heap, O(n log k).
+	 *
+	 * @param distancias
+	 * @param i
+	 * @param heap
+	 *            vetor auxiliar de k posições.
+	 * @param chaves
+	 *            distâncias dos vértices do heap, k posições.
+	 */
+	private void montaLista(Distancias distancias, int i, int[] heap, double[] chaves) {
+		int tamanho = 0;
+		for (int j = 0; j < n; j++) {
+			if (j == i) {
+				continue;
+			}
+			double d = distancias.distancia(i, j);
+			if (tamanho < k) {
+				heap[tamanho] = j;
+				chaves[tamanho] = d;
+				sobe(heap, chaves, tamanho);
+				tamanho++;
+			} else if (antes(d, j, chaves[0], heap[0])) {
+				heap[0] = j;
+				chaves[0] = d;
+				desce(heap, chaves, 0, tamanho);
+			}
+		}
+
+		// Retira o maior até esvaziar: a lista sai do mais distante para o
+		// mais próximo
+		int base = i * k;
+		for (int fim = tamanho - 1; fim >= 0; fim--) {
+			lista[base + fim] = heap[0];
+			heap[0] = heap[fim];
+			chaves[0] = chaves[fim];
+			desce(heap, chaves, 0, fim);
+		}
+	}
+
+	/**
+	 * Ordem dos candidatos: menor distância e, no empate, menor índice.
+	 */
+	private static boolean antes(double d1, int j1, double d2, int j2) {
+		return (d1 < d2) || (d1 == d2 && j1 < j2);
+	}
+
+	private static void sobe(int[] heap, double[] chaves, int posicao) {
+		while (posicao > 0) {
+			int pai = (posicao - 1) / 2;
+			if (!antes(chaves[pai], heap[pai], chaves[posicao], heap[posicao])) {
+				return;
+			}
+			troca(heap, chaves, pai, posicao);
+			posicao = pai;
+		}
+	}
+
+	private static void desce(int[] heap, double[] chaves, int posicao, int tamanho) {
+		while (true) {
+			int maior = posicao;
+			int esquerda = 2 * posicao + 1;
+			int direita = esquerda + 1;
+			if (esquerda < tamanho && antes(chaves[maior], heap[maior], chaves[esquerda], heap[esquerda])) {
+				maior = esquerda;
+			}
+			if (direita < tamanho && antes(chaves[maior], heap[maior], chaves[direita], heap[direita])) {
+				maior = direita;
+			}
+			if (maior == posicao) {
+				return;
+			}
+			troca(heap, chaves, maior, posicao);
+			posicao = maior;
+		}
+	}
+
+	private static void troca(int[] heap, double[] chaves, int a, int b) {
+		int auxVertice = heap[a];
+		heap[a] = heap[b];
+		heap[b] = auxVertice;
+		double auxChave = chaves[a];
+		chaves[a] = chaves[b];
+		chaves[b] = auxChave;
+	}
+
+	/**
+	 * Tarefa que monta as listas dos vértices de [inicio, fim), dividindo o
+	 * intervalo ao meio enquanto ele for maior que LIMITE_TAREFA
+	 */
+	private static class Tarefa extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Vizinhos vizinhos;
+		private final Distancias distancias;
+		private final int inicio;
+		private final int fim;
+
+		Tarefa(Vizinhos vizinhos, Distancias distancias, int inicio, int fim) {
+			this.vizinhos = vizinhos;
+			this.distancias = distancias;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected void compute() {
+			if (fim - inicio <= LIMITE_TAREFA) {
+				int[] heap = new int[vizinhos.k];
+				double[] chaves = new double[vizinhos.k];
+				for (int i = inicio; i < fim; i++) {
+					vizinhos.montaLista(distancias, i, heap, chaves);
+				}
+			} else {
+				int meio = (inicio + fim) >>> 1;
+				invokeAll(new Tarefa(vizinhos, distancias, inicio, meio), new Tarefa(vizinhos, distancias, meio, fim));
+			}
+		}
+	}
+
+}
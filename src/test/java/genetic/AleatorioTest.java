@@ -0,0 +1,65 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class AleatorioTest {
+
+	private static long[] sequencia(SplittableRandom gerador) {
+		long[] valores = new long[20];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = gerador.nextLong();
+		}
+		return valores;
+	}
+
+	/**
+	 * A sequência da primeira thread semeada e de uma outra thread que pede
+	 * seu gerador em seguida
+	 */
+	private static long[][] executa(long semente) throws InterruptedException {
+		final long[][] valores = new long[2][];
+		Aleatorio.semeia(semente);
+		valores[0] = sequencia(Aleatorio.atual());
+		Thread outra = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				valores[1] = sequencia(Aleatorio.atual());
+			}
+		});
+		outra.start();
+		outra.join();
+		return valores;
+	}
+
+	@Test
+	public void mesmaSementeMesmaSequencia() throws Exception {
+		long[][] primeira = executa(7);
+		long[][] segunda = executa(7);
+		assertArrayEquals(primeira[0], segunda[0]);
+		assertArrayEquals(primeira[1], segunda[1]);
+		// As threads não compartilham o gerador
+		assertNotEquals(primeira[0][0], primeira[1][0]);
+		assertNotEquals(primeira[0][0], executa(8)[0][0]);
+	}
+
+	@Test
+	public void geradorExplicitoValeAteANovaSemente() {
+		Aleatorio.semeia(3);
+		SplittableRandom proprio = new SplittableRandom(1);
+		Aleatorio.usa(proprio);
+		assertSame(proprio, Aleatorio.atual());
+
+		// Uma nova semente descarta o gerador derivado antes dela
+		Aleatorio.semeia(3);
+		SplittableRandom derivado = Aleatorio.atual();
+		assertNotEquals(proprio, derivado);
+		assertArrayEquals(sequencia(new SplittableRandom(3).split()), sequencia(derivado));
+	}
+
+}
@@ -0,0 +1,165 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gude.Graph;
+
+public class AssinaturaTest {
+
+	private static Graph g;
+
+	@BeforeClass
+	public static void carregaGrafo() {
+		g = Graph.loadXMLStream("grafo-50.xml");
+	}
+
+	private static Cromossomo cromossomo(int[] rota) {
+		Cromossomo c = new Cromossomo(g);
+		c.setRota(rota);
+		return c;
+	}
+
+	private static int[] aleatoria(SplittableRandom gerador) {
+		int[] rota = new int[g.getNumVertex()];
+		for (int i = 0; i < rota.length; i++) {
+			rota[i] = i;
+		}
+		Populacao.embaralha(rota, gerador);
+		return rota;
+	}
+
+	private static List<Cromossomo> mataClones(Cromossomo... cromossomos) {
+		Populacao populacao = new Populacao(g);
+		populacao.setPopulacao(new ArrayList<Cromossomo>(Arrays.asList(cromossomos)));
+		return Genetic.mataClones(populacao).getPopulacao();
+	}
+
+	@Test
+	public void rotasIguaisPerdemOClone() {
+		SplittableRandom gerador = new SplittableRandom(16);
+		Cromossomo a = cromossomo(aleatoria(gerador));
+		Cromossomo b = cromossomo(aleatoria(gerador));
+		int[] rotaA = a.getRota().clone();
+		// Um clone com vetor próprio e outro com a mesma rota
+		Cromossomo copia = a.copia();
+		Cromossomo mesmaRota = cromossomo(a.getRota());
+
+		List<Cromossomo> vivos = mataClones(a, b, copia, mesmaRota, b.copia());
+		assertEquals(2, vivos.size());
+		assertSame(a, vivos.get(0));
+		assertSame(b, vivos.get(1));
+		// A rota do sobrevivente não foi devolvida junto com a do clone
+		assertEquals(Arrays.toString(rotaA), Arrays.toString(a.getRota()));
+	}
+
+	@Test
+	public void colisaoEntreRotasDiferentesMantemAsDuas() {
+		SplittableRandom gerador = new SplittableRandom(17);
+		// Com as pontas livres, a rota invertida tem as mesmas arestas
+		int[] rota = aleatoria(gerador);
+		int[] invertida = new int[rota.length];
+		for (int i = 0; i < rota.length; i++) {
+			invertida[i] = rota[rota.length - 1 - i];
+		}
+		Cromossomo a = cromossomo(rota);
+		Cromossomo b = cromossomo(invertida);
+		assertEquals(a.getAssinatura(), b.getAssinatura());
+		List<Cromossomo> vivos = mataClones(a, b);
+		assertEquals(2, vivos.size());
+		assertSame(a, vivos.get(0));
+		assertSame(b, vivos.get(1));
+
+		// Uma colisão do hash entre rotas sem as mesmas arestas
+		Cromossomo c = new Cromossomo(g) {
+			@Override
+			public long getAssinatura() {
+				return 42L;
+			}
+		};
+		c.setRota(aleatoria(gerador));
+		Cromossomo d = new Cromossomo(g) {
+			@Override
+			public long getAssinatura() {
+				return 42L;
+			}
+		};
+		d.setRota(aleatoria(gerador));
+		vivos = mataClones(c, d);
+		assertEquals(2, vivos.size());
+		assertSame(c, vivos.get(0));
+		assertSame(d, vivos.get(1));
+	}
+
+	@Test
+	public void incrementalIgualAoCompleto() {
+		SplittableRandom gerador = new SplittableRandom(18);
+		int n = g.getNumVertex();
+		for (int t = 0; t < 5000; t++) {
+			Cromossomo pai = cromossomo(aleatoria(gerador));
+			// Inverte ou embaralha o trecho [inicio, fim)
+			int inicio = gerador.nextInt(n);
+			int fim = inicio + 1 + gerador.nextInt(n - inicio);
+			int[] rota = pai.getRota().clone();
+			if (gerador.nextBoolean()) {
+				for (int a = inicio, b = fim - 1; a < b; a++, b--) {
+					int aux = rota[a];
+					rota[a] = rota[b];
+					rota[b] = aux;
+				}
+			} else {
+				for (int i = fim - 1; i > inicio; i--) {
+					int j = inicio + gerador.nextInt(i - inicio + 1);
+					int aux = rota[i];
+					rota[i] = rota[j];
+					rota[j] = aux;
+				}
+			}
+
+			Cromossomo incremental = new Cromossomo(g);
+			incremental.setRota(rota, pai, inicio, fim);
+			Cromossomo completo = cromossomo(rota.clone());
+			assertEquals(completo.getAssinatura(), incremental.getAssinatura());
+			assertEquals(completo.getFitness(), incremental.getFitness(), 1e-6);
+		}
+	}
+
+	@Test
+	public void rotasDiferentesTemAssinaturasDiferentes() {
+		SplittableRandom gerador = new SplittableRandom(19);
+		Cromossomo a = cromossomo(aleatoria(gerador));
+		for (int t = 0; t < 1000; t++) {
+			Cromossomo b = cromossomo(aleatoria(gerador));
+			assertNotEquals(a.getAssinatura(), b.getAssinatura());
+		}
+	}
+
+	@Test
+	public void tabelaComColisoesDePosicao() {
+		for (int rodada = 0; rodada < 2; rodada++) {
+			TabelaAssinaturas tabela = TabelaAssinaturas.prepara(100);
+			// Chaves que caem na mesma posição e chaves quaisquer
+			for (int i = 0; i < 50; i++) {
+				tabela.insere((long) i << 32 | i, i);
+				tabela.insere(0x9E3779B97F4A7C15L * (i + 1), 50 + i);
+			}
+			for (int i = 0; i < 50; i++) {
+				assertEquals(i, tabela.busca((long) i << 32 | i));
+				assertEquals(50 + i, tabela.busca(0x9E3779B97F4A7C15L * (i + 1)));
+			}
+			assertEquals(-1, tabela.busca(-7L));
+		}
+		// A tabela reaproveitada volta vazia
+		assertEquals(-1, TabelaAssinaturas.prepara(10).busca(0L));
+	}
+
+}
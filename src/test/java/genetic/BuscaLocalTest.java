@@ -0,0 +1,126 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gude.Graph;
+import gude.Vizinhos;
+
+public class BuscaLocalTest {
+
+	private static Graph g;
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	@BeforeClass
+	public static void carregaGrafo() {
+		g = Graph.loadXMLStream("grafo-50.xml");
+	}
+
+	@After
+	public void restauraPontas() {
+		Pontas.setFixas(false);
+	}
+
+	private static Cromossomo aleatorio(Graph g, SplittableRandom gerador) {
+		int[] rota = new int[g.getNumVertex()];
+		for (int i = 0; i < rota.length; i++) {
+			rota[i] = i;
+		}
+		Pontas.embaralha(rota, g, gerador);
+		Cromossomo c = new Cromossomo(g);
+		c.setRota(rota);
+		return c;
+	}
+
+	private static void conferePermutacao(int[] rota) {
+		boolean[] visitada = new boolean[rota.length];
+		for (int cidade : rota) {
+			assertFalse(visitada[cidade]);
+			visitada[cidade] = true;
+		}
+	}
+
+	@Test
+	public void melhoraSemSairDasPontas() {
+		SplittableRandom gerador = new SplittableRandom(15);
+		Vizinhos vizinhos = g.getVizinhos(BuscaLocal.vizinhosDefault);
+		for (boolean fixas : new boolean[] { false, true }) {
+			Pontas.setFixas(fixas);
+			for (int t = 0; t < 300; t++) {
+				Cromossomo original = aleatorio(g, gerador);
+				int[] rotaOriginal = original.getRota().clone();
+
+				Cromossomo melhorado = BuscaLocal.melhora(original, vizinhos, 0);
+				assertEquals(rotaOriginal.length, melhorado.getRota().length);
+				conferePermutacao(melhorado.getRota());
+				assertTrue(melhorado.getFitness() <= original.getFitness() + 1e-9);
+				assertEquals(rotaOriginal[0], melhorado.getRota()[0]);
+				assertEquals(rotaOriginal[rotaOriginal.length - 1],
+						melhorado.getRota()[rotaOriginal.length - 1]);
+
+				// O original não muda, e o fitness do melhorado é o da sua rota
+				assertEquals(rotaOriginal.length, original.getRota().length);
+				for (int i = 0; i < rotaOriginal.length; i++) {
+					assertEquals(rotaOriginal[i], original.getRota()[i]);
+				}
+				Cromossomo completo = new Cromossomo(g);
+				completo.setRota(melhorado.getRota().clone());
+				assertEquals(completo.getFitness(), melhorado.getFitness(), 1e-6);
+
+				// Os bits de "não olhe" não garantem um ótimo local estrito,
+				// mas uma segunda busca nunca piora a rota
+				Cromossomo denovo = BuscaLocal.melhora(melhorado, vizinhos, 0);
+				assertTrue(denovo.getFitness() <= melhorado.getFitness() + 1e-9);
+				if (denovo.getFitness() == melhorado.getFitness()) {
+					assertSame(melhorado, denovo);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void respeitaOPrazo() throws Exception {
+		// Pontos aleatórios: a busca completa a partir de uma rota aleatória
+		// faz milhares de movimentos
+		int n = 5000;
+		SplittableRandom gerador = new SplittableRandom(16);
+		StringBuilder texto = new StringBuilder("DIMENSION: " + n + "\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n");
+		for (int i = 1; i <= n; i++) {
+			texto.append(i).append(' ').append(gerador.nextInt(100000)).append(' ').append(gerador.nextInt(100000))
+					.append('\n');
+		}
+		File arquivo = pasta.newFile();
+		Files.write(arquivo.toPath(), texto.append("EOF\n").toString().getBytes(StandardCharsets.UTF_8));
+		Graph grande = Graph.loadTSPLIB(arquivo.getPath());
+		Vizinhos vizinhos = grande.getVizinhos(BuscaLocal.vizinhosDefault);
+
+		// Com o prazo já vencido, a busca para na primeira consulta ao relógio
+		Cromossomo original = aleatorio(grande, gerador);
+		long inicio = System.nanoTime();
+		Cromossomo melhorado = BuscaLocal.melhora(original, vizinhos, inicio - 1);
+		long decorrido = System.nanoTime() - inicio;
+		assertTrue("decorrido " + decorrido / 1000000 + " ms", decorrido < 100000000L);
+		conferePermutacao(melhorado.getRota());
+		assertTrue(melhorado.getFitness() <= original.getFitness());
+
+		// Sem prazo, a busca chega bem mais longe
+		Cromossomo semPrazo = BuscaLocal.melhora(melhorado, vizinhos, 0);
+		assertTrue(semPrazo.getFitness() < melhorado.getFitness());
+	}
+
+}
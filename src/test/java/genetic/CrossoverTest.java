@@ -0,0 +1,253 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gude.Graph;
+
+public class CrossoverTest {
+
+	private static Graph g;
+
+	@BeforeClass
+	public static void carregaGrafo() {
+		g = Graph.loadXMLStream("grafo-50.xml");
+	}
+
+	@After
+	public void restauraPontas() {
+		Pontas.setFixas(false);
+	}
+
+	private static Cromossomo cromossomo(int[] rota) {
+		Cromossomo c = new Cromossomo(g);
+		c.setRota(rota);
+		return c;
+	}
+
+	private static int[] aleatoria(SplittableRandom gerador) {
+		int[] rota = new int[g.getNumVertex()];
+		for (int i = 0; i < rota.length; i++) {
+			rota[i] = i;
+		}
+		Pontas.embaralha(rota, g, gerador);
+		return rota;
+	}
+
+	/**
+	 * A rota com algumas trocas no interior, para pais parecidos
+	 */
+	private static int[] vizinha(int[] rota, int trocas, SplittableRandom gerador) {
+		int[] outra = rota.clone();
+		for (int t = 0; t < trocas; t++) {
+			int a = 1 + gerador.nextInt(outra.length - 2);
+			int b = 1 + gerador.nextInt(outra.length - 2);
+			int aux = outra[a];
+			outra[a] = outra[b];
+			outra[b] = aux;
+		}
+		return outra;
+	}
+
+	/**
+	 * Cruza pais aleatórios e pais parecidos, com pontas livres e fixas, e
+	 * confere que os filhos são permutações com o fitness e a assinatura
+	 * corretos, sem alterar os pais
+	 */
+	static void confere(Crossover.Tipo tipo) {
+		Crossover operador = tipo.cria();
+		SplittableRandom gerador = new SplittableRandom(tipo.ordinal());
+		int n = g.getNumVertex();
+		for (boolean fixas : new boolean[] { false, true }) {
+			Pontas.setFixas(fixas);
+			for (int t = 0; t < 1000; t++) {
+				int[] rotaPai = aleatoria(gerador);
+				int[] rotaMae = (t % 2 == 0) ? aleatoria(gerador) : vizinha(rotaPai, t % 7, gerador);
+				Cromossomo pai = cromossomo(rotaPai.clone());
+				Cromossomo mae = cromossomo(rotaMae.clone());
+
+				Cromossomo[] filhos = new Cromossomo[4];
+				operador.cruza(pai, mae, gerador, filhos, 2);
+				assertArrayEquals(rotaPai, pai.getRota());
+				assertArrayEquals(rotaMae, mae.getRota());
+
+				for (int f = 2; f < 4; f++) {
+					int[] rota = filhos[f].getRota();
+					assertNotSame(pai.getRota(), rota);
+					assertNotSame(mae.getRota(), rota);
+					assertEquals(n, rota.length);
+					boolean[] visitada = new boolean[n];
+					for (int cidade : rota) {
+						assertFalse(tipo + ": cidade " + cidade + " repetida", visitada[cidade]);
+						visitada[cidade] = true;
+					}
+					if (fixas) {
+						assertEquals(rotaPai[0], rota[0]);
+						assertEquals(rotaPai[n - 1], rota[n - 1]);
+					}
+
+					Cromossomo completo = cromossomo(rota.clone());
+					assertEquals(tipo.toString(), completo.getFitness(), filhos[f].getFitness(), 1e-6);
+					assertEquals(tipo.toString(), completo.getAssinatura(), filhos[f].getAssinatura());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void umPonto() {
+		confere(Crossover.Tipo.UM_PONTO);
+	}
+
+	@Test
+	public void ox1() {
+		confere(Crossover.Tipo.OX1);
+	}
+
+	@Test
+	public void pmx() {
+		confere(Crossover.Tipo.PMX);
+	}
+
+	@Test
+	public void erx() {
+		confere(Crossover.Tipo.ERX);
+	}
+
+	@Test
+	public void eax() {
+		confere(Crossover.Tipo.EAX);
+	}
+
+	/**
+	 * O filho do crossover de um ponto tem o início [0, faca) de um pai e as
+	 * demais cidades na ordem do outro pai; copiar a cauda do outro pai
+	 * repetiria cidades
+	 */
+	@Test
+	public void umPontoCompletaComAOrdemDoOutroPai() {
+		Crossover operador = Crossover.Tipo.UM_PONTO.cria();
+		SplittableRandom gerador = new SplittableRandom(10);
+		int n = g.getNumVertex();
+		for (int t = 0; t < 500; t++) {
+			int[] rotaPai = aleatoria(gerador);
+			int[] rotaMae = aleatoria(gerador);
+			long semente = gerador.nextLong();
+			int faca = new SplittableRandom(semente).nextInt(n);
+
+			Cromossomo[] filhos = new Cromossomo[2];
+			operador.cruza(cromossomo(rotaPai.clone()), cromossomo(rotaMae.clone()), new SplittableRandom(semente),
+					filhos, 0);
+			assertArrayEquals(completa(rotaPai, faca, rotaMae), filhos[0].getRota());
+			assertArrayEquals(completa(rotaMae, faca, rotaPai), filhos[1].getRota());
+		}
+	}
+
+	private static int[] completa(int[] inicio, int faca, int[] outro) {
+		int[] filho = new int[inicio.length];
+		boolean[] usada = new boolean[inicio.length];
+		for (int i = 0; i < faca; i++) {
+			filho[i] = inicio[i];
+			usada[inicio[i]] = true;
+		}
+		int posicao = faca;
+		for (int cidade : outro) {
+			if (!usada[cidade]) {
+				filho[posicao++] = cidade;
+			}
+		}
+		return filho;
+	}
+
+	@Test
+	public void eaxPreparadoIgualAoSemPreparo() {
+		SplittableRandom gerador = new SplittableRandom(14);
+		Crossover preparado = Crossover.Tipo.EAX.cria();
+		preparado.prepara(g);
+		Crossover semPreparo = Crossover.Tipo.EAX.cria();
+		for (int t = 0; t < 200; t++) {
+			Cromossomo pai = cromossomo(aleatoria(gerador));
+			Cromossomo mae = cromossomo(aleatoria(gerador));
+			long semente = gerador.nextLong();
+			Cromossomo[] a = new Cromossomo[2];
+			Cromossomo[] b = new Cromossomo[2];
+			preparado.cruza(pai, mae, new SplittableRandom(semente), a, 0);
+			semPreparo.cruza(pai, mae, new SplittableRandom(semente), b, 0);
+			assertArrayEquals(a[0].getRota(), b[0].getRota());
+			assertArrayEquals(a[1].getRota(), b[1].getRota());
+		}
+	}
+
+	@Test
+	public void eaxSemArestasDiferentesCopiaOsPais() {
+		Crossover operador = Crossover.Tipo.EAX.cria();
+		SplittableRandom gerador = new SplittableRandom(12);
+		for (int t = 0; t < 50; t++) {
+			int[] rota = aleatoria(gerador);
+			// A rota invertida tem as mesmas arestas
+			int[] invertida = new int[rota.length];
+			for (int i = 0; i < rota.length; i++) {
+				invertida[i] = rota[rota.length - 1 - i];
+			}
+			Cromossomo[] filhos = new Cromossomo[2];
+			operador.cruza(cromossomo(rota.clone()), cromossomo(invertida), gerador, filhos, 0);
+			assertArrayEquals(rota, filhos[0].getRota());
+			assertArrayEquals(invertida, filhos[1].getRota());
+		}
+	}
+
+	@Test
+	public void eaxComUmAbCicloTrocaAsArestas() {
+		Crossover operador = Crossover.Tipo.EAX.cria();
+		SplittableRandom gerador = new SplittableRandom(13);
+		for (boolean fixas : new boolean[] { false, true }) {
+			Pontas.setFixas(fixas);
+			for (int t = 0; t < 200; t++) {
+				// Um 2-opt no interior: os pais diferem em duas arestas, que
+				// formam um único AB-ciclo, e aplicá-lo a um pai dá o outro
+				int[] rota = aleatoria(gerador);
+				int i = 1 + gerador.nextInt(rota.length - 3);
+				int j = i + 1 + gerador.nextInt(rota.length - 2 - i);
+				int[] outra = rota.clone();
+				for (int a = i, b = j; a < b; a++, b--) {
+					int aux = outra[a];
+					outra[a] = outra[b];
+					outra[b] = aux;
+				}
+				Cromossomo pai = cromossomo(rota.clone());
+				Cromossomo mae = cromossomo(outra);
+
+				Cromossomo[] filhos = new Cromossomo[2];
+				operador.cruza(pai, mae, gerador, filhos, 0);
+				assertEquals(mae.getAssinatura(), filhos[0].getAssinatura());
+				assertEquals(mae.getFitness(), filhos[0].getFitness(), 1e-6);
+				assertEquals(pai.getAssinatura(), filhos[1].getAssinatura());
+				assertEquals(pai.getFitness(), filhos[1].getFitness(), 1e-6);
+			}
+		}
+	}
+
+	@Test
+	public void paisIguaisGeramCopias() {
+		SplittableRandom gerador = new SplittableRandom(11);
+		for (Crossover.Tipo tipo : Crossover.Tipo.values()) {
+			Crossover operador = tipo.cria();
+			for (int t = 0; t < 50; t++) {
+				int[] rota = aleatoria(gerador);
+				Cromossomo[] filhos = new Cromossomo[2];
+				operador.cruza(cromossomo(rota.clone()), cromossomo(rota.clone()), gerador, filhos, 0);
+				assertArrayEquals(tipo.toString(), rota, filhos[0].getRota());
+				assertArrayEquals(tipo.toString(), rota, filhos[1].getRota());
+			}
+		}
+	}
+
+}
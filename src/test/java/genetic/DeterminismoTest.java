@@ -0,0 +1,78 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class DeterminismoTest {
+
+	@After
+	public void restauraPontas() {
+		Pontas.setFixas(false);
+	}
+
+	/**
+	 * Executa o algoritmo com os argumentos, sem a saída das gerações, e
+	 * retorna o melhor cromossomo do hall da fama
+	 */
+	private static Cromossomo executa(String... args) {
+		PrintStream saida = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		}));
+		try {
+			Genetic.main(args);
+		} finally {
+			System.setOut(saida);
+		}
+		Cromossomo melhor = Genetic.melhorDoHall();
+		assertNotNull(melhor);
+		return melhor;
+	}
+
+	private static void confereIguais(Cromossomo esperado, Cromossomo obtido) {
+		assertEquals(esperado.getFitness(), obtido.getFitness(), 0.0);
+		assertArrayEquals(esperado.getRota(), obtido.getRota());
+	}
+
+	@Test
+	public void motorComUmaEQuatroThreads() {
+		String[][] variacoes = { {}, { "-selecao", "torneio", "-crossover", "eax", "-buscaLocal", "melhores" } };
+		for (String[] variacao : variacoes) {
+			Cromossomo[] melhores = new Cromossomo[2];
+			int[] paralelismos = { 1, 4 };
+			for (int i = 0; i < paralelismos.length; i++) {
+				String[] base = { "-semente", "7", "-geracoes", "20", "-grafo", "grafo-50.xml", "-paralelismo",
+						String.valueOf(paralelismos[i]) };
+				String[] args = new String[base.length + variacao.length];
+				System.arraycopy(base, 0, args, 0, base.length);
+				System.arraycopy(variacao, 0, args, base.length, variacao.length);
+				melhores[i] = executa(args);
+			}
+			confereIguais(melhores[0], melhores[1]);
+		}
+	}
+
+	@Test
+	public void arquipelagoComParalelismosDiferentes() {
+		Cromossomo referencia = null;
+		for (int paralelismo : new int[] { 1, 2, 4 }) {
+			Cromossomo melhor = executa("-semente", "7", "-geracoes", "20", "-grafo", "grafo-50.xml", "-ilhas", "2",
+					"-migracao", "5", "-paralelismo", String.valueOf(paralelismo));
+			if (referencia == null) {
+				referencia = melhor;
+			} else {
+				confereIguais(referencia, melhor);
+			}
+		}
+	}
+
+}
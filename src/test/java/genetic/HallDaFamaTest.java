@@ -0,0 +1,92 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import gude.Graph;
+
+public class HallDaFamaTest {
+
+	/**
+	 * Grafo completo de n cidades, com a distância |i - j| entre elas
+	 */
+	private static Graph linha(int n) {
+		Graph g = new Graph();
+		for (int i = 0; i < n; i++) {
+			g.createVertex();
+		}
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				if (i != j) {
+					g.createEdge(i, j, (double) Math.abs(i - j));
+				}
+			}
+		}
+		g.buildDistanceMatrix();
+		return g;
+	}
+
+	private static Cromossomo cromossomo(Graph g, int... rota) {
+		Cromossomo c = new Cromossomo(g);
+		c.setRota(rota);
+		return c;
+	}
+
+	@Test
+	public void vazioNaoTemMelhor() {
+		HallDaFama hall = new HallDaFama(3);
+		assertNull(hall.melhor());
+		assertTrue(hall.getRetrato().isEmpty());
+	}
+
+	@Test
+	public void recusaRotaRepetida() {
+		Graph g = linha(5);
+		HallDaFama hall = new HallDaFama(5);
+		assertTrue(hall.oferece(cromossomo(g, 0, 2, 1, 3, 4)));
+		assertFalse(hall.oferece(cromossomo(g, 0, 2, 1, 3, 4)));
+		assertTrue(hall.oferece(cromossomo(g, 0, 1, 2, 3, 4)));
+		assertEquals(2, hall.getRetrato().size());
+		assertEquals(4.0, hall.melhor().getFitness(), 0.0);
+	}
+
+	@Test
+	public void recusaPontasErradas() {
+		Graph g = linha(5);
+		HallDaFama hall = new HallDaFama(5);
+		hall.setPontas(0, 4);
+		assertFalse(hall.oferece(cromossomo(g, 1, 0, 2, 3, 4)));
+		assertFalse(hall.oferece(cromossomo(g, 0, 1, 2, 4, 3)));
+		assertNull(hall.melhor());
+		assertTrue(hall.oferece(cromossomo(g, 0, 3, 2, 1, 4)));
+		assertEquals(1, hall.getRetrato().size());
+	}
+
+	@Test
+	public void guardaOsMelhoresAteACapacidade() {
+		Graph g = linha(5);
+		HallDaFama hall = new HallDaFama(2);
+		assertTrue(hall.oferece(cromossomo(g, 0, 3, 1, 2, 4))); // 8
+		assertTrue(hall.oferece(cromossomo(g, 0, 3, 2, 1, 4))); // 8
+		assertTrue(hall.oferece(cromossomo(g, 0, 1, 2, 3, 4))); // 4
+		assertFalse(hall.oferece(cromossomo(g, 0, 2, 3, 1, 4))); // 8
+
+		List<Cromossomo> retrato = hall.getRetrato();
+		assertEquals(2, retrato.size());
+		assertEquals(4.0, retrato.get(0).getFitness(), 0.0);
+		assertEquals(8.0, retrato.get(1).getFitness(), 0.0);
+
+		// O hall guarda cópias: alterar a rota oferecida não muda o hall
+		Cromossomo c = cromossomo(g, 0, 2, 1, 3, 4);
+		assertTrue(hall.oferece(c));
+		c.getRota()[1] = 1;
+		assertEquals(2, hall.getRetrato().get(1).getRota()[1]);
+	}
+
+}
@@ -0,0 +1,145 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Test;
+
+import gude.Graph;
+
+public class InfeccaoTest {
+
+	@After
+	public void restauraPontas() {
+		Pontas.setFixas(false);
+	}
+
+	/**
+	 * Infecção da implementação anterior: a subrota na posição inicio e as
+	 * demais cidades da rota, na ordem, ao redor dela
+	 */
+	private static int[] referencia(int[] rota, int[] subRota, int inicio) {
+		int[] resto = new int[rota.length - subRota.length];
+		int k = 0;
+		for (int cidade : rota) {
+			boolean doVirus = false;
+			for (int v : subRota) {
+				doVirus |= (v == cidade);
+			}
+			if (!doVirus) {
+				resto[k++] = cidade;
+			}
+		}
+		int[] infectada = new int[rota.length];
+		System.arraycopy(resto, 0, infectada, 0, inicio);
+		System.arraycopy(subRota, 0, infectada, inicio, subRota.length);
+		System.arraycopy(resto, inicio, infectada, inicio + subRota.length, resto.length - inicio);
+		return infectada;
+	}
+
+	private static int[] permutacao(int n, SplittableRandom gerador) {
+		int[] rota = new int[n];
+		for (int i = 0; i < n; i++) {
+			rota[i] = i;
+		}
+		Populacao.embaralha(rota, gerador);
+		return rota;
+	}
+
+	@Test
+	public void mesmaRotaDaReferencia() {
+		SplittableRandom gerador = new SplittableRandom(4);
+		for (int t = 0; t < 5000; t++) {
+			int n = 2 + gerador.nextInt(60);
+			int[] rota = permutacao(n, gerador);
+			int[] subRota = Arrays.copyOf(permutacao(n, gerador), 1 + gerador.nextInt(n - 1));
+			int inicio = gerador.nextInt(n - subRota.length + 1);
+
+			int[] destino = new int[n];
+			int[] alterado = new int[2];
+			Infeccao.infecta(rota, subRota, inicio, destino, alterado);
+			assertArrayEquals(referencia(rota, subRota, inicio), destino);
+
+			// Fora do trecho alterado, a rota infectada é igual à original
+			for (int i = 0; i < n; i++) {
+				if (i < alterado[0] || i >= alterado[1]) {
+					assertEquals(rota[i], destino[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void fitnessIncrementalIgualAoCompleto() {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		int n = g.getNumVertex();
+		SplittableRandom gerador = new SplittableRandom(5);
+		for (boolean fixas : new boolean[] { false, true }) {
+			Pontas.setFixas(fixas);
+			for (int t = 0; t < 2000; t++) {
+				int[] rota = new int[n];
+				for (int i = 0; i < n; i++) {
+					rota[i] = i;
+				}
+				Pontas.embaralha(rota, g, gerador);
+				Cromossomo cromossomo = new Cromossomo(g);
+				cromossomo.setRota(rota);
+
+				Virus virus = new Virus(g);
+				virus.setSubRota(new int[1 + gerador.nextInt(n - 2)]);
+				virus.transducao(cromossomo, gerador);
+				// Outra rota, para que o vírus não venha da própria rota
+				int[] outra = rota.clone();
+				Pontas.embaralha(outra, g, gerador);
+				Cromossomo alvo = new Cromossomo(g);
+				alvo.setRota(outra);
+
+				Cromossomo infectado = virus.geraInfectado(alvo, gerador);
+				Cromossomo completo = new Cromossomo(g);
+				completo.setRota(infectado.getRota().clone());
+				assertEquals(completo.getFitness(), infectado.getFitness(), 1e-6);
+				assertEquals(completo.getAssinatura(), infectado.getAssinatura());
+
+				boolean[] visitada = new boolean[n];
+				for (int cidade : infectado.getRota()) {
+					assertEquals(false, visitada[cidade]);
+					visitada[cidade] = true;
+				}
+				if (fixas) {
+					assertEquals(rota[0], infectado.getRota()[0]);
+					assertEquals(rota[n - 1], infectado.getRota()[n - 1]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rotas ou vírus com cidades repetidas não escrevem fora do destino e
+	 * marcam a rota inteira como alterada
+	 */
+	@Test
+	public void toleraCidadesRepetidas() {
+		int[] destino = new int[4];
+		int[] alterado = new int[2];
+		// Candidatos de sobra: a rota tem a cidade 1 duas vezes
+		Infeccao.infecta(new int[] { 0, 1, 1, 3 }, new int[] { 2 }, 1, destino, alterado);
+		assertArrayEquals(new int[] { 0, 2, 1, 1 }, destino);
+		assertEquals(0, alterado[0]);
+		assertEquals(4, alterado[1]);
+
+		// Candidatos de menos: o vírus tem a cidade 1 duas vezes
+		Infeccao.infecta(new int[] { 0, 1, 2, 3 }, new int[] { 1, 1 }, 1, destino, alterado);
+		assertEquals(0, alterado[0]);
+		assertEquals(4, alterado[1]);
+
+		// A máscara fica limpa para a próxima infecção da thread
+		int[] rota = { 3, 0, 2, 1 };
+		Infeccao.infecta(rota, new int[] { 1 }, 0, destino, alterado);
+		assertArrayEquals(referencia(rota, new int[] { 1 }, 0), destino);
+	}
+
+}
@@ -0,0 +1,81 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class IntervaloTest {
+
+	@After
+	public void restauraPontas() {
+		Pontas.setFixas(false);
+	}
+
+	/**
+	 * Sorteia muitos intervalos e confere que todos ficam em [menor, maior] e
+	 * que todos os inícios possíveis saem com frequência parecida
+	 */
+	private static void confereUniforme(int tamCromossomo, int tamanho, int menor, int maior) {
+		SplittableRandom gerador = new SplittableRandom(tamCromossomo * 31 + tamanho);
+		int inicios = maior - tamanho + 2 - menor;
+		int[] contagem = new int[inicios];
+		int sorteios = 2000 * inicios;
+		for (int s = 0; s < sorteios; s++) {
+			int[] intervalo = Intervalo.sorteia(tamCromossomo, tamanho, gerador);
+			assertEquals(tamanho, intervalo[1] - intervalo[0]);
+			assertTrue(intervalo[0] >= menor);
+			assertTrue(intervalo[1] <= maior + 1);
+			contagem[intervalo[0] - menor]++;
+		}
+		for (int c : contagem) {
+			assertTrue("contagem " + c, Math.abs(c - 2000) < 300);
+		}
+	}
+
+	@Test
+	public void pontasLivres() {
+		for (int n : new int[] { 2, 5, 50 }) {
+			for (int tamanho = 1; tamanho < n; tamanho++) {
+				// fim < n, então a última posição ocupada é n - 2
+				confereUniforme(n, tamanho, 0, n - 2);
+			}
+		}
+	}
+
+	@Test
+	public void pontasFixas() {
+		Pontas.setFixas(true);
+		for (int n : new int[] { 3, 6, 50 }) {
+			for (int tamanho = 1; tamanho <= n - 2; tamanho++) {
+				// A primeira e a última posição ficam de fora
+				confereUniforme(n, tamanho, 1, n - 2);
+			}
+		}
+	}
+
+	@Test
+	public void recusaIntervaloQueNaoCabe() {
+		SplittableRandom gerador = new SplittableRandom(1);
+		int[][] casos = { { 5, 0 }, { 5, 5 }, { 1, 1 } };
+		for (int[] caso : casos) {
+			try {
+				Intervalo.sorteia(caso[0], caso[1], gerador);
+				fail(caso[0] + " " + caso[1]);
+			} catch (IllegalArgumentException esperada) {
+			}
+		}
+
+		Pontas.setFixas(true);
+		try {
+			Intervalo.sorteia(5, 4, gerador);
+			fail();
+		} catch (IllegalArgumentException esperada) {
+		}
+	}
+
+}
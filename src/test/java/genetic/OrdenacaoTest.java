@@ -0,0 +1,126 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OrdenacaoTest {
+
+	/**
+	 * Os k primeiros índices de uma ordenação estável pelo fitness
+	 */
+	private static int[] referencia(final double[] fitness, int k) {
+		Integer[] ordem = new Integer[fitness.length];
+		for (int i = 0; i < ordem.length; i++) {
+			ordem[i] = i;
+		}
+		Arrays.sort(ordem, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(fitness[i1], fitness[i2]);
+			}
+		});
+		int[] indices = new int[Math.max(0, Math.min(k, ordem.length))];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = ordem[i];
+		}
+		return indices;
+	}
+
+	@Test
+	public void mesmaOrdemDaOrdenacaoEstavel() {
+		Random r = new Random(3);
+		for (int t = 0; t < 20000; t++) {
+			int n = r.nextInt(300);
+			// Metade dos casos com poucos valores distintos, para haver empates
+			int valores = r.nextBoolean() ? 5 : 1000;
+			double[] fitness = new double[n];
+			for (int i = 0; i < n; i++) {
+				fitness[i] = r.nextInt(valores);
+			}
+			// Prefixo já ordenado, como os sobreviventes da geração anterior
+			int prefixo = (n == 0) ? 0 : r.nextInt(n + 1);
+			Arrays.sort(fitness, 0, prefixo);
+
+			int k = r.nextInt(n + 2) - (r.nextInt(10) == 0 ? n + 2 : 0);
+			assertArrayEquals("n=" + n + " prefixo=" + prefixo + " k=" + k, referencia(fitness, k),
+					Ordenacao.melhores(fitness, k));
+		}
+	}
+
+	/**
+	 * Entradas ordenadas, invertidas ou com todos os valores iguais (que o
+	 * desempate pelo índice torna ordenadas) devem continuar O(n log n)
+	 */
+	@Test(timeout = 5000)
+	public void caudaOrdenadaNaoDegrada() {
+		int n = 50000;
+		double[] crescente = new double[n];
+		double[] decrescente = new double[n];
+		double[] iguais = new double[n];
+		for (int i = 0; i < n; i++) {
+			crescente[i] = i;
+			decrescente[i] = n - i;
+			iguais[i] = 7.0;
+		}
+		for (double[] fitness : new double[][] { crescente, decrescente, iguais }) {
+			int[] indices = new int[n];
+			for (int i = 0; i < n; i++) {
+				indices[i] = i;
+			}
+			Ordenacao.ordena(fitness, indices, 0, n - 1);
+			assertArrayEquals(referencia(fitness, n), indices);
+		}
+
+		// Um cromossomo fora de ordem no início e uma cauda ordenada, como a
+		// população com os filhos e os migrantes anexados no fim
+		double[] cauda = crescente.clone();
+		cauda[0] = n;
+		assertArrayEquals(referencia(cauda, n), Ordenacao.melhores(cauda, n));
+		assertArrayEquals(referencia(cauda, n / 2), Ordenacao.melhores(cauda, n / 2));
+
+		new SelecaoRank().prepara(crescente);
+	}
+
+	@Test
+	public void valoresEspeciais() {
+		double[] fitness = { Double.NaN, 1.0, Double.POSITIVE_INFINITY, -0.0, 0.0, Double.NEGATIVE_INFINITY, 1.0 };
+		for (int k = 0; k <= fitness.length; k++) {
+			assertArrayEquals(referencia(fitness, k), Ordenacao.melhores(fitness, k));
+		}
+	}
+
+	@Test
+	public void ordenaCromossomos() {
+		Random r = new Random(9);
+		double[] fitness = new double[100];
+		List<Cromossomo> cromossomos = new ArrayList<Cromossomo>();
+		for (int i = 0; i < fitness.length; i++) {
+			final double f = r.nextInt(20);
+			fitness[i] = f;
+			cromossomos.add(new Cromossomo(null) {
+				@Override
+				public double getFitness() {
+					return f;
+				}
+			});
+		}
+
+		int[] esperado = referencia(fitness, 30);
+		List<Cromossomo> melhores = Ordenacao.melhores(cromossomos, 30);
+		assertEquals(30, melhores.size());
+		for (int i = 0; i < esperado.length; i++) {
+			assertSame(cromossomos.get(esperado[i]), melhores.get(i));
+		}
+		assertEquals(cromossomos.size(), Ordenacao.ordena(cromossomos).size());
+	}
+
+}
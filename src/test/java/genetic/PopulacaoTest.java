@@ -0,0 +1,70 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import gude.Graph;
+
+public class PopulacaoTest {
+
+	/**
+	 * Adiciona à população um cromossomo com o fitness informado e retorna uma
+	 * referência fraca a ele
+	 */
+	private static WeakReference<Cromossomo> adiciona(Populacao populacao, Graph g, double fitness) {
+		final double f = fitness;
+		Cromossomo c = new Cromossomo(g) {
+			@Override
+			public double getFitness() {
+				return f;
+			}
+		};
+		int[] rota = new int[g.getNumVertex()];
+		for (int i = 0; i < rota.length; i++) {
+			rota[i] = i;
+		}
+		c.setRota(rota);
+		populacao.getPopulacao().add(c);
+		return new WeakReference<Cromossomo>(c);
+	}
+
+	/**
+	 * Os eliminados não continuam presos à lista da população, como
+	 * aconteceria se ela fosse truncada com uma subList
+	 */
+	@Test
+	public void mantemMelhoresNaoGuardaOsEliminados() throws Exception {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		Populacao populacao = new Populacao(g);
+		List<Cromossomo> lista = populacao.getPopulacao();
+		List<WeakReference<Cromossomo>> eliminados = new ArrayList<WeakReference<Cromossomo>>();
+		for (int i = 0; i < 400; i++) {
+			WeakReference<Cromossomo> referencia = adiciona(populacao, g, i);
+			if (i >= 300) {
+				eliminados.add(referencia);
+			}
+		}
+
+		populacao.mantemMelhores(300);
+		assertSame(lista, populacao.getPopulacao());
+		assertSame(ArrayList.class, populacao.getPopulacao().getClass());
+		assertEquals(300, populacao.getPopulacao().size());
+		assertEquals(299.0, populacao.getPopulacao().get(299).getFitness(), 0.0);
+
+		for (int tentativa = 0; tentativa < 20 && eliminados.get(0).get() != null; tentativa++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		for (WeakReference<Cromossomo> referencia : eliminados) {
+			assertNull(referencia.get());
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package genetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import gude.Graph;
+
+public class ReservaRotasTest {
+
+	@Test
+	public void reaproveitaNaMesmaThread() {
+		int[] rota = new int[37];
+		ReservaRotas.devolve(rota);
+		assertSame(rota, ReservaRotas.obtem(37));
+
+		// Um vetor de outro tamanho esvazia a reserva
+		ReservaRotas.devolve(new int[37]);
+		ReservaRotas.devolve(new int[38]);
+		assertEquals(37, ReservaRotas.obtem(37).length);
+		assertEquals(38, ReservaRotas.obtem(38).length);
+	}
+
+	@Test
+	public void vetoresDevolvidosEmUmaThreadServemAOutra() throws Exception {
+		final int n = 41;
+		final Set<int[]> devolvidos = Collections.newSetFromMap(new IdentityHashMap<int[], Boolean>());
+		Thread populacao = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				// Mais vetores do que a reserva de uma thread guarda
+				for (int i = 0; i < 2000; i++) {
+					int[] rota = new int[n];
+					devolvidos.add(rota);
+					ReservaRotas.devolve(rota);
+				}
+			}
+		});
+		populacao.start();
+		populacao.join();
+
+		final List<int[]> obtidos = new ArrayList<int[]>();
+		Thread motor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 100; i++) {
+					obtidos.add(ReservaRotas.obtem(n));
+				}
+			}
+		});
+		motor.start();
+		motor.join();
+
+		Set<int[]> distintos = Collections.newSetFromMap(new IdentityHashMap<int[], Boolean>());
+		for (int[] rota : obtidos) {
+			assertTrue(devolvidos.contains(rota));
+			assertTrue(distintos.add(rota));
+		}
+	}
+
+	/**
+	 * Gerações com crossover e busca local em quatro threads e com as mortes
+	 * na thread da população: nenhum vetor de um cromossomo vivo é entregue a
+	 * outro, então a rota de cada sobrevivente continua a mesma de quando ele
+	 * nasceu
+	 */
+	@Test
+	public void rotaDeCromossomoVivoNuncaEReaproveitada() {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		SplittableRandom gerador = new SplittableRandom(19);
+		MotorParalelo motor = new MotorParalelo(4, 19);
+		Populacao populacao = new Populacao(g);
+		populacao.geraPopulacao(300);
+		Map<Cromossomo, int[]> retratos = new IdentityHashMap<Cromossomo, int[]>();
+
+		try {
+			for (int geracao = 0; geracao < 30; geracao++) {
+				List<Cromossomo> vivos = populacao.getPopulacao();
+				List<Cromossomo> embaralhados = new ArrayList<Cromossomo>(vivos);
+				Collections.shuffle(embaralhados, new Random(gerador.nextLong()));
+				int casais = embaralhados.size() / 2;
+				Crossover operador = Crossover.Tipo.values()[geracao % Crossover.Tipo.values().length].cria();
+				vivos.addAll(motor.cruza(embaralhados.subList(0, casais), embaralhados.subList(casais, 2 * casais),
+						operador));
+
+				List<Cromossomo> alvos = new ArrayList<Cromossomo>(vivos.subList(0, 20));
+				List<Cromossomo> melhorados = motor.melhora(alvos, 0);
+				for (int i = 0; i < alvos.size(); i++) {
+					if (melhorados.get(i) != alvos.get(i)) {
+						vivos.set(i, melhorados.get(i));
+						ReservaRotas.devolve(alvos.get(i));
+					}
+				}
+
+				Genetic.mataClones(populacao);
+				populacao.mantemMelhores(300);
+				confere(populacao.getPopulacao(), retratos, g);
+			}
+		} finally {
+			motor.encerra();
+		}
+	}
+
+	private static void confere(List<Cromossomo> vivos, Map<Cromossomo, int[]> retratos, Graph g) {
+		Map<int[], Cromossomo> donos = new IdentityHashMap<int[], Cromossomo>();
+		Map<Cromossomo, int[]> atuais = new IdentityHashMap<Cromossomo, int[]>();
+		for (Cromossomo cromossomo : vivos) {
+			assertNull(donos.put(cromossomo.getRota(), cromossomo));
+			int[] retrato = retratos.get(cromossomo);
+			if (retrato != null) {
+				assertArrayEquals(retrato, cromossomo.getRota());
+			}
+			Cromossomo completo = new Cromossomo(g);
+			completo.setRota(cromossomo.getRota().clone());
+			assertEquals(completo.getFitness(), cromossomo.getFitness(), 1e-6);
+			atuais.put(cromossomo, cromossomo.getRota().clone());
+		}
+		retratos.clear();
+		retratos.putAll(atuais);
+	}
+
+}
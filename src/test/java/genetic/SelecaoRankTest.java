@@ -0,0 +1,61 @@
+package genetic;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class SelecaoRankTest {
+
+	/**
+	 * Sorteio da implementação anterior, com o vetor de índices ordenado de
+	 * forma estável por um Comparator
+	 */
+	private static int referencia(final double[] pesos, SplittableRandom rand) {
+		Integer[] ordem = new Integer[pesos.length];
+		for (int i = 0; i < pesos.length; i++) {
+			ordem[i] = i;
+		}
+		Arrays.sort(ordem, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(pesos[i1], pesos[i2]);
+			}
+		});
+		double total = pesos.length * (pesos.length + 1) / 2.0;
+		double roleta = rand.nextDouble() * total;
+		double soma = 0.0;
+		for (int i = 0; i < pesos.length; i++) {
+			soma += i + 1;
+			if (soma > roleta) {
+				return ordem[i];
+			}
+		}
+		return ordem[pesos.length - 1];
+	}
+
+	@Test
+	public void mesmoSorteioDaOrdenacaoEstavel() {
+		SplittableRandom gerador = new SplittableRandom(8);
+		SelecaoRank selecao = new SelecaoRank();
+		for (int t = 0; t < 200; t++) {
+			// Poucos valores distintos, para que haja muitos empates
+			double[] pesos = new double[1 + gerador.nextInt(300)];
+			for (int i = 0; i < pesos.length; i++) {
+				pesos[i] = gerador.nextInt(1 + pesos.length / 4);
+			}
+			selecao.prepara(pesos);
+
+			long semente = gerador.nextLong();
+			SplittableRandom a = new SplittableRandom(semente);
+			SplittableRandom b = new SplittableRandom(semente);
+			for (int s = 0; s < 50; s++) {
+				assertEquals(referencia(pesos, a), selecao.seleciona(b));
+			}
+		}
+	}
+
+}
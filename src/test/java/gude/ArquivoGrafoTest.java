@@ -0,0 +1,246 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArquivoGrafoTest {
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	/**
+	 * Grafo aleatório com ids esparsos (vértices e arestas removidos), cores,
+	 * laços, arestas paralelas e arestas sem distância.
+	 */
+	private static Graph aleatorio(Random r) {
+		Graph g = new Graph();
+		int n = r.nextInt(30);
+		for (int i = 0; i < n; i++) {
+			g.createVertex().setColor(r.nextInt(5));
+		}
+		for (int i = 0; i < n / 3; i++) {
+			int id = 1 + r.nextInt(n);
+			if (g.idVertexExists(id)) {
+				g.removeVertex(id);
+			}
+		}
+		List<Integer> ids = new ArrayList<Integer>(g.getVertexTree().keySet());
+		if (!ids.isEmpty()) {
+			int m = r.nextInt(60);
+			for (int a = 0; a < m; a++) {
+				Double d = r.nextBoolean() ? null : r.nextDouble();
+				g.createEdge(ids.get(r.nextInt(ids.size())), ids.get(r.nextInt(ids.size())), d);
+			}
+		}
+		if (g.getNumEdge() > 0 && r.nextBoolean()) {
+			g.removeEdge(g.getEdgeTree().firstKey());
+		}
+		if (r.nextBoolean()) {
+			g.buildDistanceMatrix();
+		}
+		return g;
+	}
+
+	private static void confereIguais(Graph esperado, Graph lido) {
+		assertEquals(esperado.getNumVertex(), lido.getNumVertex());
+		assertEquals(esperado.getNumEdge(), lido.getNumEdge());
+		for (Vertex v : esperado.getVertexTree().values()) {
+			Vertex w = lido.getVertex(v.getId());
+			assertNotNull(w);
+			assertEquals(v.getColor(), w.getColor());
+			assertEquals(v.getDegree(), w.getDegree());
+			assertEquals(new ArrayList<Integer>(v.getEdgeList().keySet()),
+					new ArrayList<Integer>(w.getEdgeList().keySet()));
+		}
+		for (Edge a : esperado.getEdgeTree().values()) {
+			Edge b = lido.getEdgeTree().get(a.getId());
+			assertNotNull(b);
+			assertEquals(a.getAlpha().getId(), b.getAlpha().getId());
+			assertEquals(a.getOmega().getId(), b.getOmega().getId());
+			assertEquals(a.getDistancia(), b.getDistancia());
+		}
+		assertEquals(esperado.ultimoIdVertex(), lido.ultimoIdVertex());
+		assertEquals(esperado.ultimoIdEdge(), lido.ultimoIdEdge());
+
+		Distancias d = esperado.getDistancias();
+		assertEquals(d == null, lido.getDistancias() == null);
+		if (d != null) {
+			int n = d.tamanho();
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					assertEquals(d.distancia(i, j), lido.distance(i, j), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void idaEVolta() throws Exception {
+		String arquivo = pasta.newFile().getPath();
+		Random r = new Random(6);
+		for (int t = 0; t < 200; t++) {
+			Graph g = aleatorio(r);
+			assertTrue(Graph.saveFile(g, arquivo));
+			Graph lido = Graph.loadFile(arquivo);
+			assertNotNull(lido);
+			confereIguais(g, lido);
+
+			// Os ids continuam de onde o grafo gravado parou
+			assertEquals(g.createVertex().getId(), lido.createVertex().getId());
+
+			// As coleções montadas na leitura aceitam remoções
+			if (g.getNumEdge() > 1) {
+				int aresta = g.getEdgeTree().lastKey();
+				g.removeEdge(aresta);
+				lido.removeEdge(aresta);
+				int vertice = g.getEdgeTree().firstEntry().getValue().getAlpha().getId();
+				for (Integer incidente : new ArrayList<Integer>(g.getVertex(vertice).getEdgeList().keySet())) {
+					g.removeEdge(incidente);
+					lido.removeEdge(incidente);
+				}
+				g.removeVertex(vertice);
+				lido.removeVertex(vertice);
+				confereIguais(g, lido);
+			}
+		}
+	}
+
+	/**
+	 * Grava um arquivo com os vértices (id, cor) e as arestas (id, alpha,
+	 * omega) informados, na ordem dada, e o CRC correto
+	 */
+	private static void grava(File arquivo, int[][] vertices, int[][] arestas) throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(7 * 4 + 8 * vertices.length + 20 * arestas.length + 8);
+		buffer.putInt(ArquivoGrafo.MARCA).putInt(ArquivoGrafo.VERSAO).putInt(0);
+		buffer.putInt(vertices.length).putInt(arestas.length).putInt(vertices.length).putInt(arestas.length);
+		for (int[] v : vertices) {
+			buffer.putInt(v[0]).putInt(v[1]);
+		}
+		for (int[] a : arestas) {
+			buffer.putInt(a[0]).putInt(a[1]).putInt(a[2]).putDouble(a[0] / 2.0);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.position());
+		buffer.putLong(crc.getValue());
+		Files.write(arquivo.toPath(), buffer.array());
+	}
+
+	@Test
+	public void idsForaDeOrdem() throws Exception {
+		File arquivo = pasta.newFile();
+		int[][] vertices = { { 2, 7 }, { 1, 0 }, { 3, 1 } };
+		grava(arquivo, vertices, new int[][] { { 3, 1, 2 }, { 1, 2, 3 }, { 2, 2, 2 } });
+		Graph lido = Graph.loadFile(arquivo.getPath());
+		assertNotNull(lido);
+		assertEquals(3, lido.getNumEdge());
+		assertEquals(7, lido.getVertex(2).getColor());
+		assertEquals(4, lido.getVertex(2).getDegree());
+		assertEquals(Arrays.asList(1, 2, 3), new ArrayList<Integer>(lido.getVertex(2).getEdgeList().keySet()));
+		assertEquals(1.5, lido.getEdgeTree().get(3).getDistancia(), 0.0);
+
+		// Arestas repetidas ou com vértices inexistentes, em ordem ou não
+		int[][][] invalidas = { { { 1, 1, 2 }, { 1, 2, 3 } }, { { 2, 1, 2 }, { 1, 2, 3 }, { 2, 1, 3 } },
+				{ { 1, 1, 4 } }, { { 2, 1, 2 }, { 1, 5, 3 } } };
+		for (int[][] arestas : invalidas) {
+			grava(arquivo, vertices, arestas);
+			assertNull(Graph.loadFile(arquivo.getPath()));
+		}
+	}
+
+	@Test
+	public void arestasSemDistancia() throws Exception {
+		Graph g = new Graph();
+		for (int i = 0; i < 3; i++) {
+			g.createVertex();
+		}
+		g.createEdge(1, 2, null);
+		g.createEdge(2, 3, 2.5);
+		g.buildDistanceMatrix();
+
+		String arquivo = pasta.newFile().getPath();
+		assertTrue(Graph.saveFile(g, arquivo));
+		Graph lido = Graph.loadFile(arquivo);
+		assertNotNull(lido);
+		confereIguais(g, lido);
+		assertNull(lido.getEdge(1, 2).getDistancia());
+		assertEquals(Double.POSITIVE_INFINITY, lido.distance(0, 1), 0.0);
+	}
+
+	@Test
+	public void matrizSemArestas() throws Exception {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		assertEquals(0, g.getNumEdge());
+
+		String arquivo = pasta.newFile().getPath();
+		assertTrue(Graph.saveFile(g, arquivo));
+		confereIguais(g, Graph.loadFile(arquivo));
+	}
+
+	@Test
+	public void recusaArquivoCorrompido() throws Exception {
+		File arquivo = pasta.newFile();
+		assertTrue(Graph.saveFile(aleatorioComArestas(), arquivo.getPath()));
+		byte[] bytes = Files.readAllBytes(arquivo.toPath());
+
+		// Um bit trocado em cada região: cabeçalho, vértices, arestas e CRC
+		for (int posicao : new int[] { 16, 30, bytes.length / 2, bytes.length - 1 }) {
+			byte[] alterados = bytes.clone();
+			alterados[posicao] ^= 1;
+			Files.write(arquivo.toPath(), alterados);
+			assertNull("byte " + posicao, Graph.loadFile(arquivo.getPath()));
+		}
+	}
+
+	@Test
+	public void recusaArquivoTruncado() throws Exception {
+		File arquivo = pasta.newFile();
+		assertTrue(Graph.saveFile(aleatorioComArestas(), arquivo.getPath()));
+		byte[] bytes = Files.readAllBytes(arquivo.toPath());
+
+		for (int tamanho : new int[] { 0, 3, 20, bytes.length / 2, bytes.length - 1 }) {
+			Files.write(arquivo.toPath(), Arrays.copyOf(bytes, tamanho));
+			assertNull("tamanho " + tamanho, Graph.loadFile(arquivo.getPath()));
+		}
+		Files.write(arquivo.toPath(), Arrays.copyOf(bytes, bytes.length + 8));
+		assertNull(Graph.loadFile(arquivo.getPath()));
+	}
+
+	@Test
+	public void leFormatoSerializadoAntigo() throws Exception {
+		Graph g = aleatorioComArestas();
+		File arquivo = pasta.newFile();
+		try (ObjectOutputStream saida = new ObjectOutputStream(new FileOutputStream(arquivo))) {
+			saida.writeObject(g);
+		}
+		assertFalse(ArquivoGrafo.reconhece(arquivo));
+		confereIguais(g, Graph.loadFile(arquivo.getPath()));
+	}
+
+	private static Graph aleatorioComArestas() {
+		Random r = new Random(7);
+		Graph g;
+		do {
+			g = aleatorio(r);
+		} while (g.getNumEdge() < 10);
+		return g;
+	}
+
+}
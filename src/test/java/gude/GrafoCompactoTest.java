@@ -0,0 +1,114 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GrafoCompactoTest {
+
+	/**
+	 * Multigrafo direcionado aleatório, com laços, arestas paralelas e algumas
+	 * arestas sem distância.
+	 */
+	private static Graph multigrafo(Random r, int n) {
+		Graph g = new Graph();
+		for (int i = 0; i < n; i++) {
+			g.createVertex();
+		}
+		int m = r.nextInt(3 * n + 1);
+		for (int a = 0; a < m; a++) {
+			Double d = (r.nextInt(4) == 0) ? null : r.nextDouble();
+			g.createEdge(1 + r.nextInt(n), 1 + r.nextInt(n), d);
+		}
+		return g;
+	}
+
+	@Test
+	public void buscasNoRetratoIguaisAsDasArvores() {
+		Random r = new Random(1);
+		for (int t = 0; t < 200; t++) {
+			int n = 1 + r.nextInt(30);
+			Graph g = multigrafo(r, n);
+
+			// Sem retrato, getEdge e linkExists percorrem as árvores
+			Edge[][] aresta = new Edge[n + 1][n + 1];
+			boolean[][] ligado = new boolean[n + 1][n + 1];
+			for (int x = 1; x <= n; x++) {
+				for (int y = 1; y <= n; y++) {
+					aresta[x][y] = g.getEdge(x, y);
+					ligado[x][y] = g.linkExists(x, y);
+				}
+			}
+
+			GrafoCompacto c = g.freeze();
+			for (int x = 1; x <= n; x++) {
+				int i = c.indice(x);
+				int adjacentes = 0;
+				for (int y = 1; y <= n; y++) {
+					int j = c.indice(y);
+					assertSame(aresta[x][y], g.getEdge(x, y));
+					assertEquals(ligado[x][y], g.linkExists(x, y));
+					assertEquals(ligado[x][y], c.ligados(i, j));
+
+					double peso = c.peso(i, j);
+					if (aresta[x][y] == null) {
+						assertEquals(Double.POSITIVE_INFINITY, peso, 0.0);
+					} else if (aresta[x][y].getDistancia() == null) {
+						assertTrue(Double.isNaN(peso));
+					} else {
+						assertEquals(aresta[x][y].getDistancia(), peso, 0.0);
+					}
+					if (ligado[x][y]) {
+						adjacentes++;
+					}
+				}
+				Vertex v = g.getVertex(x);
+				assertEquals(v.getArrayListOfEdgesOut().size(), c.grauSaida(i));
+				assertEquals(v.getArrayListOfEdgesIn().size(), c.grauEntrada(i));
+				assertEquals(adjacentes, c.numAdjacentes(i));
+				assertEquals(adjacentes, g.getAdjacentes(x).size());
+			}
+		}
+	}
+
+	@Test
+	public void alteracaoDescartaORetrato() {
+		Graph g = multigrafo(new Random(2), 10);
+		GrafoCompacto c = g.freeze();
+		Edge e = g.createEdge(1, 2, 7.0);
+		assertNotSame(c, g.freeze());
+		assertTrue(g.freeze().existeArco(0, 1));
+
+		c = g.freeze();
+		g.removeEdge(e.getId());
+		assertNotSame(c, g.freeze());
+	}
+
+	@Test
+	public void arestaSemDistanciaContaComoLigacao() {
+		Graph g = new Graph();
+		for (int i = 0; i < 3; i++) {
+			g.createVertex();
+		}
+		g.createEdge(1, 2, null);
+		g.createEdge(2, 3, 5.0);
+
+		GrafoCompacto c = g.freeze();
+		assertTrue(Double.isNaN(c.peso(0, 1)));
+		assertSame(g.getEdgeTree().firstEntry().getValue(), g.getEdge(1, 2));
+		assertTrue(g.linkExists(2, 1));
+		assertEquals(1, g.getAdjacentes(1).size());
+		assertEquals(2, g.getAdjacentes(2).size());
+
+		g.buildDistanceMatrix();
+		assertEquals(Double.POSITIVE_INFINITY, g.distance(0, 1), 0.0);
+		assertEquals(5.0, g.distance(2, 1), 0.0);
+		assertEquals(0.0, g.distance(0, 0), 0.0);
+	}
+
+}
@@ -0,0 +1,137 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphCacheTest {
+
+	/** Posição do hash no cabeçalho do cache */
+	private static final int POS_HASH = 4 + 4 + 8 + 8;
+
+	/** Uma data antiga o bastante para ser gravada no cache */
+	private static final long DATA = 1500000000000L;
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	private File xml;
+	private File cache;
+
+	@Before
+	public void copiaXml() throws Exception {
+		xml = new File(pasta.getRoot(), "grafo-50.xml");
+		Files.copy(Paths.get("grafo-50.xml"), xml.toPath());
+		assertTrue(xml.setLastModified(DATA));
+		cache = GraphCache.arquivoCache(xml);
+	}
+
+	private static void confereIguais(Graph esperado, Graph lido) {
+		assertNotNull(lido);
+		int n = esperado.getNumVertex();
+		assertEquals(n, lido.getNumVertex());
+		for (int i = 0; i < n; i++) {
+			assertEquals(esperado.getVertexByIndex(i).getId(), lido.getVertexByIndex(i).getId());
+			for (int j = 0; j < n; j++) {
+				assertEquals(esperado.distance(i, j), lido.distance(i, j), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Troca um byte do hash gravado no cache, sem mudar mais nada
+	 */
+	private void estragaHash() throws Exception {
+		try (RandomAccessFile arquivo = new RandomAccessFile(cache, "rw")) {
+			arquivo.seek(POS_HASH);
+			int b = arquivo.read();
+			arquivo.seek(POS_HASH);
+			arquivo.write(b ^ 1);
+		}
+	}
+
+	@Test
+	public void idaEVolta() throws Exception {
+		Graph g = Graph.loadXMLStream(xml.getPath());
+		confereIguais(g, Graph.loadXMLCached(xml.getPath()));
+		assertTrue(cache.isFile());
+
+		confereIguais(g, GraphCache.read(cache, GraphCache.origem(xml)));
+		confereIguais(g, Graph.loadXMLCached(xml.getPath()));
+	}
+
+	@Test
+	public void tamanhoEDataDispensamOHash() throws Exception {
+		Graph.loadXMLCached(xml.getPath());
+		estragaHash();
+
+		// Tamanho e data conferem: o hash nem é calculado
+		assertNotNull(GraphCache.read(cache, GraphCache.origem(xml)));
+
+		// Com outra data, o hash decide
+		assertTrue(xml.setLastModified(DATA + 60000));
+		assertNull(GraphCache.read(cache, GraphCache.origem(xml)));
+	}
+
+	@Test
+	public void mesmoConteudoAtualizaAData() throws Exception {
+		Graph.loadXMLCached(xml.getPath());
+		assertTrue(xml.setLastModified(DATA + 60000));
+		assertNotNull(GraphCache.read(cache, GraphCache.origem(xml)));
+
+		// A leitura anterior gravou a nova data: o hash não é mais conferido
+		estragaHash();
+		assertNotNull(GraphCache.read(cache, GraphCache.origem(xml)));
+	}
+
+	@Test
+	public void xmlRecenteSempreConfereOHash() throws Exception {
+		assertTrue(xml.setLastModified(System.currentTimeMillis()));
+		Graph.loadXMLCached(xml.getPath());
+		estragaHash();
+		assertNull(GraphCache.read(cache, GraphCache.origem(xml)));
+	}
+
+	@Test
+	public void xmlAlteradoRegravaOCache() throws Exception {
+		Graph.loadXMLCached(xml.getPath());
+
+		// Mesmo tamanho, conteúdo diferente: muda a distância entre as
+		// cidades 1 e 2 sem mudar o número de dígitos
+		String texto = new String(Files.readAllBytes(xml.toPath()), StandardCharsets.UTF_8);
+		assertTrue(texto.contains("distancia=\"568.10626\""));
+		texto = texto.replace("distancia=\"568.10626\"", "distancia=\"468.10626\"");
+		Files.write(xml.toPath(), texto.getBytes(StandardCharsets.UTF_8));
+		assertTrue(xml.setLastModified(DATA + 60000));
+
+		assertNull(GraphCache.read(cache, GraphCache.origem(xml)));
+		Graph g = Graph.loadXMLCached(xml.getPath());
+		assertEquals(468.10626, g.distance(g.indexOf(1), g.indexOf(2)), 1e-4);
+		confereIguais(g, GraphCache.read(cache, GraphCache.origem(xml)));
+	}
+
+	@Test
+	public void cacheDeOutraVersaoEhIgnorado() throws Exception {
+		Graph.loadXMLCached(xml.getPath());
+		try (RandomAccessFile arquivo = new RandomAccessFile(cache, "rw")) {
+			arquivo.seek(4);
+			arquivo.writeInt(GraphCache.VERSAO - 1);
+		}
+		assertNull(GraphCache.read(cache, GraphCache.origem(xml)));
+		assertNotNull(Graph.loadXMLCached(xml.getPath()));
+		assertNotNull(GraphCache.read(cache, GraphCache.origem(xml)));
+	}
+
+}
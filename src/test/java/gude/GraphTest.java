@@ -0,0 +1,151 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GraphTest {
+
+	/**
+	 * Grafo aleatório com arestas sem distância, como os montados à mão ou
+	 * lidos de um DIMACS sem pesos.
+	 */
+	private static Graph semPesos(Random r, int n) {
+		Graph g = new Graph();
+		for (int i = 0; i < n; i++) {
+			g.createVertex();
+		}
+		int m = r.nextInt(3 * n + 1);
+		for (int a = 0; a < m; a++) {
+			g.createEdge(1 + r.nextInt(n), 1 + r.nextInt(n), null);
+		}
+		return g;
+	}
+
+	/**
+	 * Compara getAdjacentes com a varredura por linkExists que ele substituiu.
+	 */
+	private static void confereAdjacentes(Graph g) {
+		for (Vertex v : g.getArrayListOfVertexes()) {
+			List<Vertex> esperados = new ArrayList<Vertex>();
+			for (Vertex w : g.getArrayListOfVertexes()) {
+				if (g.linkExists(w.getId(), v.getId())) {
+					esperados.add(w);
+				}
+			}
+			assertEquals(esperados, g.getAdjacentes(v.getId()));
+		}
+	}
+
+	@Test
+	public void adjacentesSemPesos() {
+		Random r = new Random(3);
+		for (int t = 0; t < 100; t++) {
+			int n = 1 + r.nextInt(25);
+			Graph g = semPesos(r, n);
+			confereAdjacentes(g);
+			assertEquals(0, g.getAdjacentes(n + 1).size());
+		}
+	}
+
+	@Test
+	public void adjacentesAcompanhamAlteracoes() {
+		Graph g = semPesos(new Random(4), 8);
+		confereAdjacentes(g);
+		Edge e = g.createEdge(1, 1, null);
+		confereAdjacentes(g);
+		g.createVertex();
+		g.createEdge(9, 1, null);
+		Vertex isolado = g.createVertex();
+		confereAdjacentes(g);
+		g.removeEdge(e.getId());
+		g.removeVertex(isolado.getId());
+		confereAdjacentes(g);
+	}
+
+	@Test
+	public void ordenaGrauEstavel() {
+		Random r = new Random(5);
+		for (int t = 0; t < 100; t++) {
+			Graph g = semPesos(r, 1 + r.nextInt(25));
+			List<Vertex> esperados = g.getArrayListOfVertexes();
+			Collections.sort(esperados, new Comparator<Vertex>() {
+				@Override
+				public int compare(Vertex a, Vertex b) {
+					return Integer.compare(a.getDegree(), b.getDegree());
+				}
+			});
+			assertEquals(esperados, g.ordenaGrau());
+		}
+	}
+
+	/**
+	 * Caminho 1 - 2 - 3 com distâncias 1 e 2.
+	 */
+	private static Graph caminho() {
+		Graph g = new Graph();
+		for (int i = 0; i < 3; i++) {
+			g.createVertex();
+		}
+		g.createEdge(1, 2, 1.0);
+		g.createEdge(2, 3, 2.0);
+		g.buildDistanceMatrix();
+		return g;
+	}
+
+	@Test
+	public void matrizAcompanhaDistanciaAlterada() {
+		Graph g = caminho();
+		assertEquals(1.0, g.distance(0, 1), 0.0);
+		g.getEdge(1, 2).setDistancia(9.0);
+		assertEquals(9.0, g.distance(0, 1), 0.0);
+		assertEquals(9.0, g.distance(1, 0), 0.0);
+	}
+
+	@Test
+	public void matrizAcompanhaVerticesEArestasNovos() {
+		Graph g = caminho();
+		Vizinhos antes = g.getVizinhos(2);
+		g.createVertex();
+		g.createEdge(3, 4, 4.0);
+		assertEquals(4, g.getDistancias().tamanho());
+		assertEquals(3, g.indexOf(4));
+		assertEquals(4, g.getVertexByIndex(3).getId());
+		assertEquals(4.0, g.distance(2, 3), 0.0);
+		assertEquals(2.0, g.distance(1, 2), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, g.distance(0, 3), 0.0);
+		assertNotSame(antes, g.getVizinhos(2));
+		assertEquals(4, g.getVizinhos(2).tamanho());
+		assertEquals(2, g.getVizinhos(2).vizinho(3, 0));
+	}
+
+	@Test
+	public void matrizSemArestasDescartadaNaAlteracao() {
+		Graph g = new Graph();
+		for (int i = 0; i < 2; i++) {
+			g.createVertex();
+		}
+		g.indexaVertices();
+		g.setDistancias(new MatrizDistancias(2, new double[] { 0, 3, 3, 0 }));
+		assertEquals(3.0, g.distance(0, 1), 0.0);
+
+		g.createVertex();
+		assertNull(g.getDistancias());
+		assertEquals(2, g.indexOf(3));
+		try {
+			g.distance(0, 1);
+			fail("a matriz antiga não pode ser lida");
+		} catch (IllegalStateException esperado) {
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LeitorTSPLIBTest {
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	private static final String BURMA14 = "NAME: burma14\nTYPE: TSP\nDIMENSION: 14\nEDGE_WEIGHT_TYPE: GEO\n"
+			+ "EDGE_WEIGHT_FORMAT: FUNCTION \nDISPLAY_DATA_TYPE: COORD_DISPLAY\nNODE_COORD_SECTION\n"
+			+ "   1  16.47       96.10\n   2  16.47       94.44\n   3  20.09       92.54\n"
+			+ "   4  22.39       93.37\n   5  25.23       97.24\n   6  22.00       96.05\n"
+			+ "   7  20.47       97.02\n   8  17.20       96.29\n   9  16.30       97.38\n"
+			+ "  10  14.05       98.12\n  11  16.53       97.38\n  12  21.52       95.59\n"
+			+ "  13  19.41       97.13\n  14  20.09       94.55\nEOF\n";
+
+	/**
+	 * Matriz simétrica de referência para as instâncias EXPLICIT, com pesos
+	 * distintos para que cada formato tenha uma sequência diferente
+	 */
+	private static final int[][] MATRIZ = { { 0, 1, 2, 3 }, { 1, 0, 4, 5 }, { 2, 4, 0, 6 }, { 3, 5, 6, 0 } };
+
+	private Graph carrega(String conteudo) throws IOException {
+		File arquivo = pasta.newFile();
+		Files.write(arquivo.toPath(), conteudo.getBytes(StandardCharsets.UTF_8));
+		return LeitorTSPLIB.carrega(arquivo);
+	}
+
+	private static double rota(Graph g, int... ids) {
+		double soma = 0.0;
+		for (int k = 0; k < ids.length; k++) {
+			soma += g.distance(g.indexOf(ids[k]), g.indexOf(ids[(k + 1) % ids.length]));
+		}
+		return soma;
+	}
+
+	private static String coordenadas(String tipo, double[][] pontos) {
+		StringBuilder texto = new StringBuilder();
+		texto.append("NAME : t\nTYPE : TSP\nDIMENSION : ").append(pontos.length).append('\n');
+		texto.append("EDGE_WEIGHT_TYPE : ").append(tipo).append("\nNODE_COORD_SECTION\n");
+		for (int i = 0; i < pontos.length; i++) {
+			texto.append(i + 1).append(' ').append(pontos[i][0]).append(' ').append(pontos[i][1]).append('\n');
+		}
+		return texto.append("EOF\n").toString();
+	}
+
+	/**
+	 * Pesos de MATRIZ na sequência do formato, em linhas de tamanho variado
+	 */
+	private static String explicita(String formato) {
+		int n = MATRIZ.length;
+		StringBuilder pesos = new StringBuilder();
+		int contador = 0;
+		for (int a = 0; a < n; a++) {
+			for (int b = 0; b < n; b++) {
+				int i;
+				int j;
+				boolean entra;
+				if (formato.endsWith("COL")) {
+					i = b;
+					j = a;
+				} else {
+					i = a;
+					j = b;
+				}
+				if (formato.equals("FULL_MATRIX")) {
+					entra = true;
+				} else if (formato.startsWith("UPPER_DIAG")) {
+					entra = j >= i;
+				} else if (formato.startsWith("UPPER")) {
+					entra = j > i;
+				} else if (formato.startsWith("LOWER_DIAG")) {
+					entra = j <= i;
+				} else {
+					entra = j < i;
+				}
+				if (entra) {
+					pesos.append(MATRIZ[i][j]).append(++contador % 3 == 0 ? "\n" : " ");
+				}
+			}
+		}
+		return "NAME : e\nTYPE : TSP\nDIMENSION : " + n + "\nEDGE_WEIGHT_TYPE : EXPLICIT\nEDGE_WEIGHT_FORMAT : "
+				+ formato + "\nEDGE_WEIGHT_SECTION\n" + pesos + "\nEOF\n";
+	}
+
+	@Test
+	public void geografica() throws Exception {
+		Graph g = carrega(BURMA14);
+		assertEquals(14, g.getNumVertex());
+		assertEquals(0, g.getNumEdge());
+		// Rota ótima publicada da burma14
+		assertEquals(3323.0, rota(g, 1, 2, 14, 3, 4, 5, 6, 12, 7, 13, 8, 11, 9, 10), 0.0);
+	}
+
+	@Test
+	public void euclidianas() throws Exception {
+		double[][] pontos = { { 0, 0 }, { 3, 4 }, { 1, 1 }, { 10, 0 } };
+		Graph euc = carrega(coordenadas("EUC_2D", pontos));
+		assertEquals(5.0, euc.distance(0, 1), 0.0);
+		assertEquals(1.0, euc.distance(0, 2), 0.0);
+		assertEquals(10.0, euc.distance(3, 0), 0.0);
+
+		Graph ceil = carrega(coordenadas("CEIL_2D", pontos));
+		assertEquals(5.0, ceil.distance(0, 1), 0.0);
+		assertEquals(2.0, ceil.distance(0, 2), 0.0);
+
+		// sqrt(100 / 10) = 3,16: arredonda para 3, que é menor, então vale 4
+		Graph att = carrega(coordenadas("ATT", pontos));
+		assertEquals(4.0, att.distance(0, 3), 0.0);
+		assertEquals(0.0, att.distance(2, 2), 0.0);
+	}
+
+	@Test
+	public void formatosExplicitos() throws Exception {
+		String[] formatos = { "FULL_MATRIX", "UPPER_ROW", "LOWER_ROW", "UPPER_DIAG_ROW", "LOWER_DIAG_ROW",
+				"UPPER_COL", "LOWER_COL", "UPPER_DIAG_COL", "LOWER_DIAG_COL" };
+		for (String formato : formatos) {
+			Graph g = carrega(explicita(formato));
+			for (int i = 0; i < MATRIZ.length; i++) {
+				assertEquals(i + 1, g.getVertexByIndex(i).getId());
+				for (int j = 0; j < MATRIZ.length; j++) {
+					assertEquals(formato, MATRIZ[i][j], g.distance(i, j), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void idsDasCoordenadas() throws Exception {
+		Graph g = carrega("DIMENSION: 3\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n7 0 0\n3 0 6\n"
+				+ "9 8 0\nFIXED_EDGES_SECTION\n7 3\n-1\nEOF\n");
+		assertEquals(6.0, g.distance(g.indexOf(7), g.indexOf(3)), 0.0);
+		assertEquals(10.0, g.distance(g.indexOf(3), g.indexOf(9)), 0.0);
+	}
+
+	@Test
+	public void recusaInstanciaInvalida() throws Exception {
+		String[] invalidas = { "EDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\nEOF\n",
+				"DIMENSION: 2\nNODE_COORD_SECTION\n1 0 0\n2 1 1\nEOF\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: MAN_2D\nNODE_COORD_SECTION\n1 0 0\n2 1 1\nEOF\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n2 1\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n2 1 x\nEOF\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEOF\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: UPPER_ROW\nEDGE_WEIGHT_SECTION\nEOF\n",
+				"DIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: X\nEDGE_WEIGHT_SECTION\n1\nEOF\n" };
+		for (String invalida : invalidas) {
+			try {
+				carrega(invalida);
+				fail(invalida);
+			} catch (IOException esperada) {
+			}
+		}
+		assertNull(Graph.loadTSPLIB(new File(pasta.getRoot(), "inexistente.tsp").getPath()));
+	}
+
+}
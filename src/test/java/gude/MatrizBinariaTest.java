@@ -0,0 +1,124 @@
+package gude;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MatrizBinariaTest {
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	/**
+	 * Grafo de n vértices com ids esparsos e a matriz informada
+	 */
+	private static Graph comMatriz(int n, double[] matriz) {
+		Graph g = new Graph();
+		for (int i = 0; i < n; i++) {
+			g.createVertex().setId(3 * i + 2);
+		}
+		g.indexaVertices();
+		g.setDistancias(new MatrizDistancias(n, matriz));
+		return g;
+	}
+
+	private static void confereIguais(Graph esperado, Graph lido, boolean simples) {
+		int n = esperado.getNumVertex();
+		assertEquals(n, lido.getNumVertex());
+		assertEquals(0, lido.getNumEdge());
+		for (int i = 0; i < n; i++) {
+			assertEquals(esperado.getVertexByIndex(i).getId(), lido.getVertexByIndex(i).getId());
+			assertEquals(i, lido.indexOf(esperado.getVertexByIndex(i).getId()));
+			for (int j = 0; j < n; j++) {
+				double d = esperado.distance(i, j);
+				assertEquals(simples ? (float) d : d, lido.distance(i, j), 0.0);
+			}
+		}
+	}
+
+	private Graph idaEVolta(Graph g, int precisao) throws IOException {
+		File arquivo = pasta.newFile();
+		MatrizBinaria.escreve(g, arquivo, precisao);
+		return MatrizBinaria.abre(arquivo);
+	}
+
+	@Test
+	public void simetrica() throws Exception {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		confereIguais(g, idaEVolta(g, 8), false);
+		confereIguais(g, idaEVolta(g, 4), true);
+	}
+
+	@Test
+	public void assimetricaEInfinita() throws Exception {
+		Random r = new Random(2);
+		for (int n : new int[] { 0, 1, 2, 7 }) {
+			double[] matriz = MatrizDistancias.vazia(n);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (i != j && r.nextInt(4) != 0) {
+						matriz[i * n + j] = r.nextDouble() * 100;
+					}
+				}
+			}
+			Graph g = comMatriz(n, matriz);
+			confereIguais(g, idaEVolta(g, 8), false);
+			confereIguais(g, idaEVolta(g, 4), true);
+		}
+	}
+
+	@Test
+	public void deDIMACS() throws Exception {
+		File txt = pasta.newFile();
+		Files.write(txt.toPath(), Arrays.asList("c grafo", "p edge 4 3", "e 1 2 2.5", "e 2 3", "e 4 1 7"),
+				StandardCharsets.UTF_8);
+		File saida = pasta.newFile();
+		MatrizBinaria.deDIMACS(txt.getPath(), saida.getPath(), 8);
+
+		Graph g = MatrizBinaria.abre(saida);
+		assertEquals(4, g.getNumVertex());
+		assertEquals(2.5, g.distance(g.indexOf(2), g.indexOf(1)), 0.0);
+		assertEquals(1.0, g.distance(g.indexOf(2), g.indexOf(3)), 0.0);
+		assertEquals(7.0, g.distance(g.indexOf(1), g.indexOf(4)), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, g.distance(g.indexOf(1), g.indexOf(3)), 0.0);
+		assertEquals(0.0, g.distance(g.indexOf(3), g.indexOf(3)), 0.0);
+	}
+
+	@Test
+	public void recusaArquivoInvalido() throws Exception {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		File arquivo = pasta.newFile();
+		MatrizBinaria.escreve(g, arquivo, 8);
+		byte[] bytes = Files.readAllBytes(arquivo.toPath());
+
+		byte[] marca = bytes.clone();
+		marca[0] ^= 1;
+		byte[] versao = bytes.clone();
+		versao[4] ^= 1;
+		byte[] precisao = bytes.clone();
+		precisao[12] = 5;
+		byte[][] invalidos = { Arrays.copyOf(bytes, 10), Arrays.copyOf(bytes, bytes.length - 1),
+				Arrays.copyOf(bytes, bytes.length + 8), marca, versao, precisao };
+		for (byte[] invalido : invalidos) {
+			Files.write(arquivo.toPath(), invalido);
+			try {
+				MatrizBinaria.abre(arquivo);
+				fail();
+			} catch (IOException esperada) {
+			}
+			assertNull(Graph.loadMatrix(arquivo.getPath()));
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package gude;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class VizinhosTest {
+
+	/**
+	 * Matriz n x n com poucos valores distintos, para haver muitos empates
+	 */
+	private static MatrizDistancias aleatoria(int n, int valores, Random r) {
+		double[] matriz = MatrizDistancias.vazia(n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				matriz[i * n + j] = (i == j) ? 0.0 : 1 + r.nextInt(valores);
+			}
+		}
+		return new MatrizDistancias(n, matriz);
+	}
+
+	/**
+	 * Os k primeiros de uma ordenação estável pela distância, sem o próprio
+	 * vértice
+	 */
+	private static int[] referencia(final Distancias distancias, final int i, int k) {
+		int n = distancias.tamanho();
+		Integer[] ordem = new Integer[n - 1];
+		for (int j = 0, p = 0; j < n; j++) {
+			if (j != i) {
+				ordem[p++] = j;
+			}
+		}
+		Arrays.sort(ordem, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer j1, Integer j2) {
+				return Double.compare(distancias.distancia(i, j1), distancias.distancia(i, j2));
+			}
+		});
+		int[] lista = new int[k];
+		for (int r = 0; r < k; r++) {
+			lista[r] = ordem[r];
+		}
+		return lista;
+	}
+
+	private static int[] lista(Vizinhos vizinhos, int i) {
+		int[] lista = new int[vizinhos.getK()];
+		for (int r = 0; r < lista.length; r++) {
+			lista[r] = vizinhos.vizinho(i, r);
+		}
+		return lista;
+	}
+
+	@Test
+	public void ordenadasPelaDistanciaEPeloIndice() {
+		Random r = new Random(14);
+		for (int valores : new int[] { 3, 1000 }) {
+			MatrizDistancias distancias = aleatoria(150, valores, r);
+			for (int k : new int[] { 1, 5, 16 }) {
+				Vizinhos vizinhos = Vizinhos.constroi(distancias, k, 1);
+				assertEquals(150, vizinhos.tamanho());
+				assertEquals(k, vizinhos.getK());
+				for (int i = 0; i < 150; i++) {
+					int[] lista = lista(vizinhos, i);
+					assertArrayEquals("k=" + k + " i=" + i, referencia(distancias, i, k), lista);
+					for (int vizinho : lista) {
+						assertNotEquals(i, vizinho);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void proprioVerticeNuncaEVizinho() {
+		// Distâncias todas iguais a zero: o próprio vértice empataria com todos
+		int n = 6;
+		Vizinhos vizinhos = Vizinhos.constroi(new MatrizDistancias(n, new double[n * n]), 3, 1);
+		for (int i = 0; i < n; i++) {
+			int[] esperado = new int[3];
+			for (int j = 0, p = 0; p < 3; j++) {
+				if (j != i) {
+					esperado[p++] = j;
+				}
+			}
+			assertArrayEquals(esperado, lista(vizinhos, i));
+		}
+	}
+
+	@Test
+	public void kLimitadoAoNumeroDeVertices() {
+		Random r = new Random(15);
+		MatrizDistancias distancias = aleatoria(7, 5, r);
+		for (int k : new int[] { 6, 7, 50 }) {
+			Vizinhos vizinhos = Vizinhos.constroi(distancias, k, 1);
+			assertEquals(6, vizinhos.getK());
+			assertEquals(7 * 6, vizinhos.getLista().length);
+			for (int i = 0; i < 7; i++) {
+				assertArrayEquals(referencia(distancias, i, 6), lista(vizinhos, i));
+			}
+		}
+		assertEquals(0, Vizinhos.constroi(aleatoria(1, 5, r), 4, 1).getK());
+		assertEquals(0, Vizinhos.constroi(aleatoria(0, 5, r), 4, 1).getLista().length);
+
+		for (int[] invalido : new int[][] { { 0, 1 }, { 3, 0 } }) {
+			try {
+				Vizinhos.constroi(distancias, invalido[0], invalido[1]);
+				fail();
+			} catch (IllegalArgumentException esperada) {
+			}
+		}
+	}
+
+	@Test
+	public void paraleloIgualAoSerial() {
+		Random r = new Random(16);
+		// Mais vértices que o limite de uma tarefa, para a construção dividir
+		MatrizDistancias distancias = aleatoria(500, 20, r);
+		int[] serial = Vizinhos.constroi(distancias, 10, 1).getLista();
+		for (int paralelismo : new int[] { 2, 4 }) {
+			assertArrayEquals(serial, Vizinhos.constroi(distancias, 10, paralelismo).getLista());
+		}
+	}
+
+	@Test
+	public void grafoGuardaAsListas() {
+		Graph g = Graph.loadXMLStream("grafo-50.xml");
+		Vizinhos vizinhos = g.getVizinhos(8);
+		assertSame(vizinhos, g.getVizinhos(8));
+		assertEquals(49, g.getVizinhos(100).getK());
+		assertArrayEquals(Vizinhos.constroi(g.getDistancias(), 8, 1).getLista(), g.getVizinhos(8).getLista());
+	}
+
+}